@@ -0,0 +1,116 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+/**
+ * Listagem de lançamentos como JSON: a lista de DTOs serializada pelo Jackson,
+ * como era feito, comparada ao {@link EscritorLancamentoJson}, com e sem gzip.
+ * As alocações por listagem saem de {@code -prof gc}; o tamanho do corpo é
+ * impresso ao fim de cada configuração.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoLancamentosBenchmark {
+
+	@Param({ "10000" })
+	private int quantidade;
+
+	@Param({ "false", "true" })
+	private boolean gzip;
+
+	private ObjectMapper objectMapper;
+	private List<LancamentoProjecao> projecoes;
+	private ByteArrayOutputStream saida;
+
+	@Setup
+	public void preparar() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		projecoes = new ArrayList<>(quantidade);
+		for (long id = 1; id <= quantidade; id++) {
+			projecoes.add(new LancamentoProjecao(id, "Descrição " + id % 500, (int) (id % 12) + 1, 2020,
+					BigDecimal.valueOf(id % 100000 + 1, 2), 1l,
+					id % 4 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA,
+					StatusLancamento.values()[(int) (id % 3)]));
+		}
+		saida = new ByteArrayOutputStream(quantidade * 160);
+	}
+
+	@TearDown
+	public void imprimirTamanho() {
+		System.out.println();
+		System.out.println("bytes por " + quantidade + " linhas" + (gzip ? " com gzip" : "") + ": " + saida.size());
+	}
+
+	@Benchmark
+	public int jacksonDto() throws IOException {
+		saida.reset();
+		try (OutputStream corpo = corpo()) {
+			List<LancamentoDTO> dtos = projecoes.stream().map(SerializacaoLancamentosBenchmark::converter)
+					.collect(Collectors.toList());
+			objectMapper.writeValue(corpo, dtos);
+		}
+		return saida.size();
+	}
+
+	@Benchmark
+	public int escritorJson() throws IOException {
+		saida.reset();
+		try (EscritorLancamento escritor = EscritorLancamentoJson.array(objectMapper, corpo(),
+				CampoLancamento.TODOS)) {
+			new ListaLancamentos<>(projecoes, SerializacaoLancamentosBenchmark::converter, CampoLancamento.TODOS)
+					.escrever(escritor);
+		}
+		return saida.size();
+	}
+
+	private OutputStream corpo() throws IOException {
+		return gzip ? new GZIPOutputStream(saida, 8192) : saida;
+	}
+
+	private static LancamentoDTO converter(LancamentoProjecao lancamento) {
+		return LancamentoDTO.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.valor(lancamento.getValor())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.status(lancamento.getStatus().name())
+				.tipo(lancamento.getTipo().name())
+				.usuario(lancamento.getIdUsuario())
+				.build();
+	}
+
+}
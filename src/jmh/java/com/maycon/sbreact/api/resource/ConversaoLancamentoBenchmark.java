@@ -0,0 +1,119 @@
+package com.maycon.sbreact.api.resource;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.UsuarioService;
+
+/**
+ * Conversões entre entidade, projeção e DTO feitas pelo resource e a
+ * serialização JSON da entidade comparada à do DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoLancamentoBenchmark {
+
+	private LancamentoResource resource;
+	private ObjectMapper objectMapper;
+	private Lancamento lancamento;
+	private LancamentoProjecao projecao;
+	private LancamentoDTO dto;
+
+	@Setup
+	public void preparar() {
+		Usuario usuario = Usuario.builder().id(1l).nome("usuario").email("usuario@email.com").senha("senha").build();
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		resource = new LancamentoResource(null, new UsuarioReferencia(usuario), null, null, objectMapper);
+		lancamento = Lancamento.builder().id(1l).descricao("Aluguel").mes(1).ano(2020).valor(new BigDecimal("1250.90"))
+				.usuario(usuario).tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).build();
+		projecao = new LancamentoProjecao(1l, "Aluguel", 1, 2020, new BigDecimal("1250.90"), 1l,
+				TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+		dto = resource.converter(lancamento);
+	}
+
+	@Benchmark
+	public LancamentoDTO entidadeParaDto() {
+		return resource.converter(lancamento);
+	}
+
+	@Benchmark
+	public LancamentoDTO projecaoParaDto() {
+		return resource.converter(projecao);
+	}
+
+	@Benchmark
+	public Lancamento dtoParaEntidade() {
+		return resource.converter(dto);
+	}
+
+	@Benchmark
+	public byte[] serializarEntidade() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(lancamento);
+	}
+
+	@Benchmark
+	public byte[] serializarDto() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(dto);
+	}
+
+	private static class UsuarioReferencia implements UsuarioService {
+
+		private final Usuario usuario;
+
+		UsuarioReferencia(Usuario usuario) {
+			this.usuario = usuario;
+		}
+
+		@Override
+		public Usuario autenticar(String email, String senha) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Usuario salvarUsuario(Usuario usuario) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void validarEmail(String email) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Optional<Usuario> obterPorId(Long id) {
+			return Optional.of(usuario);
+		}
+
+		@Override
+		public Usuario obterReferencia(Long id) {
+			return usuario;
+		}
+
+	}
+
+}
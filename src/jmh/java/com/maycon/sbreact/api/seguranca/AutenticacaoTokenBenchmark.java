@@ -0,0 +1,90 @@
+package com.maycon.sbreact.api.seguranca;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.maycon.sbreact.service.TokenService;
+import com.maycon.sbreact.service.impl.TokenServiceImpl;
+
+/**
+ * Custo por requisição da autenticação por token, comparado ao custo de um
+ * login com BCrypt em cada custo configurável.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutenticacaoTokenBenchmark {
+
+	@State(Scope.Thread)
+	public static class Token {
+
+		TokenService tokenService;
+		AutenticacaoTokenFilter filter;
+		String token;
+
+		@Setup
+		public void preparar() {
+			tokenService = new TokenServiceImpl("", Duration.ofHours(1));
+			filter = new AutenticacaoTokenFilter(tokenService);
+			token = tokenService.gerar(123456l);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class Senha {
+
+		@Param({ "4", "10" })
+		int custo;
+
+		BCryptPasswordEncoder passwordEncoder;
+		String hash;
+
+		@Setup
+		public void preparar() {
+			passwordEncoder = new BCryptPasswordEncoder(custo);
+			hash = passwordEncoder.encode("senha-do-usuario");
+		}
+
+	}
+
+	@Benchmark
+	public Long validarToken(Token estado) {
+		return estado.tokenService.validar(estado.token);
+	}
+
+	@Benchmark
+	public Object filtrarRequisicao(Token estado) throws IOException, ServletException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer " + estado.token);
+		estado.filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return request.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO);
+	}
+
+	@Benchmark
+	public boolean verificarSenha(Senha estado) {
+		return estado.passwordEncoder.matches("senha-do-usuario", estado.hash);
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.maycon.sbreact.reativo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.maycon.sbreact.BackendCursoSbReactApplication;
+
+/**
+ * Vazão das mesmas rotas na API servlet e na reativa, com {@code @Threads}
+ * clientes bloqueantes simultâneos sobre um usuário com {@code quantidade}
+ * lançamentos. No H2 em memória o banco não espera por I/O; para reproduzir a
+ * saturação do pool do Tomcat rode com {@code -p perfil=} contra o
+ * PostgreSQL.
+ * <p>
+ * A pilha reativa só existe com o perfil Maven {@code reativo}, por isso é
+ * carregada pelo nome: {@code mvn -Pjmh,reativo -DskipTests verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class CargaApiBenchmark {
+
+	private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+	@Param({ "servlet", "reativo" })
+	private String pilha;
+
+	@Param("test")
+	private String perfil;
+
+	@Param("100")
+	private int quantidade;
+
+	private ConfigurableApplicationContext contexto;
+	private URL lancamentos;
+	private URL saldo;
+
+	@Setup
+	public void preparar() throws IOException {
+		SpringApplicationBuilder aplicacao = pilha.equals("servlet")
+				? new SpringApplicationBuilder(BackendCursoSbReactApplication.class).profiles(perfis())
+				: new SpringApplicationBuilder(aplicacaoReativa()).web(WebApplicationType.REACTIVE)
+						.profiles("reativo").profiles(perfis());
+		// o devtools liga o rastreamento de operadores do Reactor, que domina o custo da pilha reativa
+		contexto = aplicacao.properties("server.port=0", "spring.jpa.show-sql=false",
+				"financas.seguranca.habilitada=false", "spring.reactor.debug=false").run();
+
+		String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+		String usuario = enviar("POST", base + "/api/usuarios",
+				"{\"nome\":\"carga\",\"email\":\"" + UUID.randomUUID() + "@email.com\",\"senha\":\"senha\"}");
+		long idUsuario = id(usuario);
+
+		for (int i = 0; i < quantidade; i++) {
+			String lancamento = enviar("POST", base + "/api/lancamentos",
+					"{\"descricao\":\"lancamento " + i + "\",\"mes\":" + (i % 12 + 1) + ",\"ano\":2020,\"valor\":"
+							+ (i % 1000 + 1) + ",\"tipo\":\"" + (i % 3 == 0 ? "DESPESA" : "RECEITA")
+							+ "\",\"usuario\":" + idUsuario + "}");
+			if (i % 2 == 0) {
+				enviar("PUT", base + "/api/lancamentos/" + id(lancamento) + "/atualiza-status",
+						"{\"status\":\"EFETIVADO\"}");
+			}
+		}
+
+		lancamentos = new URL(base + "/api/lancamentos?usuario=" + idUsuario);
+		saldo = new URL(base + "/api/usuarios/" + idUsuario + "/saldo");
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public String listarLancamentos() throws IOException {
+		return obter(lancamentos);
+	}
+
+	@Benchmark
+	public String obterSaldo() throws IOException {
+		return obter(saldo);
+	}
+
+	/**
+	 * O {@code HttpURLConnection} reaproveita as conexões keep-alive por thread e
+	 * refaz o GET quando o servidor fecha uma conexão ociosa.
+	 */
+	private static String obter(URL url) throws IOException {
+		return ler((HttpURLConnection) url.openConnection(), url.toString());
+	}
+
+	private static String enviar(String metodo, String url, String json) throws IOException {
+		HttpURLConnection conexao = (HttpURLConnection) new URL(url).openConnection();
+		conexao.setRequestMethod(metodo);
+		conexao.setRequestProperty("Content-Type", "application/json");
+		conexao.setDoOutput(true);
+		try (OutputStream saida = conexao.getOutputStream()) {
+			saida.write(json.getBytes(StandardCharsets.UTF_8));
+		}
+		return ler(conexao, metodo + " " + url);
+	}
+
+	private static String ler(HttpURLConnection conexao, String descricao) throws IOException {
+		int status = conexao.getResponseCode();
+		try (InputStream entrada = status < 400 ? conexao.getInputStream() : conexao.getErrorStream()) {
+			String corpo = entrada == null ? "" : new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+			if (status >= 300) {
+				throw new IllegalStateException(descricao + " respondeu " + status + ": " + corpo);
+			}
+			return corpo;
+		}
+	}
+
+	private static Class<?> aplicacaoReativa() {
+		try {
+			return Class.forName("com.maycon.sbreact.reativo.ReativoApplication");
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("A pilha reativa exige o perfil Maven reativo: -Pjmh,reativo.", e);
+		}
+	}
+
+	private String[] perfis() {
+		return perfil.isEmpty() ? new String[0] : perfil.split(",");
+	}
+
+	private static long id(String json) {
+		Matcher matcher = ID.matcher(json);
+		if (!matcher.find()) {
+			throw new IllegalStateException("Resposta sem id: " + json);
+		}
+		return Long.parseLong(matcher.group(1));
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.calculo.Centavos;
+
+/**
+ * Variação de saldo por usuário numa transição de status em lote, como em
+ * {@code SaldoUsuarioServiceImpl.registrarTransicao}: soma em {@link BigDecimal}
+ * (caminho anterior) comparada à soma em {@link Centavos}. Rodar com
+ * {@code -prof gc} para ver a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgregacaoValoresBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int quantidade;
+
+	private List<TotalLancamentos> totais;
+
+	@Setup
+	public void preparar() {
+		totais = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			TipoLancamento tipo = i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+			totais.add(new TotalLancamentos((long) (i % 100), 2020, i % 12 + 1, tipo, StatusLancamento.PENDENTE,
+					BigDecimal.valueOf(i % 100000 + 1, 2), 1l));
+		}
+	}
+
+	@Benchmark
+	public Map<Long, BigDecimal> bigDecimal() {
+		Map<Long, BigDecimal> variacoes = new HashMap<>();
+		for (TotalLancamentos total : totais) {
+			BigDecimal variacao = contribuicao(total.getTipo(), StatusLancamento.EFETIVADO, total.getValor())
+					.subtract(contribuicao(total.getTipo(), total.getStatus(), total.getValor()));
+			variacoes.merge(total.getIdUsuario(), variacao, BigDecimal::add);
+		}
+		return variacoes;
+	}
+
+	@Benchmark
+	public Map<Long, long[]> centavos() {
+		Map<Long, long[]> variacoes = new HashMap<>();
+		for (TotalLancamentos total : totais) {
+			long variacao = Centavos.contribuicao(total.getTipo(), StatusLancamento.EFETIVADO, total.getValor())
+					- Centavos.contribuicao(total.getTipo(), total.getStatus(), total.getValor());
+			variacoes.computeIfAbsent(total.getIdUsuario(), id -> new long[1])[0] += variacao;
+		}
+		return variacoes;
+	}
+
+	private static BigDecimal contribuicao(TipoLancamento tipo, StatusLancamento status, BigDecimal valor) {
+		if (status != StatusLancamento.EFETIVADO || valor == null) {
+			return BigDecimal.ZERO;
+		}
+
+		return tipo == TipoLancamento.DESPESA ? valor.negate() : valor;
+	}
+
+}
@@ -0,0 +1,189 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.maycon.sbreact.BackendCursoSbReactApplication;
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+
+/**
+ * Busca por descrição numa tabela de {@code quantidade} lançamentos divididos
+ * entre {@link #USUARIOS} usuários: busca por prefixo e aproximada, comparadas
+ * à consulta por prefixo sem índice, que percorre todos os lançamentos do
+ * usuário. Todas as consultas são de um só usuário, então o índice em memória
+ * do perfil de teste cobre as mesmas {@code quantidade / USUARIOS} linhas que
+ * as consultas percorrem.
+ * <p>
+ * No perfil de teste o que se mede é o índice em memória sobre o H2. O caminho
+ * de produção, as consultas nativas sobre o índice GIN de trigramas do
+ * PostgreSQL, é medido com {@code -p perfil= -p url=jdbc:postgresql://...}
+ * contra um banco com os scripts de {@code db/migracao} aplicados; lá a
+ * consulta sem índice roda com {@code enable_bitmapscan} desligado, o único
+ * acesso que o GIN oferece. Os lançamentos e usuários criados são excluídos ao
+ * final.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BuscaDescricaoBenchmark {
+
+	private static final String[] PALAVRAS = { "mercado", "farmácia", "aluguel", "condomínio", "energia",
+			"internet", "telefone", "padaria", "restaurante", "combustível", "estacionamento", "academia", "escola",
+			"livraria", "cinema", "viagem", "hotel", "passagem", "seguro", "imposto", "salário", "bônus",
+			"reembolso", "presente", "roupa", "sapato", "médico", "dentista", "exame", "veterinário", "mudança",
+			"reforma" };
+
+	private static final int LIMITE = 20;
+
+	/**
+	 * O índice em memória é por usuário; com a tabela inteira num só usuário ele
+	 * não caberia no heap junto com o H2.
+	 */
+	private static final int USUARIOS = 10;
+
+	@Param({ "1000000" })
+	private int quantidade;
+
+	@Param({ "mercado", "reembolso hotel" })
+	private String termo;
+
+	@Param("test")
+	private String perfil;
+
+	/**
+	 * Vazia mantém o {@code spring.datasource.url} do perfil.
+	 */
+	@Param("")
+	private String url;
+
+	private ConfigurableApplicationContext contexto;
+	private BuscaDescricaoService buscaDescricaoService;
+	private LancamentoRepository lancamentoRepository;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transacao;
+	private boolean postgresql;
+	private Long idUsuario;
+	private Long[] idsUsuario;
+	private String prefixo;
+	private String aproximado;
+
+	@Setup
+	public void preparar() {
+		List<String> propriedades = new ArrayList<>(Arrays.asList("server.port=0", "spring.jpa.show-sql=false"));
+		if (!url.isEmpty()) {
+			propriedades.add("spring.datasource.url=" + url);
+		}
+		contexto = new SpringApplicationBuilder(BackendCursoSbReactApplication.class)
+				.profiles(perfil.isEmpty() ? new String[0] : perfil.split(","))
+				.properties(propriedades.toArray(new String[0])).run();
+		buscaDescricaoService = contexto.getBean(BuscaDescricaoService.class);
+		lancamentoRepository = contexto.getBean(LancamentoRepository.class);
+		jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		transacao = contexto.getBean(TransactionTemplate.class);
+		postgresql = contexto.getEnvironment().getProperty("spring.datasource.url", "").startsWith("jdbc:postgresql:");
+		System.out.println("Busca: " + buscaDescricaoService.getClass().getSimpleName());
+
+		idsUsuario = new Long[USUARIOS];
+		for (int i = 0; i < USUARIOS; i++) {
+			Usuario usuario = contexto.getBean(UsuarioRepository.class).save(Usuario.builder().nome("usuario")
+					.email("busca-" + UUID.randomUUID() + "@email.com").senha("senha").build());
+			idsUsuario[i] = usuario.getId();
+		}
+		idUsuario = idsUsuario[0];
+
+		// ids da sequência, para não colidir com os lançamentos de um banco já em uso
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO financas.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, versao)"
+						+ " VALUES (nextval('financas.lancamento_seq'), ?, ?, ?, ?, ?, ?, ?, ?)",
+				new AbstractList<Object[]>() {
+
+					@Override
+					public Object[] get(int i) {
+						int j = i / USUARIOS;
+						String descricao = PALAVRAS[j % 32] + " " + PALAVRAS[j / 32 % 32] + " " + PALAVRAS[j / 1024 % 32];
+						return new Object[] { descricao, j % 12 + 1, 2000 + j % 20, idsUsuario[i % USUARIOS],
+								BigDecimal.valueOf(i % 1000 + 1), "DESPESA", "PENDENTE", 0 };
+					}
+
+					@Override
+					public int size() {
+						return quantidade;
+					}
+
+				});
+		if (postgresql) {
+			// sem estatísticas o planejador não escolhe o índice GIN
+			jdbcTemplate.execute("ANALYZE financas.lancamento");
+		}
+
+		// a última palavra do termo incompleta e uma letra trocada
+		prefixo = termo.substring(0, termo.length() - 2);
+		aproximado = termo.substring(0, termo.length() - 2) + "x" + termo.substring(termo.length() - 1);
+
+		long inicio = System.nanoTime();
+		buscaDescricaoService.buscar(idUsuario, prefixo, ModoBusca.PREFIXO, LIMITE);
+		System.out.println("Carga do índice: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) + " ms");
+	}
+
+	@TearDown
+	public void encerrar() {
+		if (postgresql) {
+			for (Long id : idsUsuario) {
+				jdbcTemplate.update("DELETE FROM financas.lancamento WHERE id_usuario = ?", id);
+				jdbcTemplate.update("DELETE FROM financas.usuario WHERE id = ?", id);
+			}
+		}
+		contexto.close();
+	}
+
+	@Benchmark
+	public List<Lancamento> prefixo() {
+		return buscaDescricaoService.buscar(idUsuario, prefixo, ModoBusca.PREFIXO, LIMITE);
+	}
+
+	@Benchmark
+	public List<Lancamento> aproximado() {
+		return buscaDescricaoService.buscar(idUsuario, aproximado, ModoBusca.APROXIMADO, LIMITE);
+	}
+
+	@Benchmark
+	public List<Lancamento> prefixoSemIndice() {
+		if (!postgresql) {
+			return lancamentoRepository.buscarPorPrefixoDescricao(idUsuario, prefixo, LIMITE);
+		}
+		return transacao.execute(status -> {
+			jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+			return lancamentoRepository.buscarPorPrefixoDescricao(idUsuario, prefixo, LIMITE);
+		});
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.relatorio.ColunasLancamentos;
+
+/**
+ * Maiores descrições de despesa de um ano: agrupamento sobre as colunas, em
+ * sequência e em paralelo, comparado ao agrupamento dos mesmos lançamentos como
+ * objetos, que é o que se faria com o resultado de uma consulta por entidade.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelatorioColunarBenchmark {
+
+	private static final FiltroRelatorio FILTRO = FiltroRelatorio.builder().ano(2020).tipo(TipoLancamento.DESPESA)
+			.build();
+
+	@Param({ "10000", "1000000" })
+	private int quantidade;
+
+	private List<LinhaLancamento> linhas;
+	private ColunasLancamentos colunas;
+
+	@Setup
+	public void preparar() {
+		linhas = new ArrayList<>(quantidade);
+		for (long id = 1; id <= quantidade; id++) {
+			linhas.add(new LinhaLancamento(id, "Descrição " + id % 500, (int) (id % 12) + 1, 2015 + (int) (id % 8),
+					BigDecimal.valueOf(id % 100000 + 1, 2), id % 4 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA,
+					StatusLancamento.values()[(int) (id % 3)], 0l));
+		}
+		colunas = new ColunasLancamentos();
+		colunas.carregarSeNecessario(linhas::stream);
+	}
+
+	@Benchmark
+	public List<LinhaRelatorio> objetos() {
+		Map<String, List<LinhaLancamento>> grupos = linhas.stream()
+				.filter(linha -> linha.getAno() == 2020 && linha.getTipo() == TipoLancamento.DESPESA)
+				.collect(Collectors.groupingBy(LinhaLancamento::getDescricao));
+		return grupos.entrySet().stream()
+				.map(grupo -> new LinhaRelatorio(grupo.getKey(),
+						grupo.getValue().stream().map(LinhaLancamento::getValor).reduce(BigDecimal.ZERO, BigDecimal::add),
+						(long) grupo.getValue().size()))
+				.sorted((a, b) -> b.getValor().compareTo(a.getValor()))
+				.limit(10)
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<LinhaRelatorio> colunas() {
+		return colunas.agrupar(FILTRO, Agrupamento.DESCRICAO, 10, Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public List<LinhaRelatorio> colunasParalelo() {
+		return colunas.agrupar(FILTRO, Agrupamento.DESCRICAO, 10, 65536);
+	}
+
+}
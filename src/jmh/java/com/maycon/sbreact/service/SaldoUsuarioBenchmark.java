@@ -0,0 +1,104 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.maycon.sbreact.BackendCursoSbReactApplication;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+
+/**
+ * Saldo de um usuário com {@code quantidade} lançamentos no H2 do perfil de
+ * teste: leitura do saldo consolidado comparada à soma sobre os lançamentos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaldoUsuarioBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int quantidade;
+
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService lancamentoService;
+	private LancamentoRepository lancamentoRepository;
+	private Long idUsuario;
+
+	@Setup
+	public void preparar() {
+		contexto = new SpringApplicationBuilder(BackendCursoSbReactApplication.class).profiles("test")
+				.properties("server.port=0", "spring.jpa.show-sql=false").run();
+		lancamentoService = contexto.getBean(LancamentoService.class);
+		lancamentoRepository = contexto.getBean(LancamentoRepository.class);
+
+		Usuario usuario = contexto.getBean(UsuarioRepository.class)
+				.save(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		idUsuario = usuario.getId();
+
+		JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO financas.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, versao)"
+						+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+				new AbstractList<Object[]>() {
+
+					@Override
+					public Object[] get(int i) {
+						TipoLancamento tipo = i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+						StatusLancamento status = i % 5 == 0 ? StatusLancamento.PENDENTE : StatusLancamento.EFETIVADO;
+						return new Object[] { i + 1, "lancamento " + i, i % 12 + 1, 2000 + i % 20, idUsuario,
+								BigDecimal.valueOf(i % 1000 + 1), tipo.name(), status.name(), 0 };
+					}
+
+					@Override
+					public int size() {
+						return quantidade;
+					}
+
+				});
+
+		contexto.getBean(SaldoUsuarioService.class).recalcular(idUsuario);
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public BigDecimal saldoConsolidado() {
+		return lancamentoService.obterSaldoPorUsuario(idUsuario);
+	}
+
+	@Benchmark
+	public BigDecimal saldoAgregado() {
+		BigDecimal receitas = lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(idUsuario,
+				TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
+		BigDecimal despesas = lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(idUsuario,
+				TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+		return receitas.subtract(despesas);
+	}
+
+}
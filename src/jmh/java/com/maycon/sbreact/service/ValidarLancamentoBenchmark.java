@@ -0,0 +1,52 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.impl.ArquivoLancamentoServiceImpl;
+import com.maycon.sbreact.service.impl.LancamentoServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidarLancamentoBenchmark {
+
+	private LancamentoService service;
+	private Lancamento lancamento;
+
+	@Setup
+	public void preparar() {
+		service = new LancamentoServiceImpl(null, null, null, null,
+				new ArquivoLancamentoServiceImpl(null, null, null, null, 0), evento -> {
+				}, new SimpleMeterRegistry());
+		lancamento = Lancamento.builder().descricao("Aluguel").mes(1).ano(2020).valor(BigDecimal.TEN)
+				.usuario(Usuario.builder().id(1l).build()).tipo(TipoLancamento.DESPESA).build();
+	}
+
+	@Benchmark
+	public void validar(Blackhole blackhole) {
+		service.validar(lancamento);
+		blackhole.consume(lancamento);
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.maycon.sbreact.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusLoteDTO {
+
+	private List<Long> ids;
+	private Long usuario;
+	private Integer mes;
+	private Integer ano;
+	private String status;
+
+}
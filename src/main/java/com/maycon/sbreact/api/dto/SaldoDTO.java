@@ -0,0 +1,19 @@
+package com.maycon.sbreact.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoDTO {
+
+	private BigDecimal saldo;
+	private Long versao;
+
+}
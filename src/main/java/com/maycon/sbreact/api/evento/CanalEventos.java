@@ -0,0 +1,286 @@
+package com.maycon.sbreact.api.evento;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.dto.SaldoDTO;
+import com.maycon.sbreact.config.ContextoLeitura;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+import com.maycon.sbreact.service.evento.UsuariosAlteradosEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Assinaturas do stream de eventos de cada usuário. As conexões ficam em modo
+ * assíncrono no servidor e não ocupam threads enquanto ociosas; os eventos são
+ * enfileirados depois do commit e enviados por um pequeno pool de despacho.
+ *
+ * A fila de cada assinante é limitada. Quando ela enche, por um cliente lento ou
+ * por um lote maior que a fila, a conexão é encerrada e o cliente, ao reconectar,
+ * recebe o saldo atual e refaz as consultas com {@code If-None-Match}.
+ * Alterações de status em lote chegam apenas como um novo saldo e sua versão.
+ */
+@Component
+public class CanalEventos {
+
+	static final String METRICA_ASSINANTES = "financas.eventos.assinantes";
+	static final String METRICA_DESCARTADOS = "financas.eventos.descartados";
+
+	static final String EVENTO_SALDO = "saldo";
+	static final String EVENTO_LANCAMENTO = "lancamento";
+	static final String EVENTO_LANCAMENTO_EXCLUIDO = "lancamento-excluido";
+
+	private final Map<Long, Set<Assinatura>> assinaturas = new ConcurrentHashMap<>();
+
+	private final LancamentoService lancamentoService;
+	private final VersaoUsuarioService versaoUsuarioService;
+	private final Executor despacho;
+	private final int capacidade;
+	private final long tempoLimite;
+	private final Duration intervaloBatimento;
+	private final Counter descartados;
+
+	private ScheduledExecutorService batimentos;
+
+	@Autowired
+	public CanalEventos(LancamentoService lancamentoService, VersaoUsuarioService versaoUsuarioService,
+			MeterRegistry registry,
+			@Value("${financas.eventos.capacidade:256}") int capacidade,
+			@Value("${financas.eventos.tempo-limite:PT30M}") Duration tempoLimite,
+			@Value("${financas.eventos.intervalo-batimento:PT30S}") Duration intervaloBatimento,
+			@Value("${financas.eventos.threads:4}") int threads) {
+		this(lancamentoService, versaoUsuarioService, registry, capacidade, tempoLimite, intervaloBatimento,
+				Executors.newFixedThreadPool(threads, fabrica("eventos-")));
+	}
+
+	CanalEventos(LancamentoService lancamentoService, VersaoUsuarioService versaoUsuarioService,
+			MeterRegistry registry, int capacidade, Duration tempoLimite, Duration intervaloBatimento,
+			Executor despacho) {
+		this.lancamentoService = lancamentoService;
+		this.versaoUsuarioService = versaoUsuarioService;
+		this.despacho = despacho;
+		this.capacidade = capacidade;
+		this.tempoLimite = tempoLimite.toMillis();
+		this.intervaloBatimento = intervaloBatimento;
+		this.descartados = Counter.builder(METRICA_DESCARTADOS).register(registry);
+		Gauge.builder(METRICA_ASSINANTES, this, CanalEventos::quantidadeAssinantes).register(registry);
+	}
+
+	/**
+	 * Comentários periódicos mantêm a conexão aberta em proxies e detectam as
+	 * conexões encerradas pelo cliente, que só falham ao escrever.
+	 */
+	@PostConstruct
+	public void iniciar() {
+		batimentos = Executors.newSingleThreadScheduledExecutor(fabrica("eventos-batimento-"));
+		long intervalo = intervaloBatimento.toMillis();
+		batimentos.scheduleAtFixedRate(() -> assinaturas.values().forEach(
+				doUsuario -> doUsuario.forEach(assinatura -> enfileirar(assinatura, SseEmitter.event().comment("")))),
+				intervalo, intervalo, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void encerrar() {
+		if (batimentos != null) {
+			batimentos.shutdownNow();
+		}
+		if (despacho instanceof ExecutorService) {
+			((ExecutorService) despacho).shutdownNow();
+		}
+		assinaturas.values().forEach(doUsuario -> doUsuario.forEach(assinatura -> assinatura.emitter.complete()));
+		assinaturas.clear();
+	}
+
+	/**
+	 * O primeiro evento é o saldo atual, para que o cliente não dependa de uma
+	 * consulta feita antes de assinar.
+	 */
+	public SseEmitter assinar(Long idUsuario) {
+		SseEmitter emitter = new SseEmitter(tempoLimite);
+		Assinatura assinatura = new Assinatura(idUsuario, emitter, new ArrayBlockingQueue<>(capacidade));
+		emitter.onCompletion(() -> remover(assinatura));
+		emitter.onTimeout(() -> remover(assinatura));
+		emitter.onError(erro -> remover(assinatura));
+
+		assinaturas.computeIfAbsent(idUsuario, id -> ConcurrentHashMap.newKeySet()).add(assinatura);
+		enfileirar(assinatura, eventoSaldo(obterSaldo(idUsuario)));
+		return emitter;
+	}
+
+	public int quantidadeAssinantes() {
+		return assinaturas.values().stream().mapToInt(Set::size).sum();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarLancamento(LancamentoAlteradoEvent evento) {
+		Lancamento anterior = evento.getAnterior();
+		Lancamento atual = evento.getAtual();
+		if (atual != null) {
+			publicar(atual.getUsuario().getId(),
+					() -> SseEmitter.event().name(EVENTO_LANCAMENTO).data(converter(atual)));
+		}
+		if (anterior != null && (atual == null || !anterior.getUsuario().getId().equals(atual.getUsuario().getId()))) {
+			publicar(anterior.getUsuario().getId(), () -> SseEmitter.event().name(EVENTO_LANCAMENTO_EXCLUIDO)
+					.data(Collections.singletonMap("id", anterior.getId())));
+		}
+	}
+
+	/**
+	 * O saldo é consultado no pool de despacho, e não na thread que gravou, e só
+	 * para usuários com assinantes.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarUsuarios(UsuariosAlteradosEvent evento) {
+		for (Long idUsuario : evento.getIdsUsuario()) {
+			if (!assinaturas.getOrDefault(idUsuario, Collections.emptySet()).isEmpty()) {
+				executar(() -> {
+					SaldoDTO saldo = obterSaldo(idUsuario);
+					publicar(idUsuario, () -> eventoSaldo(saldo));
+				});
+			}
+		}
+	}
+
+	private void publicar(Long idUsuario, java.util.function.Supplier<SseEventBuilder> evento) {
+		Set<Assinatura> doUsuario = assinaturas.get(idUsuario);
+		if (doUsuario == null || doUsuario.isEmpty()) {
+			return;
+		}
+
+		for (Assinatura assinatura : doUsuario) {
+			// cada envio consome o builder, então cada assinante recebe o seu
+			enfileirar(assinatura, evento.get());
+		}
+	}
+
+	/**
+	 * Lido em nome do usuário para que, com réplicas, a consulta feita logo após
+	 * o commit vá ao primário.
+	 */
+	private SaldoDTO obterSaldo(Long idUsuario) {
+		return ContextoLeitura.comUsuario(idUsuario, () -> SaldoDTO.builder()
+				.versao(versaoUsuarioService.obterVersao(idUsuario).orElse(0L))
+				.saldo(lancamentoService.obterSaldoPorUsuario(idUsuario))
+				.build());
+	}
+
+	private static SseEventBuilder eventoSaldo(SaldoDTO saldo) {
+		return SseEmitter.event().name(EVENTO_SALDO).data(saldo);
+	}
+
+	private void enfileirar(Assinatura assinatura, SseEventBuilder evento) {
+		if (!assinatura.fila.offer(evento)) {
+			descartados.increment();
+			remover(assinatura);
+			assinatura.emitter.complete();
+			return;
+		}
+
+		if (assinatura.agendada.compareAndSet(false, true)) {
+			executar(() -> enviar(assinatura));
+		}
+	}
+
+	/**
+	 * Só uma thread por vez envia para cada assinante, na ordem da fila. Um
+	 * evento enfileirado depois do último {@code poll} agenda um novo envio.
+	 */
+	private void enviar(Assinatura assinatura) {
+		try {
+			SseEventBuilder evento;
+			while ((evento = assinatura.fila.poll()) != null) {
+				assinatura.emitter.send(evento);
+			}
+		} catch (IOException | IllegalStateException e) {
+			// conexão encerrada pelo cliente ou emitter já concluído
+			remover(assinatura);
+			assinatura.fila.clear();
+		} finally {
+			assinatura.agendada.set(false);
+		}
+
+		if (!assinatura.fila.isEmpty() && assinatura.agendada.compareAndSet(false, true)) {
+			executar(() -> enviar(assinatura));
+		}
+	}
+
+	private void executar(Runnable tarefa) {
+		try {
+			despacho.execute(tarefa);
+		} catch (RejectedExecutionException e) {
+			// aplicação encerrando
+		}
+	}
+
+	private void remover(Assinatura assinatura) {
+		assinaturas.computeIfPresent(assinatura.idUsuario, (id, doUsuario) -> {
+			doUsuario.remove(assinatura);
+			return doUsuario.isEmpty() ? null : doUsuario;
+		});
+	}
+
+	private static LancamentoDTO converter(Lancamento lancamento) {
+		return LancamentoDTO.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.valor(lancamento.getValor())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.status(lancamento.getStatus().name())
+				.tipo(lancamento.getTipo().name())
+				.usuario(lancamento.getUsuario().getId())
+				.build();
+	}
+
+	private static CustomizableThreadFactory fabrica(String prefixo) {
+		CustomizableThreadFactory fabrica = new CustomizableThreadFactory(prefixo);
+		fabrica.setDaemon(true);
+		return fabrica;
+	}
+
+	private static class Assinatura {
+
+		final Long idUsuario;
+		final SseEmitter emitter;
+		final BlockingQueue<SseEventBuilder> fila;
+		final AtomicBoolean agendada = new AtomicBoolean();
+
+		Assinatura(Long idUsuario, SseEmitter emitter, BlockingQueue<SseEventBuilder> fila) {
+			this.idUsuario = idUsuario;
+			this.emitter = emitter;
+			this.fila = fila;
+		}
+
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.io.Closeable;
+
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+
+/**
+ * Escreve lançamentos um a um na saída, sem acumulá-los em memória.
+ */
+public interface EscritorLancamento extends Closeable {
+
+	void escrever(LancamentoDTO lancamento);
+
+}
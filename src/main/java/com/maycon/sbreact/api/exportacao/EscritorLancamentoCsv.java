@@ -0,0 +1,75 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+
+public class EscritorLancamentoCsv implements EscritorLancamento {
+
+	private static final String CABECALHO = "id,descricao,mes,ano,valor,usuario,tipo,status";
+
+	private final Writer writer;
+
+	public EscritorLancamentoCsv(OutputStream saida) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+		writer.write(CABECALHO);
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void escrever(LancamentoDTO lancamento) {
+		try {
+			escreverCampo(lancamento.getId());
+			writer.write(',');
+			escreverTexto(lancamento.getDescricao());
+			writer.write(',');
+			escreverCampo(lancamento.getMes());
+			writer.write(',');
+			escreverCampo(lancamento.getAno());
+			writer.write(',');
+			escreverCampo(lancamento.getValor() == null ? null : lancamento.getValor().toPlainString());
+			writer.write(',');
+			escreverCampo(lancamento.getUsuario());
+			writer.write(',');
+			escreverCampo(lancamento.getTipo());
+			writer.write(',');
+			escreverCampo(lancamento.getStatus());
+			writer.write("\r\n");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void escreverCampo(Object valor) throws IOException {
+		if (valor != null) {
+			writer.write(valor.toString());
+		}
+	}
+
+	private void escreverTexto(String valor) throws IOException {
+		if (valor == null) {
+			return;
+		}
+
+		if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+			writer.write(valor);
+			return;
+		}
+
+		writer.write('"');
+		writer.write(valor.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+
+/**
+ * Escreve os lançamentos campo a campo no {@link JsonGenerator}, sem a
+ * introspecção do {@link ObjectMapper}, como um array JSON ou, em NDJSON, um
+ * objeto por linha. Os campos e sua ordem são os do {@link LancamentoDTO}
+ * serializado pelo Jackson, restritos aos campos selecionados.
+ */
+public class EscritorLancamentoJson implements EscritorLancamento {
+
+	private static final SerializedString ID = new SerializedString("id");
+	private static final SerializedString DESCRICAO = new SerializedString("descricao");
+	private static final SerializedString MES = new SerializedString("mes");
+	private static final SerializedString ANO = new SerializedString("ano");
+	private static final SerializedString VALOR = new SerializedString("valor");
+	private static final SerializedString USUARIO = new SerializedString("usuario");
+	private static final SerializedString TIPO = new SerializedString("tipo");
+	private static final SerializedString STATUS = new SerializedString("status");
+
+	private final JsonGenerator generator;
+	private final Set<CampoLancamento> campos;
+	private final boolean array;
+
+	private EscritorLancamentoJson(ObjectMapper objectMapper, OutputStream saida, Set<CampoLancamento> campos,
+			boolean array) throws IOException {
+		this.generator = objectMapper.getFactory().createGenerator(saida, JsonEncoding.UTF8);
+		this.campos = campos;
+		this.array = array;
+		if (array) {
+			generator.writeStartArray();
+		} else {
+			generator.setRootValueSeparator(new SerializedString("\n"));
+		}
+	}
+
+	public static EscritorLancamentoJson array(ObjectMapper objectMapper, OutputStream saida,
+			Set<CampoLancamento> campos) throws IOException {
+		return new EscritorLancamentoJson(objectMapper, saida, campos, true);
+	}
+
+	public static EscritorLancamentoJson ndjson(ObjectMapper objectMapper, OutputStream saida) throws IOException {
+		return new EscritorLancamentoJson(objectMapper, saida, CampoLancamento.TODOS, false);
+	}
+
+	@Override
+	public void escrever(LancamentoDTO lancamento) {
+		try {
+			escrever(generator, lancamento, campos);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Um único objeto, também usado pelos serializadores do Jackson quando o
+	 * lançamento faz parte de outra resposta.
+	 */
+	public static void escrever(JsonGenerator generator, LancamentoDTO lancamento, Set<CampoLancamento> campos)
+			throws IOException {
+		generator.writeStartObject();
+		if (campos.contains(CampoLancamento.ID)) {
+			generator.writeFieldName(ID);
+			escreverNumero(generator, lancamento.getId());
+		}
+		if (campos.contains(CampoLancamento.DESCRICAO)) {
+			generator.writeFieldName(DESCRICAO);
+			generator.writeString(lancamento.getDescricao());
+		}
+		if (campos.contains(CampoLancamento.MES)) {
+			generator.writeFieldName(MES);
+			escreverNumero(generator, lancamento.getMes());
+		}
+		if (campos.contains(CampoLancamento.ANO)) {
+			generator.writeFieldName(ANO);
+			escreverNumero(generator, lancamento.getAno());
+		}
+		if (campos.contains(CampoLancamento.VALOR)) {
+			generator.writeFieldName(VALOR);
+			generator.writeNumber(lancamento.getValor());
+		}
+		if (campos.contains(CampoLancamento.USUARIO)) {
+			generator.writeFieldName(USUARIO);
+			escreverNumero(generator, lancamento.getUsuario());
+		}
+		if (campos.contains(CampoLancamento.TIPO)) {
+			generator.writeFieldName(TIPO);
+			generator.writeString(lancamento.getTipo());
+		}
+		if (campos.contains(CampoLancamento.STATUS)) {
+			generator.writeFieldName(STATUS);
+			generator.writeString(lancamento.getStatus());
+		}
+		generator.writeEndObject();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (array) {
+			generator.writeEndArray();
+		}
+		generator.close();
+	}
+
+	private static void escreverNumero(JsonGenerator generator, Long valor) throws IOException {
+		if (valor == null) {
+			generator.writeNull();
+		} else {
+			generator.writeNumber(valor);
+		}
+	}
+
+	private static void escreverNumero(JsonGenerator generator, Integer valor) throws IOException {
+		if (valor == null) {
+			generator.writeNull();
+		} else {
+			generator.writeNumber(valor);
+		}
+	}
+
+}
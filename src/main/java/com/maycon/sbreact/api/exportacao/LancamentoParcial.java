@@ -0,0 +1,44 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+
+/**
+ * Lançamento do detalhe e das páginas, serializado pelo Jackson com apenas os
+ * campos selecionados.
+ */
+@JsonSerialize(using = LancamentoParcial.Serializador.class)
+public class LancamentoParcial {
+
+	private final LancamentoDTO lancamento;
+	private final Set<CampoLancamento> campos;
+
+	public LancamentoParcial(LancamentoDTO lancamento, Set<CampoLancamento> campos) {
+		this.lancamento = lancamento;
+		this.campos = campos;
+	}
+
+	public static class Serializador extends StdSerializer<LancamentoParcial> {
+
+		private static final long serialVersionUID = 1L;
+
+		public Serializador() {
+			super(LancamentoParcial.class);
+		}
+
+		@Override
+		public void serialize(LancamentoParcial valor, JsonGenerator generator, SerializerProvider provider)
+				throws IOException {
+			EscritorLancamentoJson.escrever(generator, valor.lancamento, valor.campos);
+		}
+
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+
+/**
+ * Corpo das listagens de lançamentos. Cada linha só é convertida em
+ * {@link LancamentoDTO} no momento em que é escrita, sem uma segunda lista, e
+ * apenas os campos selecionados são escritos.
+ */
+public class ListaLancamentos<T> {
+
+	private final List<T> lancamentos;
+	private final Function<T, LancamentoDTO> conversor;
+	private final Set<CampoLancamento> campos;
+
+	public ListaLancamentos(List<T> lancamentos, Function<T, LancamentoDTO> conversor, Set<CampoLancamento> campos) {
+		this.lancamentos = lancamentos;
+		this.conversor = conversor;
+		this.campos = campos;
+	}
+
+	public Set<CampoLancamento> getCampos() {
+		return campos;
+	}
+
+	public void escrever(EscritorLancamento escritor) {
+		for (T lancamento : lancamentos) {
+			escritor.escrever(conversor.apply(lancamento));
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.maycon.sbreact.api.exportacao;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Escreve uma {@link ListaLancamentos} direto na resposta com o
+ * {@link EscritorLancamentoJson}. Registrado antes do conversor do Jackson.
+ */
+public class ListaLancamentosHttpMessageConverter extends AbstractHttpMessageConverter<ListaLancamentos<?>> {
+
+	private final ObjectMapper objectMapper;
+
+	public ListaLancamentosHttpMessageConverter(ObjectMapper objectMapper) {
+		super(MediaType.APPLICATION_JSON);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return ListaLancamentos.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	/**
+	 * Sem uso: {@link #canRead(MediaType)} recusa toda leitura.
+	 */
+	@Override
+	protected ListaLancamentos<?> readInternal(Class<? extends ListaLancamentos<?>> clazz,
+			HttpInputMessage inputMessage) {
+		return null;
+	}
+
+	@Override
+	protected void writeInternal(ListaLancamentos<?> lista, HttpOutputMessage outputMessage) throws IOException {
+		try (EscritorLancamento escritor = EscritorLancamentoJson.array(objectMapper,
+				StreamUtils.nonClosing(outputMessage.getBody()), lista.getCampos())) {
+			lista.escrever(escritor);
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.maycon.sbreact.api.resource;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ETags derivadas das versões gravadas no banco, o que permite responder
+ * {@code If-None-Match} sem carregar nem serializar o recurso. A API reativa
+ * usa os mesmos valores, e um cliente pode alternar entre as duas.
+ * <p>
+ * A do lançamento é forte, porque serve ao {@code If-Match}. A do usuário, da
+ * listagem e do saldo, é fraca: o Tomcat não comprime respostas com ETag forte.
+ */
+public final class Etags {
+
+	private static final Pattern LANCAMENTO = Pattern.compile("\"l(\\d+)-v(\\d+)\"");
+
+	private Etags() {
+	}
+
+	public static String lancamento(Long id, Long versao) {
+		return "l" + id + "-v" + versao;
+	}
+
+	/**
+	 * Versão do lançamento informada em um {@code If-Match}. Vazio quando o
+	 * cabeçalho está ausente, é fraco ou pertence a outro recurso.
+	 */
+	public static Optional<Long> versaoLancamento(Long id, String etag) {
+		if (etag == null) {
+			return Optional.empty();
+		}
+
+		Matcher matcher = LANCAMENTO.matcher(etag.trim());
+		if (!matcher.matches() || !matcher.group(1).equals(String.valueOf(id))) {
+			return Optional.empty();
+		}
+		return Optional.of(Long.valueOf(matcher.group(2)));
+	}
+
+	public static String usuario(Long idUsuario, Long versao) {
+		return "W/\"u" + idUsuario + "-v" + versao + "\"";
+	}
+
+}
@@ -1,30 +1,60 @@
 package com.maycon.sbreact.api.resource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.catalina.connector.Response;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.maycon.sbreact.api.dto.AtualizaStatusDTO;
+import com.maycon.sbreact.api.dto.AtualizaStatusLoteDTO;
 import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.exportacao.EscritorLancamento;
+import com.maycon.sbreact.api.exportacao.EscritorLancamentoCsv;
+import com.maycon.sbreact.api.exportacao.EscritorLancamentoJson;
+import com.maycon.sbreact.api.exportacao.LancamentoParcial;
+import com.maycon.sbreact.api.exportacao.ListaLancamentos;
+import com.maycon.sbreact.api.seguranca.UsuarioAutenticado;
 import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.consulta.Pagina;
 import com.maycon.sbreact.model.entity.Lancamento;
 import com.maycon.sbreact.model.entity.Usuario;
 import com.maycon.sbreact.model.entity.enums.StatusLancamento;
 import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.BuscaDescricaoService;
 import com.maycon.sbreact.service.LancamentoService;
 import com.maycon.sbreact.service.UsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -33,75 +63,340 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LancamentoResource {
 
+	private static final int TAMANHO_MAXIMO_LOTE = 5000;
+	private static final int LIMITE_BUSCA_PADRAO = 20;
+	private static final int LIMITE_BUSCA_MAXIMO = 100;
+
+	private static final String USUARIO_NAO_ENCONTRADO = "Usuario não encontrado para o id informado.";
+
+	private static final MediaType MEDIA_TYPE_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	private static final MediaType MEDIA_TYPE_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+	private static final MediaType MEDIA_TYPE_TEXTO = MediaType.parseMediaType("text/plain;charset=UTF-8");
+
 	private final LancamentoService service;
 	private final UsuarioService usuarioService;
+	private final BuscaDescricaoService buscaDescricaoService;
+	private final VersaoUsuarioService versaoUsuarioService;
+	private final ObjectMapper objectMapper;
 
 	@GetMapping
 	public ResponseEntity buscar(@RequestParam(value = "descricao", required = false) String descricao,
 			@RequestParam(value = "mes", required = false) Integer mes,
-			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam("usuario") Long idUsuario) {
+			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam("usuario") Long idUsuario,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "tamanho", required = false) Integer tamanho,
+			@RequestParam(value = "ordem", required = false) String ordem,
+			@RequestParam(value = "fields", required = false) String fields, WebRequest requisicao) {
+
+		if (!UsuarioAutenticado.permite(idUsuario)) {
+			return proibido();
+		}
+
+		Set<CampoLancamento> campos;
+		try {
+			campos = CampoLancamento.de(fields);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+
+		Optional<Long> versaoUsuario = versaoUsuarioService.obterVersao(idUsuario);
+		if (!versaoUsuario.isPresent()) {
+			return ResponseEntity.badRequest().body("Não foi possivel realizar a consulta. Usuário não encontrado.");
+		}
+
+		String etag = Etags.usuario(idUsuario, versaoUsuario.get());
+		if (requisicao.checkNotModified(etag)) {
+			return null;
+		}
 
 		Lancamento lancamentoFiltro = new Lancamento();
 		lancamentoFiltro.setDescricao(descricao);
 		lancamentoFiltro.setMes(mes);
 		lancamentoFiltro.setAno(ano);
+		lancamentoFiltro.setUsuario(usuarioService.obterReferencia(idUsuario));
+
+		if (cursor == null && tamanho == null && ordem == null) {
+			return ResponseEntity.ok().eTag(etag)
+					.body(new ListaLancamentos<>(service.buscar(lancamentoFiltro, campos), this::converter, campos));
+		}
+
+		if (ordem != null && !ordem.equalsIgnoreCase("asc") && !ordem.equalsIgnoreCase("desc")) {
+			return ResponseEntity.badRequest().body("Ordem inválida. Informe asc ou desc.");
+		}
+
+		try {
+			CursorLancamento posicao = cursor == null ? null : CursorLancamento.decodificar(cursor);
+			Pagina<LancamentoProjecao> pagina = service.buscarPagina(lancamentoFiltro, posicao,
+					"desc".equalsIgnoreCase(ordem), tamanho, campos);
+			List<LancamentoParcial> conteudo = pagina.getConteudo().stream()
+					.map(lancamento -> new LancamentoParcial(converter(lancamento), campos))
+					.collect(Collectors.toList());
+			return ResponseEntity.ok().eTag(etag).body(new Pagina<>(conteudo, pagina.getProximoCursor()));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	@GetMapping("busca")
+	public ResponseEntity buscarPorDescricao(@RequestParam("usuario") Long idUsuario, @RequestParam("q") String termo,
+			@RequestParam(value = "modo", defaultValue = "prefixo") String modo,
+			@RequestParam(value = "limite", required = false) Integer limite) {
+		if (!UsuarioAutenticado.permite(idUsuario)) {
+			return proibido();
+		}
+
+		ModoBusca modoBusca;
+		try {
+			modoBusca = ModoBusca.valueOf(modo.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Modo de busca inválido. Informe prefixo ou aproximado.");
+		}
+
+		if (termo.trim().isEmpty()) {
+			return ResponseEntity.badRequest().body("Informe um termo para a busca.");
+		}
 
-		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-		if (!usuario.isPresent()) {
+		if (!usuarioService.obterPorId(idUsuario).isPresent()) {
 			return ResponseEntity.badRequest().body("Não foi possivel realizar a consulta. Usuário não encontrado.");
-		} else {
-			lancamentoFiltro.setUsuario(usuario.get());
 		}
 
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
+		int limiteBusca = limite == null || limite < 1 ? LIMITE_BUSCA_PADRAO : Math.min(limite, LIMITE_BUSCA_MAXIMO);
+		List<LancamentoDTO> lancamentos = buscaDescricaoService.buscar(idUsuario, termo, modoBusca, limiteBusca)
+				.stream().map(this::converter).collect(Collectors.toList());
 		return ResponseEntity.ok(lancamentos);
 	}
 
+	@GetMapping("export")
+	public ResponseEntity<StreamingResponseBody> exportar(@RequestParam("usuario") Long idUsuario,
+			@RequestParam(value = "formato", defaultValue = "ndjson") String formato) {
+		if (!UsuarioAutenticado.permite(idUsuario)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+
+		if (!formato.equalsIgnoreCase("ndjson") && !formato.equalsIgnoreCase("csv")) {
+			return ResponseEntity.badRequest().contentType(MEDIA_TYPE_TEXTO)
+					.body(mensagem("Formato inválido. Informe ndjson ou csv."));
+		}
+
+		if (!usuarioService.obterPorId(idUsuario).isPresent()) {
+			return ResponseEntity.badRequest().contentType(MEDIA_TYPE_TEXTO)
+					.body(mensagem("Não foi possivel realizar a exportação. Usuário não encontrado."));
+		}
+
+		boolean csv = formato.equalsIgnoreCase("csv");
+		StreamingResponseBody corpo = saida -> {
+			try (EscritorLancamento escritor = csv ? new EscritorLancamentoCsv(saida)
+					: EscritorLancamentoJson.ndjson(objectMapper, saida)) {
+				service.exportar(idUsuario, lancamento -> escritor.escrever(converter(lancamento)));
+			}
+		};
+
+		return ResponseEntity.ok()
+				.contentType(csv ? MEDIA_TYPE_CSV : MEDIA_TYPE_NDJSON)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"lancamentos-" + idUsuario + (csv ? ".csv" : ".ndjson") + "\"")
+				.body(corpo);
+	}
+
 	@GetMapping("{id}")
-	public ResponseEntity obterLancamento(@PathVariable("id") Long id) {
-		return service.obterPorId(id)
-				.map(lancamento -> new ResponseEntity(converter(lancamento), HttpStatus.OK))
+	public ResponseEntity obterLancamento(@PathVariable("id") Long id,
+			@RequestParam(value = "fields", required = false) String fields, WebRequest requisicao) {
+		Set<CampoLancamento> campos;
+		try {
+			campos = CampoLancamento.de(fields);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+
+		if (acessoNegado(Collections.singletonList(id))) {
+			return proibido();
+		}
+
+		Optional<Long> versao = service.obterVersao(id);
+		if (!versao.isPresent()) {
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		}
+
+		String etag = Etags.lancamento(id, versao.get());
+		if (requisicao.checkNotModified(etag)) {
+			return null;
+		}
+
+		return service.obterProjecaoPorId(id, campos)
+				.map(lancamento -> ResponseEntity.ok().eTag(etag)
+						.body(new LancamentoParcial(converter(lancamento), campos)))
 				.orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
 	}	
 	
 	
 	@PostMapping
 	public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+		if (!UsuarioAutenticado.permite(dto.getUsuario())) {
+			return proibido();
+		}
+
 		try {
 			Lancamento entidade = converter(dto);
 			entidade = service.salvar(entidade);
-			return new ResponseEntity(entidade, HttpStatus.CREATED);
+			return new ResponseEntity(converter(entidade), HttpStatus.CREATED);
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (DataIntegrityViolationException e) {
+			return ResponseEntity.badRequest().body(USUARIO_NAO_ENCONTRADO);
+		}
+	}
+
+	@PostMapping("lote")
+	public ResponseEntity salvarLote(@RequestBody List<LancamentoDTO> dtos) {
+		if (dtos.isEmpty() || dtos.size() > TAMANHO_MAXIMO_LOTE) {
+			return ResponseEntity.badRequest()
+					.body("Informe entre 1 e " + TAMANHO_MAXIMO_LOTE + " lançamentos por lote.");
+		}
+
+		if (!dtos.stream().allMatch(dto -> UsuarioAutenticado.permite(dto.getUsuario()))) {
+			return proibido();
+		}
+
+		try {
+			Map<Long, Usuario> usuarios = new HashMap<>();
+			List<Lancamento> lancamentos = new ArrayList<>(dtos.size());
+			for (LancamentoDTO dto : dtos) {
+				Usuario usuario = usuarios.computeIfAbsent(dto.getUsuario(), this::obterReferenciaUsuario);
+				Lancamento lancamento = converter(dto, usuario);
+				lancamento.setId(null);
+				lancamentos.add(lancamento);
+			}
+
+			List<LancamentoDTO> salvos = service.salvarLote(lancamentos).stream().map(this::converter)
+					.collect(Collectors.toList());
+			return new ResponseEntity(salvos, HttpStatus.CREATED);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (DataIntegrityViolationException e) {
+			return ResponseEntity.badRequest().body(USUARIO_NAO_ENCONTRADO);
 		}
 	}
 
 	@PutMapping("{id}")
 	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
 		return service.obterPorId(id).map(entity -> {
+			if (!UsuarioAutenticado.permite(entity.getUsuario().getId())
+					|| !UsuarioAutenticado.permite(dto.getUsuario())) {
+				return proibido();
+			}
 			try {
 				Lancamento lancamento = converter(dto);
 				lancamento.setId(entity.getId());
 				service.atualizar(lancamento);
-				return ResponseEntity.ok(lancamento);
+				return ResponseEntity.ok(converter(lancamento));
 			} catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (DataIntegrityViolationException e) {
+				return ResponseEntity.badRequest().body(USUARIO_NAO_ENCONTRADO);
 			}
 		}).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST));
 	}
 
+	/**
+	 * Altera apenas os campos informados. A versão vem da ETag enviada em
+	 * {@code If-Match}, e uma versão desatualizada resulta em 409.
+	 */
+	@PatchMapping("{id}")
+	public ResponseEntity atualizarParcial(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		Optional<Long> versao = Etags.versaoLancamento(id, ifMatch);
+		if (!versao.isPresent()) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+					.body("Informe no cabeçalho If-Match a ETag atual do lançamento.");
+		}
+
+		if (acessoNegado(Collections.singletonList(id))
+				|| dto.getUsuario() != null && !UsuarioAutenticado.permite(dto.getUsuario())) {
+			return proibido();
+		}
+
+		Lancamento alteracoes = new Lancamento();
+		alteracoes.setDescricao(dto.getDescricao());
+		alteracoes.setMes(dto.getMes());
+		alteracoes.setAno(dto.getAno());
+		alteracoes.setValor(dto.getValor());
+		try {
+			if (dto.getTipo() != null) {
+				alteracoes.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+			}
+			if (dto.getStatus() != null) {
+				alteracoes.setStatus(StatusLancamento.valueOf(dto.getStatus()));
+			}
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Informe um tipo e um status de lançamento válidos.");
+		}
+
+		try {
+			if (dto.getUsuario() != null) {
+				alteracoes.setUsuario(obterReferenciaUsuario(dto.getUsuario()));
+			}
+			return service.atualizarParcial(id, versao.get(), alteracoes)
+					.map(atualizado -> ResponseEntity.ok().eTag(Etags.lancamento(id, atualizado.getVersao()))
+							.body(converter(atualizado)))
+					.orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (DataIntegrityViolationException e) {
+			return ResponseEntity.badRequest().body(USUARIO_NAO_ENCONTRADO);
+		} catch (OptimisticLockingFailureException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body("O lançamento foi alterado por outra requisição. Obtenha a versão atual e tente novamente.");
+		}
+	}
+
+	@PutMapping("atualiza-status")
+	public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto) {
+		StatusLancamento status;
+		try {
+			status = StatusLancamento.valueOf(String.valueOf(dto.getStatus()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body("Não foi possível atualizar o status dos lançamentos. Envie um status válido.");
+		}
+
+		if (dto.getIds() != null && !dto.getIds().isEmpty()) {
+			if (dto.getIds().size() > TAMANHO_MAXIMO_LOTE) {
+				return ResponseEntity.badRequest()
+						.body("Informe no máximo " + TAMANHO_MAXIMO_LOTE + " lançamentos por lote.");
+			}
+			if (acessoNegado(dto.getIds())) {
+				return proibido();
+			}
+			return ResponseEntity.ok(service.atualizarStatusEmLote(dto.getIds(), status));
+		}
+
+		if (dto.getUsuario() == null || dto.getAno() == null || dto.getMes() == null) {
+			return ResponseEntity.badRequest()
+					.body("Informe os ids dos lançamentos ou o usuário, o mês e o ano.");
+		}
+
+		if (!UsuarioAutenticado.permite(dto.getUsuario())) {
+			return proibido();
+		}
+
+		return ResponseEntity.ok(service.atualizarStatusPorPeriodo(dto.getUsuario(), dto.getAno(), dto.getMes(), status));
+	}
+
 	@PutMapping("{id}/atualiza-status")
 	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto) {
 		return service.obterPorId(id).map(entity -> {
+			if (!UsuarioAutenticado.permite(entity.getUsuario().getId())) {
+				return proibido();
+			}
 			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 			if (statusSelecionado == null) {
 				return ResponseEntity.badRequest()
 						.body("Não foi possível atualizar o status do lançamento. Envie um status válido.");
 			}
 			try {
-				entity.setStatus(statusSelecionado);
-				service.atualizar(entity);
-				return ResponseEntity.ok(entity);
+				// a entidade lida é a mesma instância que o serviço usaria como estado anterior
+				Lancamento atualizado = service.atualizar(entity.toBuilder().status(statusSelecionado).build());
+				return ResponseEntity.ok(converter(atualizado));
 			} catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
 			}
@@ -111,12 +406,53 @@ public class LancamentoResource {
 	@DeleteMapping("{id}")
 	public ResponseEntity deletar(@PathVariable("id") Long id) {
 		return service.obterPorId(id).map(entidade -> {
-			service.deletarLancamento(entidade);
-			return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+			if (!UsuarioAutenticado.permite(entidade.getUsuario().getId())) {
+				return proibido();
+			}
+			try {
+				service.deletarLancamento(entidade);
+				return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
 		}).orElseGet(() -> new ResponseEntity("Lancamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST));
 	}
 	
-	private LancamentoDTO converter(Lancamento lancamento) {
+	/**
+	 * Com a segurança ligada, todos os lançamentos informados precisam ser do
+	 * usuário autenticado.
+	 */
+	private boolean acessoNegado(List<Long> ids) {
+		return UsuarioAutenticado.obter()
+				.map(idUsuario -> !service.listarIdsUsuario(ids).stream().allMatch(idUsuario::equals))
+				.orElse(false);
+	}
+
+	private static ResponseEntity proibido() {
+		return new ResponseEntity(HttpStatus.FORBIDDEN);
+	}
+
+	private static StreamingResponseBody mensagem(String mensagem) {
+		return saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Os campos não selecionados na consulta chegam nulos.
+	 */
+	LancamentoDTO converter(LancamentoProjecao lancamento) {
+		return LancamentoDTO.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.valor(lancamento.getValor())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.status(lancamento.getStatus() == null ? null : lancamento.getStatus().name())
+				.tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
+				.usuario(lancamento.getIdUsuario())
+				.build();
+	}
+
+	LancamentoDTO converter(Lancamento lancamento) {
 		return LancamentoDTO.builder()
 				.id(lancamento.getId())
 				.descricao(lancamento.getDescricao())
@@ -129,16 +465,29 @@ public class LancamentoResource {
 				.build();
 	}
 
-	private Lancamento converter(LancamentoDTO dto) {
+	Lancamento converter(LancamentoDTO dto) {
+		return converter(dto, obterReferenciaUsuario(dto.getUsuario()));
+	}
+
+	/**
+	 * Um id inexistente só é detectado pela chave estrangeira ao gravar, e por isso
+	 * as gravações tratam {@link DataIntegrityViolationException} como usuário não
+	 * encontrado.
+	 */
+	private Usuario obterReferenciaUsuario(Long id) {
+		if (id == null) {
+			throw new RegraNegocioException(USUARIO_NAO_ENCONTRADO);
+		}
+		return usuarioService.obterReferencia(id);
+	}
+
+	private Lancamento converter(LancamentoDTO dto, Usuario usuario) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setId(dto.getId());
 		lancamento.setDescricao(dto.getDescricao());
 		lancamento.setAno(dto.getAno());
 		lancamento.setMes(dto.getMes());
 		lancamento.setValor(dto.getValor());
-
-		Usuario usuario = usuarioService.obterPorId(dto.getUsuario())
-				.orElseThrow(() -> new RegraNegocioException("Usuario não encontrado para o id informado."));
 		lancamento.setUsuario(usuario);
 		if (dto.getTipo() != null) {
 			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
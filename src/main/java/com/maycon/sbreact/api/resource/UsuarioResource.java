@@ -1,23 +1,45 @@
 package com.maycon.sbreact.api.resource;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.dto.ResumoMensalDTO;
+import com.maycon.sbreact.api.dto.UsuarioAutenticadoDTO;
 import com.maycon.sbreact.api.dto.UsuarioDTO;
+import com.maycon.sbreact.api.evento.CanalEventos;
+import com.maycon.sbreact.api.seguranca.UsuarioAutenticado;
 import com.maycon.sbreact.exceptions.AutenticacaoException;
 import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.entity.Lancamento;
 import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.ArquivoLancamentoService;
 import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.RelatorioLancamentoService;
+import com.maycon.sbreact.service.ResumoMensalService;
+import com.maycon.sbreact.service.SaldoUsuarioService;
+import com.maycon.sbreact.service.TokenService;
 import com.maycon.sbreact.service.UsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,15 +48,30 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UsuarioResource {
 
+	static final int LIMITE_RELATORIO_PADRAO = 100;
+	static final int LIMITE_RELATORIO_MAXIMO = 1000;
+
 	private final UsuarioService service;
 	private final LancamentoService lancamentoService;
+	private final SaldoUsuarioService saldoUsuarioService;
+	private final ResumoMensalService resumoMensalService;
+	private final VersaoUsuarioService versaoUsuarioService;
+	private final ArquivoLancamentoService arquivoLancamentoService;
+	private final RelatorioLancamentoService relatorioLancamentoService;
+	private final TokenService tokenService;
+	private final CanalEventos canalEventos;
 
 	@PostMapping("/autenticar")
 	public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
 		try {
 
 			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
+			return ResponseEntity.ok(UsuarioAutenticadoDTO.builder()
+					.id(usuarioAutenticado.getId())
+					.nome(usuarioAutenticado.getNome())
+					.email(usuarioAutenticado.getEmail())
+					.token(tokenService.gerar(usuarioAutenticado.getId()))
+					.build());
 		} catch (AutenticacaoException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -54,13 +91,178 @@ public class UsuarioResource {
 	}
 	
 	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
+	public ResponseEntity obterSaldo(@PathVariable("id") Long id, WebRequest requisicao) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		Optional<Long> versao = versaoUsuarioService.obterVersao(id);
+		if(!versao.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		String etag = Etags.usuario(id, versao.get());
+		if (requisicao.checkNotModified(etag)) {
+			return null;
+		}
+		
+		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
+		return ResponseEntity.ok().eTag(etag).body(saldo);
+	}
+	
+	@GetMapping(value = "{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> assinarEventos(@PathVariable("id") Long id) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		if(!versaoUsuarioService.obterVersao(id).isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		return ResponseEntity.ok(canalEventos.assinar(id));
+	}
+	
+	/**
+	 * Token curto para o {@code EventSource} do navegador, que não envia o
+	 * cabeçalho {@code Authorization}: vai no parâmetro {@code token} de
+	 * {@code GET {id}/eventos} e não vale para o resto da API.
+	 */
+	@PostMapping("{id}/eventos/token")
+	public ResponseEntity gerarTokenEventos(@PathVariable("id") Long id) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		return ResponseEntity.ok(tokenService.gerarParaEventos(id));
+	}
+	
+	@GetMapping("{id}/resumo")
+	public ResponseEntity obterResumo(@PathVariable("id") Long id, @RequestParam("ano") Integer ano) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
 		Optional<Usuario> usuario = service.obterPorId(id);
 		if(!usuario.isPresent()) {
 			return new ResponseEntity(HttpStatus.NOT_FOUND);
 		}
 		
-		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
+		List<ResumoMensalDTO> resumo = resumoMensalService.listar(id, ano).stream()
+				.map(linha -> ResumoMensalDTO.builder()
+						.ano(linha.getAno())
+						.mes(linha.getMes())
+						.tipo(linha.getTipo().name())
+						.status(linha.getStatus().name())
+						.valor(linha.getValor())
+						.quantidade(linha.getQuantidade())
+						.build())
+				.collect(Collectors.toList());
+		return ResponseEntity.ok(resumo);
+	}
+	
+	@GetMapping("{id}/relatorio")
+	public ResponseEntity obterRelatorio(@PathVariable("id") Long id,
+			@RequestParam("agrupamento") String agrupamento,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "tipo", required = false) String tipo,
+			@RequestParam(value = "status", required = false) String status,
+			@RequestParam(value = "limite", required = false) Integer limite) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		FiltroRelatorio filtro;
+		Agrupamento agrupamentoSelecionado;
+		try {
+			agrupamentoSelecionado = Agrupamento.valueOf(agrupamento.toUpperCase());
+			filtro = FiltroRelatorio.builder()
+					.ano(ano)
+					.mes(mes)
+					.tipo(tipo == null ? null : TipoLancamento.valueOf(tipo.toUpperCase()))
+					.status(status == null ? null : StatusLancamento.valueOf(status.toUpperCase()))
+					.build();
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Agrupamento, tipo ou status inválido.");
+		}
+		
+		if(!versaoUsuarioService.obterVersao(id).isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		int limiteRelatorio = limite == null || limite < 1 ? LIMITE_RELATORIO_PADRAO
+				: Math.min(limite, LIMITE_RELATORIO_MAXIMO);
+		return ResponseEntity.ok(relatorioLancamentoService.agrupar(id, filtro, agrupamentoSelecionado, limiteRelatorio));
+	}
+	
+	@GetMapping("{id}/arquivo")
+	public ResponseEntity listarAnosArquivados(@PathVariable("id") Long id) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		Optional<Usuario> usuario = service.obterPorId(id);
+		if(!usuario.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		return ResponseEntity.ok(arquivoLancamentoService.listarAnosArquivados(id));
+	}
+	
+	@GetMapping("{id}/arquivo/{ano}")
+	public ResponseEntity listarArquivados(@PathVariable("id") Long id, @PathVariable("ano") Integer ano) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		Optional<List<Lancamento>> arquivados = arquivoLancamentoService.listarArquivados(id, ano);
+		if(!arquivados.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		List<LancamentoDTO> lancamentos = arquivados.get().stream()
+				.map(lancamento -> LancamentoDTO.builder()
+						.id(lancamento.getId())
+						.descricao(lancamento.getDescricao())
+						.valor(lancamento.getValor())
+						.mes(lancamento.getMes())
+						.ano(lancamento.getAno())
+						.status(lancamento.getStatus().name())
+						.tipo(lancamento.getTipo().name())
+						.usuario(id)
+						.build())
+				.collect(Collectors.toList());
+		return ResponseEntity.ok(lancamentos);
+	}
+	
+	@PostMapping("{id}/resumo/recalcular")
+	public ResponseEntity recalcularResumo(@PathVariable("id") Long id) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		Optional<Usuario> usuario = service.obterPorId(id);
+		if(!usuario.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		resumoMensalService.recalcular(id);
+		return new ResponseEntity(HttpStatus.NO_CONTENT);
+	}
+	
+	@PostMapping("{id}/saldo/recalcular")
+	public ResponseEntity recalcularSaldo(@PathVariable("id") Long id) {
+		if (!UsuarioAutenticado.permite(id)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		Optional<Usuario> usuario = service.obterPorId(id);
+		if(!usuario.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		BigDecimal saldo = saldoUsuarioService.recalcular(id);
 		return ResponseEntity.ok(saldo);
 	}
 
@@ -0,0 +1,86 @@
+package com.maycon.sbreact.api.seguranca;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.maycon.sbreact.exceptions.AutenticacaoException;
+import com.maycon.sbreact.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exige um token válido no cabeçalho {@code Authorization: Bearer} em toda a
+ * API, exceto no login e no cadastro de usuário. O id do usuário autenticado
+ * fica no atributo {@link #ATRIBUTO_ID_USUARIO} da requisição.
+ * <p>
+ * Na assinatura de eventos, que o {@code EventSource} do navegador abre sem
+ * cabeçalhos, vale também o token de eventos no parâmetro {@code token}.
+ */
+@Component
+@ConditionalOnProperty(name = "financas.seguranca.habilitada", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AutenticacaoTokenFilter extends OncePerRequestFilter {
+
+	public static final String ATRIBUTO_ID_USUARIO = "idUsuario";
+
+	private static final String PREFIXO = "Bearer ";
+
+	private static final Pattern CAMINHO_EVENTOS = Pattern.compile("/api/usuarios/\\d+/eventos");
+
+	private final TokenService tokenService;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		if (!caminho.startsWith("/api/") || "OPTIONS".equals(request.getMethod())) {
+			return true;
+		}
+		return "POST".equals(request.getMethod())
+				&& (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+		String tokenEventos = cabecalho == null && assinaturaEventos(request) ? request.getParameter("token") : null;
+		if (tokenEventos == null
+				&& (cabecalho == null || !cabecalho.regionMatches(true, 0, PREFIXO, 0, PREFIXO.length()))) {
+			recusar(response, "Token de autenticação não informado.");
+			return;
+		}
+
+		try {
+			Long idUsuario = tokenEventos != null ? tokenService.validarParaEventos(tokenEventos)
+					: tokenService.validar(cabecalho.substring(PREFIXO.length()).trim());
+			request.setAttribute(ATRIBUTO_ID_USUARIO, idUsuario);
+		} catch (AutenticacaoException e) {
+			recusar(response, e.getMessage());
+			return;
+		}
+
+		chain.doFilter(request, response);
+	}
+
+	private static boolean assinaturaEventos(HttpServletRequest request) {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		return "GET".equals(request.getMethod()) && CAMINHO_EVENTOS.matcher(caminho).matches();
+	}
+
+	private static void recusar(HttpServletResponse response, String mensagem) throws IOException {
+		response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write(mensagem);
+	}
+
+}
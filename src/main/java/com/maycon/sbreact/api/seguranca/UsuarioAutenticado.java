@@ -0,0 +1,34 @@
+package com.maycon.sbreact.api.seguranca;
+
+import java.util.Optional;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Usuário do token validado pelo {@link AutenticacaoTokenFilter} na requisição
+ * atual. Com a segurança desligada o filtro não existe, não há usuário na
+ * requisição e toda verificação de acesso passa.
+ */
+public final class UsuarioAutenticado {
+
+	private UsuarioAutenticado() {
+	}
+
+	public static Optional<Long> obter() {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if (atributos == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable((Long) atributos.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO,
+				RequestAttributes.SCOPE_REQUEST));
+	}
+
+	/**
+	 * Verdadeiro quando não há usuário autenticado ou quando ele é o informado.
+	 */
+	public static boolean permite(Long idUsuario) {
+		return obter().map(autenticado -> autenticado.equals(idUsuario)).orElse(true);
+	}
+
+}
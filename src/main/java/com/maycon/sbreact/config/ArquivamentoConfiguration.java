@@ -0,0 +1,32 @@
+package com.maycon.sbreact.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.maycon.sbreact.model.consulta.AnoUsuario;
+import com.maycon.sbreact.service.ArquivoLancamentoService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Leva ao arquivo os anos fechados, um usuário e ano por transação, para que
+ * nenhuma transação segure os lançamentos de todos os usuários.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("${financas.arquivo.anos-abertos:0} > 0")
+@RequiredArgsConstructor
+public class ArquivamentoConfiguration {
+
+	private final ArquivoLancamentoService arquivoLancamentoService;
+
+	@Scheduled(cron = "${financas.arquivo.cron:0 0 3 * * *}")
+	public void arquivarAnosFechados() {
+		for (AnoUsuario pendente : arquivoLancamentoService.listarPendentes()) {
+			arquivoLancamentoService.arquivar(pendente.getIdUsuario(), pendente.getAno());
+		}
+	}
+
+}
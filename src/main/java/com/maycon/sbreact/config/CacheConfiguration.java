@@ -0,0 +1,84 @@
+package com.maycon.sbreact.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+public class CacheConfiguration {
+
+	public static final String USUARIOS = "usuarios";
+
+	public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+
+	/**
+	 * Caches locais do Caffeine, pela API JCache, usados como cache de segundo
+	 * nível do Hibernate. Cada contexto cria o seu CacheManager, e não o padrão
+	 * compartilhado do provedor, porque o Hibernate o fecha junto com a fábrica
+	 * de EntityManagers.
+	 */
+	@Bean(destroyMethod = "close")
+	public CacheManager cacheManagerHibernate(
+			@Value("${financas.cache.usuarios.tamanho-maximo:10000}") long tamanhoMaximo,
+			@Value("${financas.cache.usuarios.validade:PT10M}") String validade) {
+		CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+				.getCacheManager(URI.create("financas:" + UUID.randomUUID()), getClass().getClassLoader());
+
+		Duration duracao = Duration.parse(validade);
+		cacheManager.createCache(USUARIOS, configuracao(tamanhoMaximo, duracao));
+		cacheManager.createCache(USUARIOS_POR_EMAIL, configuracao(tamanhoMaximo, duracao));
+		cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+				configuracao(tamanhoMaximo, duracao));
+		// um carimbo por tabela; não pode sair antes das consultas que ele invalida
+		cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+				configuracao(null, null));
+		return cacheManager;
+	}
+
+	/**
+	 * Entidades e natural ids em cache são atualizados pelo Hibernate no commit
+	 * de cada gravação, e as consultas em cache deixam de valer quando a tabela
+	 * consultada muda. Acertos e falhas por região saem nas estatísticas do
+	 * Hibernate, publicadas como hibernate.second.level.cache.requests,
+	 * hibernate.cache.natural.id.requests e hibernate.cache.query.requests.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManagerHibernate) {
+		return propriedades -> {
+			propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+			propriedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+			propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+			propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+			propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+		};
+	}
+
+	private static <K, V> CaffeineConfiguration<K, V> configuracao(Long tamanhoMaximo, Duration validade) {
+		CaffeineConfiguration<K, V> configuracao = new CaffeineConfiguration<>();
+		if (tamanhoMaximo != null) {
+			configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+		}
+		if (validade != null) {
+			configuracao.setExpireAfterWrite(OptionalLong.of(validade.toNanos()));
+		}
+		configuracao.setStatisticsEnabled(true);
+		return configuracao;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.maycon.sbreact.config;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registra quantos comandos SQL cada requisição executou, por endpoint. Os
+ * comandos de exportações, que escrevem a resposta em outra thread, não entram
+ * na contagem.
+ */
+@RequiredArgsConstructor
+public class ConsultasPorRequisicaoInterceptor implements AsyncHandlerInterceptor {
+
+	static final String METRICA = "financas.sql.requisicao";
+
+	private final ContadorConsultas contador;
+	private final MeterRegistry registry;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		contador.iniciar();
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		contador.finalizar();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		int comandos = contador.finalizar();
+		if (comandos < 0) {
+			return;
+		}
+
+		Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder(METRICA)
+				.baseUnit("comandos")
+				.tag("method", request.getMethod())
+				.tag("uri", padrao == null ? "UNKNOWN" : padrao.toString())
+				.register(registry)
+				.record(comandos);
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.maycon.sbreact.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual entre
+ * {@link #iniciar()} e {@link #finalizar()}.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient ThreadLocal<int[]> contagem = new ThreadLocal<>();
+
+	public void iniciar() {
+		contagem.set(new int[1]);
+	}
+
+	/**
+	 * @return comandos executados desde {@link #iniciar()}, ou -1 se a contagem
+	 *         não foi iniciada nesta thread
+	 */
+	public int finalizar() {
+		int[] atual = contagem.get();
+		contagem.remove();
+		return atual == null ? -1 : atual[0];
+	}
+
+	@Override
+	public String inspect(String sql) {
+		int[] atual = contagem.get();
+		if (atual != null) {
+			atual[0]++;
+		}
+		return sql;
+	}
+
+}
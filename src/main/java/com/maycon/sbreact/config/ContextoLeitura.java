@@ -0,0 +1,55 @@
+package com.maycon.sbreact.config;
+
+import java.util.function.Supplier;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+
+/**
+ * Usuário em nome de quem a thread atual lê e grava, usado pelo
+ * {@link RoteamentoDataSource} para que cada usuário leia as próprias escritas.
+ * Nas requisições é o usuário autenticado; tarefas fora de requisição informam o
+ * usuário com {@link #comUsuario(Long, Supplier)}.
+ */
+public final class ContextoLeitura {
+
+	private static final ThreadLocal<Long> USUARIO = new ThreadLocal<>();
+
+	private ContextoLeitura() {
+	}
+
+	public static <T> T comUsuario(Long idUsuario, Supplier<T> tarefa) {
+		Long anterior = USUARIO.get();
+		USUARIO.set(idUsuario);
+		try {
+			return tarefa.get();
+		} finally {
+			if (anterior == null) {
+				USUARIO.remove();
+			} else {
+				USUARIO.set(anterior);
+			}
+		}
+	}
+
+	/**
+	 * @return id do usuário da thread atual, ou nulo quando não há um
+	 */
+	public static Long usuarioAtual() {
+		Long idUsuario = USUARIO.get();
+		if (idUsuario != null) {
+			return idUsuario;
+		}
+
+		RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+		if (requisicao == null) {
+			return null;
+		}
+		Object atributo = requisicao.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO,
+				RequestAttributes.SCOPE_REQUEST);
+		return atributo instanceof Long ? (Long) atributo : null;
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.maycon.sbreact.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Timers por método dos repositórios e serviços da aplicação, identificados pela
+ * interface da aplicação que o bean implementa. Chamadas de um método a outro do
+ * mesmo bean não passam pelo proxy e não são medidas separadamente.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MedicaoTempoAspect {
+
+	static final String METRICA_REPOSITORIO = "financas.repositorio";
+	static final String METRICA_SERVICO = "financas.servico";
+
+	private static final String PACOTE_APLICACAO = "com.maycon.sbreact.";
+
+	private final MeterRegistry registry;
+
+	private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+	@Around("this(org.springframework.data.repository.Repository)")
+	public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+		return medir(METRICA_REPOSITORIO, joinPoint);
+	}
+
+	@Around("within(com.maycon.sbreact.service.impl..*)")
+	public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+		return medir(METRICA_SERVICO, joinPoint);
+	}
+
+	private Object medir(String metrica, ProceedingJoinPoint joinPoint) throws Throwable {
+		Class<?> alvo = joinPoint.getTarget().getClass();
+		Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		Timer timer = timers.computeIfAbsent(alvo, classe -> new ConcurrentHashMap<>())
+				.computeIfAbsent(metodo, m -> Timer.builder(metrica)
+						.tag("classe", nome(alvo))
+						.tag("metodo", m.getName())
+						.register(registry));
+
+		long inicio = System.nanoTime();
+		try {
+			return joinPoint.proceed();
+		} finally {
+			timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private static String nome(Class<?> alvo) {
+		for (Class<?> interfaceImplementada : alvo.getInterfaces()) {
+			if (interfaceImplementada.getName().startsWith(PACOTE_APLICACAO)) {
+				return interfaceImplementada.getSimpleName();
+			}
+		}
+		return alvo.getSimpleName();
+	}
+
+}
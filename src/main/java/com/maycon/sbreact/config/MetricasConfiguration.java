@@ -0,0 +1,29 @@
+package com.maycon.sbreact.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricasConfiguration {
+
+	@Bean
+	public ContadorConsultas contadorConsultas() {
+		return new ContadorConsultas();
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer contadorConsultasCustomizer(ContadorConsultas contadorConsultas) {
+		return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorConsultas);
+	}
+
+	@Bean
+	public ConsultasPorRequisicaoInterceptor consultasPorRequisicaoInterceptor(ContadorConsultas contadorConsultas,
+			MeterRegistry registry) {
+		return new ConsultasPorRequisicaoInterceptor(contadorConsultas, registry);
+	}
+
+}
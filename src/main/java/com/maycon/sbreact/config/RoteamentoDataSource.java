@@ -0,0 +1,97 @@
+package com.maycon.sbreact.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Envia as transações {@code readOnly} às réplicas, em rodízio, e todo o resto
+ * ao primário. Deve ficar atrás de um {@link LazyConnectionDataSourceProxy}: o
+ * gerenciador de transações pede a conexão antes de marcar a transação como
+ * somente leitura, e o proxy adia a escolha até o primeiro comando.
+ *
+ * Depois do commit de uma transação de escrita, as leituras do mesmo usuário
+ * (ver {@link ContextoLeitura}) continuam no primário durante a janela
+ * informada, para que o atraso de replicação não esconda o que ele acabou de
+ * gravar. Escritas sem usuário valem para todos.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+	static final String PRIMARIO = "primario";
+
+	private static final Long TODOS = Long.MIN_VALUE;
+
+	private final List<String> replicas = new ArrayList<>();
+	private final AtomicInteger proxima = new AtomicInteger();
+	private final Cache<Long, Boolean> escritasRecentes;
+
+	/**
+	 * @param janelaLeituraAposEscrita tempo em que as leituras de quem gravou
+	 *                                 ficam no primário; zero desliga
+	 */
+	public RoteamentoDataSource(DataSource primario, List<DataSource> replicas, Duration janelaLeituraAposEscrita) {
+		Map<Object, Object> destinos = new HashMap<>();
+		destinos.put(PRIMARIO, primario);
+		for (int i = 0; i < replicas.size(); i++) {
+			String chave = "replica-" + i;
+			this.replicas.add(chave);
+			destinos.put(chave, replicas.get(i));
+		}
+		setTargetDataSources(destinos);
+		setDefaultTargetDataSource(primario);
+		setLenientFallback(false);
+		afterPropertiesSet();
+
+		this.escritasRecentes = janelaLeituraAposEscrita.isZero() ? null
+				: Caffeine.newBuilder().expireAfterWrite(janelaLeituraAposEscrita).build();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Long usuario = ContextoLeitura.usuarioAtual();
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return replicas.isEmpty() || escreveuRecentemente(usuario) ? PRIMARIO
+					: replicas.get(Math.floorMod(proxima.getAndIncrement(), replicas.size()));
+		}
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			registrarEscrita(usuario);
+		}
+		return PRIMARIO;
+	}
+
+	private boolean escreveuRecentemente(Long usuario) {
+		if (escritasRecentes == null) {
+			return false;
+		}
+		return escritasRecentes.getIfPresent(TODOS) != null
+				|| (usuario != null && escritasRecentes.getIfPresent(usuario) != null);
+	}
+
+	private void registrarEscrita(Long usuario) {
+		if (escritasRecentes == null) {
+			return;
+		}
+		Long chave = usuario == null ? TODOS : usuario;
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				escritasRecentes.put(chave, Boolean.TRUE);
+			}
+		});
+	}
+
+}
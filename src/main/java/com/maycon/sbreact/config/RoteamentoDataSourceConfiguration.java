@@ -0,0 +1,74 @@
+package com.maycon.sbreact.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+/**
+ * Ativa o {@link RoteamentoDataSource} quando há réplicas configuradas. O
+ * primário continua em {@code spring.datasource.*}; as réplicas usam o mesmo
+ * usuário, senha e driver.
+ */
+@Configuration
+@ConditionalOnProperty("financas.datasource.replicas")
+public class RoteamentoDataSourceConfiguration {
+
+	@Bean
+	public DataSource dataSource(DataSourceProperties propriedades,
+			@Value("${financas.datasource.replicas}") String[] urlsReplicas,
+			@Value("${financas.datasource.leitura-apos-escrita:PT5S}") Duration janelaLeituraAposEscrita) {
+		DataSource primario = propriedades.initializeDataSourceBuilder().build();
+		List<DataSource> replicas = Arrays.stream(urlsReplicas)
+				.map(String::trim)
+				.filter(url -> !url.isEmpty())
+				.map(url -> propriedades.initializeDataSourceBuilder().url(url).build())
+				.collect(Collectors.toList());
+		return new LazyConnectionDataSourceProxy(
+				new RoteamentoDataSource(primario, replicas, janelaLeituraAposEscrita));
+	}
+
+	/**
+	 * Uma sessão do Hibernate que atravessa várias transações, como a da view
+	 * aberta, guardaria a conexão escolhida na primeira: uma escrita depois de
+	 * uma leitura iria para a réplica. Com a conexão devolvida ao fim de cada
+	 * transação, cada uma passa pelo roteamento.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer liberacaoConexaoPorTransacao() {
+		return propriedades -> propriedades.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+	/**
+	 * O dialeto do Spring prepara a conexão das transações somente leitura e a
+	 * restaura no fim, o que supõe a conexão presa à sessão até ela fechar.
+	 */
+	@Bean
+	public static BeanPostProcessor conexaoNaoPreparadaPeloDialeto() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String nome) {
+				if (bean instanceof HibernateJpaVendorAdapter) {
+					((HibernateJpaVendorAdapter) bean).setPrepareConnection(false);
+				}
+				return bean;
+			}
+		};
+	}
+
+}
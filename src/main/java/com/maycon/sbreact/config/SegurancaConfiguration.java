@@ -0,0 +1,21 @@
+package com.maycon.sbreact.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class SegurancaConfiguration {
+
+	/**
+	 * O custo é o log2 do número de rodadas do BCrypt; cada incremento dobra o
+	 * tempo de um login.
+	 */
+	@Bean
+	public PasswordEncoder passwordEncoder(@Value("${financas.seguranca.custo-senha:10}") int custo) {
+		return new BCryptPasswordEncoder(custo);
+	}
+
+}
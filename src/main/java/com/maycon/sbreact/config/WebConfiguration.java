@@ -1,17 +1,63 @@
 package com.maycon.sbreact.config;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maycon.sbreact.api.exportacao.ListaLancamentosHttpMessageConverter;
+
+import lombok.RequiredArgsConstructor;
+
 @EnableWebMvc
 @Configuration
+@RequiredArgsConstructor
 public class WebConfiguration implements WebMvcConfigurer {
 	
+	/**
+	 * Exportações completas escrevem a resposta aos poucos e podem levar bem mais
+	 * que o tempo limite padrão do servidor.
+	 */
+	private static final long TEMPO_LIMITE_ASSINCRONO = TimeUnit.MINUTES.toMillis(30);
+	
+	private final ObjectProvider<AsyncTaskExecutor> taskExecutor;
+	private final ObjectProvider<ConsultasPorRequisicaoInterceptor> consultasPorRequisicaoInterceptor;
+	private final ObjectMapper objectMapper;
+	
 	@Override
 	public void addCorsMappings(CorsRegistry registry) {		
-		registry.addMapping("/**").allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS");
+		// o cliente precisa ler a ETag para enviá-la no If-Match do PATCH
+		registry.addMapping("/**").allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
+				.exposedHeaders(HttpHeaders.ETAG);
+	}
+	
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		consultasPorRequisicaoInterceptor.ifAvailable(registry::addInterceptor);
+	}
+	
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(0, new ListaLancamentosHttpMessageConverter(objectMapper));
+	}
+	
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(TEMPO_LIMITE_ASSINCRONO);
+		AsyncTaskExecutor executor = taskExecutor.getIfUnique();
+		if (executor != null) {
+			configurer.setTaskExecutor(executor);
+		}
 	}
 
 }
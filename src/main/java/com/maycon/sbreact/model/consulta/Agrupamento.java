@@ -0,0 +1,24 @@
+package com.maycon.sbreact.model.consulta;
+
+public enum Agrupamento {
+
+	/**
+	 * Um grupo por ano, em ordem crescente.
+	 */
+	ANO,
+
+	/**
+	 * Um grupo por ano e mês, em ordem crescente, com chave no formato 2020-03.
+	 */
+	MES,
+
+	TIPO,
+
+	STATUS,
+
+	/**
+	 * Um grupo por descrição, do maior valor para o menor.
+	 */
+	DESCRICAO
+
+}
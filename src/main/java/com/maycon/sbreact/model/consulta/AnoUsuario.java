@@ -0,0 +1,13 @@
+package com.maycon.sbreact.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AnoUsuario {
+
+	private final Long idUsuario;
+	private final Integer ano;
+
+}
@@ -0,0 +1,69 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+
+/**
+ * Campos de um lançamento que podem ser selecionados nas listagens e no
+ * detalhe. Só os selecionados são consultados no banco e escritos na resposta.
+ */
+public enum CampoLancamento {
+
+	ID("id"),
+	DESCRICAO("descricao"),
+	MES("mes"),
+	ANO("ano"),
+	VALOR("valor"),
+	USUARIO("usuario"),
+	TIPO("tipo"),
+	STATUS("status");
+
+	public static final Set<CampoLancamento> TODOS = Collections.unmodifiableSet(EnumSet.allOf(CampoLancamento.class));
+
+	/**
+	 * Campos da posição de um lançamento na paginação, consultados mesmo quando
+	 * não selecionados.
+	 */
+	public static final Set<CampoLancamento> CURSOR = Collections.unmodifiableSet(EnumSet.of(ID, MES, ANO));
+
+	private final String nome;
+
+	CampoLancamento(String nome) {
+		this.nome = nome;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	/**
+	 * Campos informados separados por vírgula, com os nomes do JSON. Sem nenhum
+	 * campo informado, todos; um nome em branco, como em {@code fields=,}, é
+	 * recusado como qualquer outro campo inválido.
+	 */
+	public static Set<CampoLancamento> de(String campos) {
+		if (campos == null || campos.trim().isEmpty()) {
+			return TODOS;
+		}
+
+		Set<CampoLancamento> selecionados = EnumSet.noneOf(CampoLancamento.class);
+		for (String nome : campos.split(",", -1)) {
+			selecionados.add(porNome(nome.trim()));
+		}
+		return selecionados;
+	}
+
+	private static CampoLancamento porNome(String nome) {
+		for (CampoLancamento campo : values()) {
+			if (campo.nome.equals(nome)) {
+				return campo;
+			}
+		}
+		throw new RegraNegocioException("Campo inválido: " + nome
+				+ ". Informe id, descricao, mes, ano, valor, usuario, tipo ou status.");
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Posição de um lançamento na ordenação (ano, mes, id), usada como ponto de
+ * continuação da paginação por chave.
+ */
+@Data
+@AllArgsConstructor
+public class CursorLancamento {
+
+	private final Integer ano;
+	private final Integer mes;
+	private final Long id;
+
+	public static CursorLancamento de(LancamentoProjecao lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+
+	public String codificar() {
+		String valor = ano + ":" + mes + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static CursorLancamento decodificar(String cursor) {
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] partes = valor.split(":");
+			if (partes.length != 3) {
+				throw new RegraNegocioException("Cursor inválido.");
+			}
+			return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]),
+					Long.valueOf(partes[2]));
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Cursor inválido.");
+		}
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.maycon.sbreact.model.consulta;
+
+public interface DescricaoLancamento {
+
+	Long getId();
+
+	String getDescricao();
+
+}
@@ -0,0 +1,28 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.math.BigDecimal;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Colunas de um lançamento usadas nas listagens, carregadas sem a entidade e
+ * sem o usuário, do qual basta o id.
+ */
+@Data
+@AllArgsConstructor
+public class LancamentoProjecao {
+
+	private final Long id;
+	private final String descricao;
+	private final Integer mes;
+	private final Integer ano;
+	private final BigDecimal valor;
+	private final Long idUsuario;
+	private final TipoLancamento tipo;
+	private final StatusLancamento status;
+
+}
@@ -0,0 +1,28 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.math.BigDecimal;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Colunas de um lançamento carregadas para os relatórios em memória, com a
+ * versão para que eventos atrasados não sobrescrevam um estado mais novo.
+ */
+@Data
+@AllArgsConstructor
+public class LinhaLancamento {
+
+	private final Long id;
+	private final String descricao;
+	private final Integer mes;
+	private final Integer ano;
+	private final BigDecimal valor;
+	private final TipoLancamento tipo;
+	private final StatusLancamento status;
+	private final Long versao;
+
+}
@@ -0,0 +1,19 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Soma dos valores e quantidade de lançamentos de um grupo do relatório.
+ */
+@Data
+@AllArgsConstructor
+public class LinhaRelatorio {
+
+	private final String chave;
+	private final BigDecimal valor;
+	private final Long quantidade;
+
+}
@@ -0,0 +1,15 @@
+package com.maycon.sbreact.model.consulta;
+
+public enum ModoBusca {
+
+	/**
+	 * Descrição ou alguma de suas palavras começa com o termo.
+	 */
+	PREFIXO,
+
+	/**
+	 * Descrição contém palavras parecidas com o termo (similaridade de trigramas).
+	 */
+	APROXIMADO
+
+}
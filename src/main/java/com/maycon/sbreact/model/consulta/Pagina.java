@@ -0,0 +1,17 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Pagina<T> {
+
+	private List<T> conteudo;
+	private String proximoCursor;
+
+}
@@ -0,0 +1,26 @@
+package com.maycon.sbreact.model.consulta;
+
+import java.math.BigDecimal;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Soma e quantidade de lançamentos agrupados por usuário, período, tipo e status.
+ */
+@Data
+@AllArgsConstructor
+public class TotalLancamentos {
+
+	private final Long idUsuario;
+	private final Integer ano;
+	private final Integer mes;
+	private final TipoLancamento tipo;
+	private final StatusLancamento status;
+	private final BigDecimal valor;
+	private final Long quantidade;
+
+}
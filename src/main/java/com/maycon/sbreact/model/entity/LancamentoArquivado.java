@@ -0,0 +1,61 @@
+package com.maycon.sbreact.model.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Lançamentos de um ano fechado de um usuário, retirados da tabela de
+ * lançamentos e guardados compactados, com a contribuição do ano ao saldo.
+ */
+@Entity
+@Table(name = "lancamento_arquivado", schema = "financas")
+@IdClass(LancamentoArquivado.Chave.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoArquivado {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+
+	@Column(name = "quantidade", nullable = false)
+	private Integer quantidade;
+
+	@Column(name = "saldo", nullable = false)
+	private BigDecimal saldo;
+
+	@Column(name = "conteudo", nullable = false, length = Integer.MAX_VALUE)
+	@ToString.Exclude
+	private byte[] conteudo;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Chave implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Long idUsuario;
+		private Integer ano;
+
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.maycon.sbreact.model.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Soma e quantidade dos lançamentos de um usuário por mês, tipo e status,
+ * mantidas a cada alteração de lançamento.
+ */
+@Entity
+@Table(name = "resumo_mensal", schema = "financas")
+@IdClass(ResumoMensal.Chave.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+
+	@Id
+	@Column(name = "mes")
+	private Integer mes;
+
+	@Id
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+
+	@Id
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+
+	@Column(name = "valor")
+	private BigDecimal valor;
+
+	@Column(name = "quantidade")
+	private Long quantidade;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Chave implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Long idUsuario;
+		private Integer ano;
+		private Integer mes;
+		private TipoLancamento tipo;
+		private StatusLancamento status;
+
+	}
+
+}
@@ -1,13 +1,21 @@
 package com.maycon.sbreact.model.entity;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.maycon.sbreact.config.CacheConfiguration;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,7 +23,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "usuario", schema = "financas")
+@Table(name = "usuario", schema = "financas", uniqueConstraints = @UniqueConstraint(name = "uk_usuario_email", columnNames = "email"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfiguration.USUARIOS)
+@NaturalIdCache(region = CacheConfiguration.USUARIOS_POR_EMAIL)
 @Builder
 @Data
 @NoArgsConstructor
@@ -30,6 +41,7 @@ public class Usuario {
 	@Column(name = "nome")
 	private String nome;
 	
+	@NaturalId(mutable = true)
 	@Column(name = "email")
 	private String email;
 	
@@ -0,0 +1,32 @@
+package com.maycon.sbreact.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador de alterações dos lançamentos de um usuário, incrementado a cada gravação
+ * e usado como ETag da listagem de lançamentos e do saldo.
+ */
+@Entity
+@Table(name = "versao_usuario", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoUsuario {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+
+	@Column(name = "versao")
+	private Long versao;
+
+}
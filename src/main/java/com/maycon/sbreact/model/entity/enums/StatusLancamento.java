@@ -1,9 +1,25 @@
 package com.maycon.sbreact.model.entity.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum StatusLancamento {
 
 	PENDENTE,
 	CANCELADO,
-	EFETIVADO
+	EFETIVADO;
+	
+	/**
+	 * Status a partir dos quais um lançamento pode passar para este status.
+	 */
+	public Set<StatusLancamento> origensPermitidas() {
+		switch (this) {
+		case EFETIVADO:
+		case CANCELADO:
+			return EnumSet.of(PENDENTE);
+		default:
+			return EnumSet.of(CANCELADO, EFETIVADO);
+		}
+	}
 	
 }
@@ -0,0 +1,21 @@
+package com.maycon.sbreact.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.maycon.sbreact.model.entity.LancamentoArquivado;
+
+public interface LancamentoArquivadoRepository
+		extends JpaRepository<LancamentoArquivado, LancamentoArquivado.Chave> {
+
+	@Query("SELECT COALESCE(SUM(a.saldo), 0) FROM LancamentoArquivado a WHERE a.idUsuario = :idUsuario")
+	BigDecimal somarSaldo(@Param("idUsuario") Long idUsuario);
+
+	@Query("SELECT a.ano FROM LancamentoArquivado a WHERE a.idUsuario = :idUsuario ORDER BY a.ano")
+	List<Integer> listarAnos(@Param("idUsuario") Long idUsuario);
+
+}
@@ -1,22 +1,112 @@
 package com.maycon.sbreact.model.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.maycon.sbreact.model.consulta.AnoUsuario;
+import com.maycon.sbreact.model.consulta.DescricaoLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
 import com.maycon.sbreact.model.entity.Lancamento;
 import com.maycon.sbreact.model.entity.enums.StatusLancamento;
 import com.maycon.sbreact.model.entity.enums.TipoLancamento;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
+	
+	String PROJECAO = "new com.maycon.sbreact.model.consulta.LancamentoProjecao(l.id, l.descricao, l.mes, l.ano,"
+	+ " l.valor, l.usuario.id, l.tipo, l.status)";
+	
+	@Query("SELECT l.versao FROM Lancamento l WHERE l.id = :id")
+	Optional<Long> obterVersao(@Param("id") Long id);
+	
+	@Query("SELECT DISTINCT l.usuario.id FROM Lancamento l WHERE l.id IN :ids")
+	List<Long> listarIdsUsuario(@Param("ids") Collection<Long> ids);
 	
 	@Query(value =
-	"SELECT SUM(l.valor) FROM Lancamento l JOIN l.usuario u WHERE u.id = :idUsuario"
-	+ " AND l.tipo = :tipo and l.status = :status GROUP BY u ")
+	"SELECT SUM(l.valor) FROM Lancamento l WHERE l.usuario.id = :idUsuario"
+	+ " AND l.status = :status AND l.tipo = :tipo")
 	BigDecimal obtserSaldoPorTipoLancamentoEusuarioEStatus(
 			@Param("idUsuario") Long idUsuario, 
 			@Param("tipo") TipoLancamento tipo,
 			@Param("status") StatusLancamento status);
+	
+	@Query("SELECT new com.maycon.sbreact.model.consulta.TotalLancamentos(l.usuario.id, l.ano, l.mes, l.tipo, l.status,"
+	+ " SUM(l.valor), COUNT(l)) FROM Lancamento l WHERE l.usuario.id = :idUsuario"
+	+ " GROUP BY l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	List<TotalLancamentos> totalizarPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Query("SELECT new com.maycon.sbreact.model.consulta.TotalLancamentos(l.usuario.id, l.ano, l.mes, l.tipo, l.status,"
+	+ " SUM(l.valor), COUNT(l)) FROM Lancamento l WHERE l.id IN :ids AND l.status IN :origens"
+	+ " GROUP BY l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	List<TotalLancamentos> totalizarPorIds(
+			@Param("ids") Collection<Long> ids,
+			@Param("origens") Collection<StatusLancamento> origens);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT l.id FROM Lancamento l WHERE l.id IN :ids AND l.status IN :origens"
+	+ " AND l.ano >= :primeiroAnoAberto ORDER BY l.id")
+	List<Long> travarPorIds(
+			@Param("ids") Collection<Long> ids,
+			@Param("primeiroAnoAberto") Integer primeiroAnoAberto,
+			@Param("origens") Collection<StatusLancamento> origens);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT l.id FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.ano = :ano AND l.mes = :mes"
+	+ " AND l.status IN :origens ORDER BY l.id")
+	List<Long> travarPorPeriodo(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("origens") Collection<StatusLancamento> origens);
+	
+	@Modifying
+	@Query("UPDATE Lancamento l SET l.status = :status, l.versao = l.versao + 1"
+	+ " WHERE l.id IN :ids AND l.status IN :origens")
+	int atualizarStatusPorIds(
+			@Param("ids") Collection<Long> ids,
+			@Param("status") StatusLancamento status,
+			@Param("origens") Collection<StatusLancamento> origens);
+	
+	@Query("SELECT DISTINCT new com.maycon.sbreact.model.consulta.AnoUsuario(l.usuario.id, l.ano)"
+	+ " FROM Lancamento l WHERE l.ano <= :ano")
+	List<AnoUsuario> listarAnosAte(@Param("ano") Integer ano);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT l FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.ano = :ano ORDER BY l.mes, l.id")
+	List<Lancamento> travarPorUsuarioEAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@Modifying
+	@Query("DELETE FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.ano = :ano")
+	int excluirPorUsuarioEAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@Query("SELECT l.id AS id, l.descricao AS descricao FROM Lancamento l WHERE l.usuario.id = :idUsuario")
+	List<DescricaoLancamento> listarDescricoes(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value =
+	"SELECT * FROM financas.lancamento l WHERE l.id_usuario = :idUsuario"
+	+ " AND (lower(l.descricao) LIKE :termo || '%' OR lower(l.descricao) LIKE '% ' || :termo || '%')"
+	+ " ORDER BY lower(l.descricao), l.id LIMIT :limite", nativeQuery = true)
+	List<Lancamento> buscarPorPrefixoDescricao(
+			@Param("idUsuario") Long idUsuario,
+			@Param("termo") String termo,
+			@Param("limite") int limite);
+	
+	@Query(value =
+	"SELECT * FROM financas.lancamento l WHERE l.id_usuario = :idUsuario"
+	+ " AND :termo <% lower(l.descricao)"
+	+ " ORDER BY word_similarity(:termo, lower(l.descricao)) DESC, l.id LIMIT :limite", nativeQuery = true)
+	List<Lancamento> buscarPorDescricaoAproximada(
+			@Param("idUsuario") Long idUsuario,
+			@Param("termo") String termo,
+			@Param("limite") int limite);
 }
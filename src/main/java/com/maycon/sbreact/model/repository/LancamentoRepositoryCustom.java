@@ -0,0 +1,54 @@
+package com.maycon.sbreact.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.entity.Lancamento;
+
+public interface LancamentoRepositoryCustom {
+
+	/**
+	 * Busca os lançamentos do usuário do filtro, restringindo por ano, mês e
+	 * descrição quando informados, ordenados por (ano, mes, id). Só as colunas
+	 * dos campos informados são consultadas, e os demais ficam nulos.
+	 */
+	List<LancamentoProjecao> buscar(Lancamento filtro, Set<CampoLancamento> campos);
+
+	/**
+	 * Busca os lançamentos do usuário do filtro ordenados por (ano, mes, id), a
+	 * partir da posição seguinte ao cursor informado. Além dos campos informados,
+	 * consulta sempre os do cursor.
+	 */
+	List<LancamentoProjecao> buscarPagina(Lancamento filtro, CursorLancamento cursor, boolean decrescente, int limite,
+			Set<CampoLancamento> campos);
+
+	/**
+	 * Apenas os campos informados do lançamento, sem carregar a entidade.
+	 */
+	Optional<LancamentoProjecao> obterProjecaoPorId(Long id, Set<CampoLancamento> campos);
+
+	/**
+	 * Percorre todos os lançamentos do usuário. Deve ser consumido dentro de uma
+	 * transação e fechado ao final.
+	 */
+	Stream<LancamentoProjecao> streamPorUsuario(Long idUsuario);
+
+	/**
+	 * Percorre as colunas usadas nos relatórios de todos os lançamentos do
+	 * usuário, nas mesmas condições de {@link #streamPorUsuario(Long)}.
+	 */
+	Stream<LinhaLancamento> streamLinhasPorUsuario(Long idUsuario);
+
+	/**
+	 * Persiste os lançamentos em blocos do tamanho do lote JDBC, liberando o
+	 * contexto de persistência a cada bloco.
+	 */
+	void salvarEmLote(List<Lancamento> lancamentos);
+
+}
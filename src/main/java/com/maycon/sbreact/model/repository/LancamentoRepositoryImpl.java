@@ -0,0 +1,211 @@
+package com.maycon.sbreact.model.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.hibernate.jpa.QueryHints;
+
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+	private static final int TAMANHO_BUSCA_STREAM = 500;
+
+	/**
+	 * Mesmo valor de hibernate.jdbc.batch_size, para que cada bloco vire um único
+	 * lote de inserts.
+	 */
+	static final int TAMANHO_LOTE_ESCRITA = 50;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<LancamentoProjecao> buscar(Lancamento filtro, Set<CampoLancamento> campos) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Lancamento> root = query.from(Lancamento.class);
+
+		query.multiselect(selecionar(root, campos));
+		query.where(filtrar(cb, root, filtro).toArray(new Predicate[0]));
+		query.orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+
+		return projetar(entityManager.createQuery(query).getResultList(), campos);
+	}
+
+	@Override
+	public List<LancamentoProjecao> buscarPagina(Lancamento filtro, CursorLancamento cursor, boolean decrescente,
+			int limite, Set<CampoLancamento> campos) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Lancamento> root = query.from(Lancamento.class);
+
+		List<Predicate> predicados = filtrar(cb, root, filtro);
+		if (cursor != null) {
+			predicados.add(aposCursor(cb, root, cursor, decrescente));
+		}
+
+		Set<CampoLancamento> consultados = EnumSet.copyOf(CampoLancamento.CURSOR);
+		consultados.addAll(campos);
+		query.multiselect(selecionar(root, consultados));
+		query.where(predicados.toArray(new Predicate[0]));
+		if (decrescente) {
+			query.orderBy(cb.desc(root.get("ano")), cb.desc(root.get("mes")), cb.desc(root.get("id")));
+		} else {
+			query.orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		}
+
+		return projetar(entityManager.createQuery(query).setMaxResults(limite).getResultList(), consultados);
+	}
+
+	@Override
+	public Optional<LancamentoProjecao> obterProjecaoPorId(Long id, Set<CampoLancamento> campos) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Lancamento> root = query.from(Lancamento.class);
+
+		query.multiselect(selecionar(root, campos));
+		query.where(cb.equal(root.get("id"), id));
+
+		return projetar(entityManager.createQuery(query).getResultList(), campos).stream().findFirst();
+	}
+
+	@Override
+	public Stream<LancamentoProjecao> streamPorUsuario(Long idUsuario) {
+		return entityManager
+				.createQuery("SELECT " + LancamentoRepository.PROJECAO
+						+ " FROM Lancamento l WHERE l.usuario.id = :idUsuario ORDER BY l.ano, l.mes, l.id",
+						LancamentoProjecao.class)
+				.setParameter("idUsuario", idUsuario)
+				.setHint(QueryHints.HINT_FETCH_SIZE, TAMANHO_BUSCA_STREAM)
+				.getResultStream();
+	}
+
+	@Override
+	public Stream<LinhaLancamento> streamLinhasPorUsuario(Long idUsuario) {
+		return entityManager
+				.createQuery("SELECT new com.maycon.sbreact.model.consulta.LinhaLancamento(l.id, l.descricao, l.mes,"
+						+ " l.ano, l.valor, l.tipo, l.status, l.versao) FROM Lancamento l WHERE l.usuario.id = :idUsuario",
+						LinhaLancamento.class)
+				.setParameter("idUsuario", idUsuario)
+				.setHint(QueryHints.HINT_FETCH_SIZE, TAMANHO_BUSCA_STREAM)
+				.getResultStream();
+	}
+
+	@Override
+	public void salvarEmLote(List<Lancamento> lancamentos) {
+		for (int i = 0; i < lancamentos.size(); i++) {
+			entityManager.persist(lancamentos.get(i));
+			if ((i + 1) % TAMANHO_LOTE_ESCRITA == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	/**
+	 * Apenas as colunas dos campos selecionados, cada uma com o nome do campo
+	 * como alias. O usuário vem da chave estrangeira, sem junção.
+	 */
+	private static List<Selection<?>> selecionar(Root<Lancamento> root, Set<CampoLancamento> campos) {
+		List<Selection<?>> colunas = new ArrayList<>(campos.size());
+		for (CampoLancamento campo : campos) {
+			Path<?> coluna = campo == CampoLancamento.USUARIO ? root.get("usuario").get("id")
+					: root.get(campo.getNome());
+			colunas.add(coluna.alias(campo.name()));
+		}
+		return colunas;
+	}
+
+	private static List<LancamentoProjecao> projetar(List<Tuple> tuplas, Set<CampoLancamento> campos) {
+		List<LancamentoProjecao> lancamentos = new ArrayList<>(tuplas.size());
+		for (Tuple tupla : tuplas) {
+			lancamentos.add(new LancamentoProjecao(
+					valor(tupla, campos, CampoLancamento.ID, Long.class),
+					valor(tupla, campos, CampoLancamento.DESCRICAO, String.class),
+					valor(tupla, campos, CampoLancamento.MES, Integer.class),
+					valor(tupla, campos, CampoLancamento.ANO, Integer.class),
+					valor(tupla, campos, CampoLancamento.VALOR, BigDecimal.class),
+					valor(tupla, campos, CampoLancamento.USUARIO, Long.class),
+					valor(tupla, campos, CampoLancamento.TIPO, TipoLancamento.class),
+					valor(tupla, campos, CampoLancamento.STATUS, StatusLancamento.class)));
+		}
+		return lancamentos;
+	}
+
+	private static <T> T valor(Tuple tupla, Set<CampoLancamento> campos, CampoLancamento campo, Class<T> tipo) {
+		return campos.contains(campo) ? tupla.get(campo.name(), tipo) : null;
+	}
+
+	private List<Predicate> filtrar(CriteriaBuilder cb, Root<Lancamento> root, Lancamento filtro) {
+		List<Predicate> predicados = new ArrayList<>();
+		predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+
+		if (filtro.getDescricao() != null && !filtro.getDescricao().isEmpty()) {
+			predicados.add(cb.like(cb.lower(root.get("descricao")), contendo(filtro.getDescricao()), '\\'));
+		}
+
+		if (filtro.getMes() != null) {
+			predicados.add(cb.equal(root.get("mes"), filtro.getMes()));
+		}
+
+		if (filtro.getAno() != null) {
+			predicados.add(cb.equal(root.get("ano"), filtro.getAno()));
+		}
+
+		return predicados;
+	}
+
+	/**
+	 * (ano, mes, id) estritamente após o cursor. O limite redundante sobre o ano
+	 * permite que o banco percorra o índice apenas a partir da posição do cursor.
+	 */
+	private Predicate aposCursor(CriteriaBuilder cb, Root<Lancamento> root, CursorLancamento cursor,
+			boolean decrescente) {
+		Expression<Integer> ano = root.get("ano");
+		Expression<Integer> mes = root.get("mes");
+		Expression<Long> id = root.get("id");
+
+		if (decrescente) {
+			return cb.and(cb.lessThanOrEqualTo(ano, cursor.getAno()),
+					cb.or(cb.lessThan(ano, cursor.getAno()),
+							cb.and(cb.equal(ano, cursor.getAno()), cb.or(cb.lessThan(mes, cursor.getMes()),
+									cb.and(cb.equal(mes, cursor.getMes()), cb.lessThan(id, cursor.getId()))))));
+		}
+
+		return cb.and(cb.greaterThanOrEqualTo(ano, cursor.getAno()),
+				cb.or(cb.greaterThan(ano, cursor.getAno()),
+						cb.and(cb.equal(ano, cursor.getAno()), cb.or(cb.greaterThan(mes, cursor.getMes()),
+								cb.and(cb.equal(mes, cursor.getMes()), cb.greaterThan(id, cursor.getId()))))));
+	}
+
+	private static String contendo(String descricao) {
+		String escapada = descricao.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return "%" + escapada + "%";
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.maycon.sbreact.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.maycon.sbreact.model.entity.ResumoMensal;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensal.Chave> {
+
+	@Query("SELECT r FROM ResumoMensal r WHERE r.idUsuario = :idUsuario AND r.ano = :ano AND r.quantidade > 0"
+	+ " ORDER BY r.mes, r.tipo, r.status")
+	List<ResumoMensal> listarPorAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+	@Modifying
+	@Query("UPDATE ResumoMensal r SET r.valor = r.valor + :valor, r.quantidade = r.quantidade + :quantidade"
+	+ " WHERE r.idUsuario = :idUsuario AND r.ano = :ano AND r.mes = :mes AND r.tipo = :tipo AND r.status = :status")
+	int somar(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo,
+			@Param("status") StatusLancamento status,
+			@Param("valor") BigDecimal valor,
+			@Param("quantidade") long quantidade);
+
+	/**
+	 * Zero quando a linha já existe, inclusive se outra transação acabou de criá-la.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, valor, quantidade)"
+	+ " VALUES (:idUsuario, :ano, :mes, :tipo, :status, :valor, :quantidade) ON CONFLICT DO NOTHING",
+	nativeQuery = true)
+	int inserirSeAusente(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("tipo") String tipo,
+			@Param("status") String status,
+			@Param("valor") BigDecimal valor,
+			@Param("quantidade") long quantidade);
+
+	@Modifying
+	@Query("DELETE FROM ResumoMensal r WHERE r.idUsuario = :idUsuario AND r.ano NOT IN"
+	+ " (SELECT a.ano FROM LancamentoArquivado a WHERE a.idUsuario = :idUsuario)")
+	int excluirPorUsuario(@Param("idUsuario") Long idUsuario);
+
+}
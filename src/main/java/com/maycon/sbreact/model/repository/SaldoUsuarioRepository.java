@@ -0,0 +1,35 @@
+package com.maycon.sbreact.model.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.maycon.sbreact.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Query("SELECT s.saldo FROM SaldoUsuario s WHERE s.idUsuario = :idUsuario")
+	Optional<BigDecimal> obterSaldo(@Param("idUsuario") Long idUsuario);
+
+	@Modifying
+	@Query("UPDATE SaldoUsuario s SET s.saldo = s.saldo + :valor WHERE s.idUsuario = :idUsuario")
+	int somarAoSaldo(@Param("idUsuario") Long idUsuario, @Param("valor") BigDecimal valor);
+
+	@Modifying
+	@Query("UPDATE SaldoUsuario s SET s.saldo = :saldo WHERE s.idUsuario = :idUsuario")
+	int definirSaldo(@Param("idUsuario") Long idUsuario, @Param("saldo") BigDecimal saldo);
+
+	/**
+	 * Zero quando a linha já existe, inclusive se outra transação acabou de
+	 * criá-la: o PostgreSQL espera o fim dela em vez de violar a chave.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO financas.saldo_usuario (id_usuario, saldo) VALUES (:idUsuario, :saldo)"
+	+ " ON CONFLICT DO NOTHING", nativeQuery = true)
+	int inserirSeAusente(@Param("idUsuario") Long idUsuario, @Param("saldo") BigDecimal saldo);
+
+}
@@ -1,15 +1,24 @@
 package com.maycon.sbreact.model.repository;
 
-import java.util.Optional;
+import java.util.List;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.maycon.sbreact.model.entity.Usuario;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
 
+	/**
+	 * Guardada no cache de consultas, que a descarta a cada gravação em usuario.
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
 	boolean existsByEmail(String email);
 	
-	Optional<Usuario> findByEmail(String email);
+	@Query("SELECT u.id FROM Usuario u")
+	List<Long> listarIds();
 	
 }
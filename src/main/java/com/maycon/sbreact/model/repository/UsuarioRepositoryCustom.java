@@ -0,0 +1,15 @@
+package com.maycon.sbreact.model.repository;
+
+import java.util.Optional;
+
+import com.maycon.sbreact.model.entity.Usuario;
+
+public interface UsuarioRepositoryCustom {
+
+	/**
+	 * Busca pelo natural id, resolvido pelo cache de segundo nível quando o
+	 * email já foi lido ou gravado.
+	 */
+	Optional<Usuario> findByEmail(String email);
+
+}
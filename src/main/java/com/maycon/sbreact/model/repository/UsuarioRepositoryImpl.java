@@ -0,0 +1,24 @@
+package com.maycon.sbreact.model.repository;
+
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.entity.Usuario;
+
+public class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Usuario> findByEmail(String email) {
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(Usuario.class).loadOptional(email);
+	}
+
+}
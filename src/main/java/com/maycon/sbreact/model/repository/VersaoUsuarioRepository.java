@@ -0,0 +1,33 @@
+package com.maycon.sbreact.model.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.maycon.sbreact.model.entity.VersaoUsuario;
+
+public interface VersaoUsuarioRepository extends JpaRepository<VersaoUsuario, Long> {
+
+	/**
+	 * Zero para o usuário sem alterações registradas e vazio quando o usuário não existe.
+	 */
+	@Query("SELECT COALESCE(v.versao, 0L) FROM Usuario u LEFT JOIN VersaoUsuario v ON v.idUsuario = u.id"
+	+ " WHERE u.id = :idUsuario")
+	Optional<Long> obterVersao(@Param("idUsuario") Long idUsuario);
+
+	@Modifying
+	@Query("UPDATE VersaoUsuario v SET v.versao = v.versao + 1 WHERE v.idUsuario = :idUsuario")
+	int incrementar(@Param("idUsuario") Long idUsuario);
+
+	/**
+	 * Zero quando a linha já existe, inclusive se outra transação acabou de criá-la.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO financas.versao_usuario (id_usuario, versao) VALUES (:idUsuario, 1)"
+	+ " ON CONFLICT DO NOTHING", nativeQuery = true)
+	int inserirSeAusente(@Param("idUsuario") Long idUsuario);
+
+}
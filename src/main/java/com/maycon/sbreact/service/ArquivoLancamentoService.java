@@ -0,0 +1,27 @@
+package com.maycon.sbreact.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.maycon.sbreact.model.consulta.AnoUsuario;
+import com.maycon.sbreact.model.entity.Lancamento;
+
+public interface ArquivoLancamentoService {
+
+	boolean anoFechado(Integer ano);
+
+	/**
+	 * @return primeiro ano que aceita alterações, ou {@link Integer#MIN_VALUE}
+	 *         quando nenhum ano é fechado
+	 */
+	int primeiroAnoAberto();
+
+	List<AnoUsuario> listarPendentes();
+
+	int arquivar(Long idUsuario, Integer ano);
+
+	List<Integer> listarAnosArquivados(Long idUsuario);
+
+	Optional<List<Lancamento>> listarArquivados(Long idUsuario, Integer ano);
+
+}
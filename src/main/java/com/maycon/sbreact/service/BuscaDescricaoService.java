@@ -0,0 +1,12 @@
+package com.maycon.sbreact.service;
+
+import java.util.List;
+
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.entity.Lancamento;
+
+public interface BuscaDescricaoService {
+
+	List<Lancamento> buscar(Long idUsuario, String termo, ModoBusca modo, int limite);
+
+}
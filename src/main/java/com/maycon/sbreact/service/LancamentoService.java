@@ -3,7 +3,13 @@ package com.maycon.sbreact.service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.Pagina;
 import com.maycon.sbreact.model.entity.Lancamento;
 import com.maycon.sbreact.model.entity.enums.StatusLancamento;
 
@@ -11,17 +17,36 @@ public interface LancamentoService {
 
 	Lancamento salvar(Lancamento lancamento);
 	
+	List<Lancamento> salvarLote(List<Lancamento> lancamentos);
+	
 	Lancamento atualizar(Lancamento lancamento);
 	
+	Optional<Lancamento> atualizarParcial(Long id, Long versao, Lancamento alteracoes);
+	
 	void deletarLancamento(Lancamento lancamento);
 	
-	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	List<LancamentoProjecao> buscar(Lancamento lancamentoFiltro, Set<CampoLancamento> campos);
+	
+	Pagina<LancamentoProjecao> buscarPagina(Lancamento lancamentoFiltro, CursorLancamento cursor, boolean decrescente, Integer tamanho,
+			Set<CampoLancamento> campos);
+	
+	void exportar(Long idUsuario, Consumer<LancamentoProjecao> consumidor);
 	
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 	
+	int atualizarStatusEmLote(List<Long> ids, StatusLancamento status);
+	
+	int atualizarStatusPorPeriodo(Long idUsuario, Integer ano, Integer mes, StatusLancamento status);
+	
 	void validar(Lancamento lancamento);
 	
 	Optional<Lancamento> obterPorId(Long id);
 	
+	Optional<LancamentoProjecao> obterProjecaoPorId(Long id, Set<CampoLancamento> campos);
+	
+	Optional<Long> obterVersao(Long id);
+	
+	List<Long> listarIdsUsuario(List<Long> ids);
+	
 	BigDecimal obterSaldoPorUsuario(Long id);
 }
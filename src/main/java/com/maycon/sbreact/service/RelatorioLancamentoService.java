@@ -0,0 +1,13 @@
+package com.maycon.sbreact.service;
+
+import java.util.List;
+
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+
+public interface RelatorioLancamentoService {
+
+	List<LinhaRelatorio> agrupar(Long idUsuario, FiltroRelatorio filtro, Agrupamento agrupamento, int limite);
+
+}
@@ -0,0 +1,22 @@
+package com.maycon.sbreact.service;
+
+import java.util.List;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.ResumoMensal;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+
+public interface ResumoMensalService {
+
+	void registrarAlteracao(Lancamento anterior, Lancamento atual);
+
+	void registrarInclusao(List<Lancamento> lancamentos);
+
+	void registrarTransicao(List<TotalLancamentos> totais, StatusLancamento novoStatus);
+
+	List<ResumoMensal> listar(Long idUsuario, Integer ano);
+
+	void recalcular(Long idUsuario);
+
+}
@@ -0,0 +1,24 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+
+public interface SaldoUsuarioService {
+
+	void registrarAlteracao(Lancamento anterior, Lancamento atual);
+
+	void registrarTransicao(List<TotalLancamentos> totais, StatusLancamento novoStatus);
+
+	BigDecimal obterSaldo(Long idUsuario);
+
+	BigDecimal recalcular(Long idUsuario);
+
+	boolean verificar(Long idUsuario);
+
+	void recalcularTodos();
+
+}
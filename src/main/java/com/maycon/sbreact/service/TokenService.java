@@ -0,0 +1,22 @@
+package com.maycon.sbreact.service;
+
+public interface TokenService {
+
+	String gerar(Long idUsuario);
+
+	/**
+	 * Confere a assinatura e a validade do token e devolve o id do usuário, sem
+	 * consultar o banco.
+	 */
+	Long validar(String token);
+
+	/**
+	 * Token de curta duração que só vale no parâmetro {@code token} da assinatura
+	 * de eventos, para o {@code EventSource} do navegador, que não envia
+	 * cabeçalhos.
+	 */
+	String gerarParaEventos(Long idUsuario);
+
+	Long validarParaEventos(String token);
+
+}
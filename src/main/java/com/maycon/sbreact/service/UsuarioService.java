@@ -13,5 +13,11 @@ public interface UsuarioService {
 	void validarEmail(String email);
 	
 	Optional<Usuario> obterPorId(Long id);
+	
+	/**
+	 * Referência ao usuário para associar a outras entidades, sem consultá-lo no
+	 * banco. A existência é garantida pela chave estrangeira ao gravar.
+	 */
+	Usuario obterReferencia(Long id);
 
 }
@@ -0,0 +1,12 @@
+package com.maycon.sbreact.service;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface VersaoUsuarioService {
+
+	void incrementar(Collection<Long> idsUsuario);
+
+	Optional<Long> obterVersao(Long idUsuario);
+
+}
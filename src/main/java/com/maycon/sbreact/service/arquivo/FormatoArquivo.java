@@ -0,0 +1,103 @@
+package com.maycon.sbreact.service.arquivo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.calculo.Centavos;
+
+/**
+ * Formato dos lançamentos arquivados: campos binários em sequência, sem o
+ * usuário e o ano, que já estão na chave do arquivo, compactados em gzip. Os
+ * valores ficam em {@link Centavos}.
+ */
+public final class FormatoArquivo {
+
+	private static final int VERSAO = 1;
+
+	private FormatoArquivo() {
+	}
+
+	public static byte[] codificar(List<Lancamento> lancamentos) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(new GZIPOutputStream(bytes))) {
+			saida.writeByte(VERSAO);
+			saida.writeInt(lancamentos.size());
+			for (Lancamento lancamento : lancamentos) {
+				saida.writeLong(lancamento.getId());
+				escreverTexto(saida, lancamento.getDescricao());
+				saida.writeByte(lancamento.getMes());
+				saida.writeLong(Centavos.de(lancamento.getValor()));
+				escreverTexto(saida, lancamento.getTipo() == null ? null : lancamento.getTipo().name());
+				escreverTexto(saida, lancamento.getStatus() == null ? null : lancamento.getStatus().name());
+				saida.writeLong(lancamento.getDataCadastro() == null ? Long.MIN_VALUE
+						: lancamento.getDataCadastro().toEpochDay());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static List<Lancamento> decodificar(byte[] conteudo, Long idUsuario, Integer ano) {
+		Usuario usuario = Usuario.builder().id(idUsuario).build();
+		try (DataInputStream entrada = new DataInputStream(
+				new GZIPInputStream(new ByteArrayInputStream(conteudo)))) {
+			int versao = entrada.readByte();
+			if (versao != VERSAO) {
+				throw new IllegalStateException("Versão de arquivo desconhecida: " + versao);
+			}
+
+			int quantidade = entrada.readInt();
+			List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+			for (int i = 0; i < quantidade; i++) {
+				Long id = entrada.readLong();
+				String descricao = lerTexto(entrada);
+				int mes = entrada.readByte();
+				BigDecimal valor = Centavos.paraBigDecimal(entrada.readLong());
+				String tipo = lerTexto(entrada);
+				String status = lerTexto(entrada);
+				long dataCadastro = entrada.readLong();
+				lancamentos.add(Lancamento.builder()
+						.id(id)
+						.descricao(descricao)
+						.mes(mes)
+						.ano(ano)
+						.valor(valor)
+						.tipo(tipo == null ? null : TipoLancamento.valueOf(tipo))
+						.status(status == null ? null : StatusLancamento.valueOf(status))
+						.dataCadastro(dataCadastro == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(dataCadastro))
+						.usuario(usuario)
+						.build());
+			}
+			return lancamentos;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void escreverTexto(DataOutputStream saida, String texto) throws IOException {
+		saida.writeBoolean(texto != null);
+		if (texto != null) {
+			saida.writeUTF(texto);
+		}
+	}
+
+	private static String lerTexto(DataInputStream entrada) throws IOException {
+		return entrada.readBoolean() ? entrada.readUTF() : null;
+	}
+
+}
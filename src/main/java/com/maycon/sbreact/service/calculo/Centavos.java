@@ -0,0 +1,45 @@
+package com.maycon.sbreact.service.calculo;
+
+import java.math.BigDecimal;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+/**
+ * Valores monetários em centavos num {@code long}, a escala exata das colunas
+ * {@code numeric(16,2)}. Somas e agregações em memória acumulam centavos em
+ * primitivos; o {@link BigDecimal} fica na leitura das entidades e consultas e
+ * na gravação e serialização do resultado.
+ */
+public final class Centavos {
+
+	public static final int ESCALA = 2;
+
+	private Centavos() {
+	}
+
+	/**
+	 * @throws ArithmeticException se o valor tiver mais de duas casas decimais
+	 */
+	public static long de(BigDecimal valor) {
+		return valor == null ? 0 : valor.movePointRight(ESCALA).longValueExact();
+	}
+
+	public static BigDecimal paraBigDecimal(long centavos) {
+		return BigDecimal.valueOf(centavos, ESCALA);
+	}
+
+	/**
+	 * Efeito do lançamento no saldo: receitas somam, despesas subtraem e só os
+	 * efetivados contam.
+	 */
+	public static long contribuicao(TipoLancamento tipo, StatusLancamento status, BigDecimal valor) {
+		if (status != StatusLancamento.EFETIVADO || valor == null) {
+			return 0;
+		}
+
+		long centavos = de(valor);
+		return tipo == TipoLancamento.DESPESA ? -centavos : centavos;
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.maycon.sbreact.service.concorrencia;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Faz chamadas concorrentes com a mesma chave compartilharem uma única execução:
+ * a primeira executa a computação na própria thread e as demais aguardam o mesmo
+ * {@link CompletableFuture}. Não há trava global; a disputa por uma chave fica
+ * restrita ao segmento do {@link ConcurrentHashMap} que a contém.
+ *
+ * Nada é guardado depois que a execução termina, então isto não é um cache: só
+ * quem chega enquanto a execução está em andamento recebe o mesmo resultado.
+ */
+public class ChamadaCompartilhada<K, V> {
+
+	public static final String METRICA = "financas.chamadas";
+
+	private final ConcurrentMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+
+	private final Counter executadas;
+	private final Counter compartilhadas;
+
+	public ChamadaCompartilhada(String operacao, MeterRegistry registry) {
+		this.executadas = contador(operacao, "executada", registry);
+		this.compartilhadas = contador(operacao, "compartilhada", registry);
+	}
+
+	public V executar(K chave, Supplier<V> computacao) {
+		CompletableFuture<V> execucao = new CompletableFuture<>();
+		CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, execucao);
+		if (existente != null) {
+			compartilhadas.increment();
+			return aguardar(existente);
+		}
+
+		executadas.increment();
+		try {
+			V resultado = computacao.get();
+			execucao.complete(resultado);
+			return resultado;
+		} catch (RuntimeException | Error e) {
+			execucao.completeExceptionally(e);
+			throw e;
+		} finally {
+			emAndamento.remove(chave, execucao);
+		}
+	}
+
+	/**
+	 * Faz as próximas chamadas com a chave iniciarem uma nova execução. Quem já
+	 * aguarda a execução em andamento continua recebendo o resultado dela.
+	 */
+	public void descartar(K chave) {
+		emAndamento.remove(chave);
+	}
+
+	private static <V> V aguardar(CompletableFuture<V> execucao) {
+		try {
+			return execucao.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static Counter contador(String operacao, String resultado, MeterRegistry registry) {
+		return Counter.builder(METRICA)
+				.tag("operacao", operacao)
+				.tag("resultado", resultado)
+				.register(registry);
+	}
+
+}
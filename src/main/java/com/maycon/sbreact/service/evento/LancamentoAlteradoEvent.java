@@ -0,0 +1,19 @@
+package com.maycon.sbreact.service.evento;
+
+import com.maycon.sbreact.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Publicado pelo LancamentoService a cada lançamento criado, alterado ou
+ * removido. Anterior é nulo na criação e atual é nulo na remoção.
+ */
+@Data
+@AllArgsConstructor
+public class LancamentoAlteradoEvent {
+
+	private final Lancamento anterior;
+	private final Lancamento atual;
+
+}
@@ -0,0 +1,19 @@
+package com.maycon.sbreact.service.evento;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Publicado nas gravações em lote que não geram um
+ * {@link LancamentoAlteradoEvent} por lançamento: as alterações de status em
+ * lote e o arquivamento de um ano.
+ */
+@Data
+@AllArgsConstructor
+public class LancamentosAlteradosEmLoteEvent {
+
+	private final List<Long> idsUsuario;
+
+}
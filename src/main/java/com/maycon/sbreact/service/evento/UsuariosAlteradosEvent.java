@@ -0,0 +1,18 @@
+package com.maycon.sbreact.service.evento;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Publicado pelo LancamentoService a cada gravação, inclusive as alterações de
+ * status em lote, com os usuários cujo saldo ou lançamentos podem ter mudado.
+ */
+@Data
+@AllArgsConstructor
+public class UsuariosAlteradosEvent {
+
+	private final List<Long> idsUsuario;
+
+}
@@ -0,0 +1,125 @@
+package com.maycon.sbreact.service.impl;
+
+import java.time.Year;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.consulta.AnoUsuario;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.LancamentoArquivado;
+import com.maycon.sbreact.model.repository.LancamentoArquivadoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.ArquivoLancamentoService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+import com.maycon.sbreact.service.arquivo.FormatoArquivo;
+import com.maycon.sbreact.service.calculo.Centavos;
+import com.maycon.sbreact.service.evento.LancamentosAlteradosEmLoteEvent;
+
+/**
+ * Os anos anteriores aos últimos {@code financas.arquivo.anos-abertos} ficam
+ * fechados: não aceitam novos lançamentos nem alterações e são levados ao
+ * arquivo. Com zero, o padrão, nenhum ano é fechado.
+ */
+@Service
+public class ArquivoLancamentoServiceImpl implements ArquivoLancamentoService {
+
+	private LancamentoArquivadoRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private VersaoUsuarioService versaoUsuarioService;
+	private ApplicationEventPublisher eventPublisher;
+	private int anosAbertos;
+
+	public ArquivoLancamentoServiceImpl(LancamentoArquivadoRepository repository,
+			LancamentoRepository lancamentoRepository, VersaoUsuarioService versaoUsuarioService,
+			ApplicationEventPublisher eventPublisher, @Value("${financas.arquivo.anos-abertos:0}") int anosAbertos) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.versaoUsuarioService = versaoUsuarioService;
+		this.eventPublisher = eventPublisher;
+		this.anosAbertos = anosAbertos;
+	}
+
+	@Override
+	public boolean anoFechado(Integer ano) {
+		return ano != null && ano < primeiroAnoAberto();
+	}
+
+	@Override
+	public int primeiroAnoAberto() {
+		return anosAbertos > 0 ? ultimoAnoFechado() + 1 : Integer.MIN_VALUE;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<AnoUsuario> listarPendentes() {
+		if (anosAbertos <= 0) {
+			return Collections.emptyList();
+		}
+		return lancamentoRepository.listarAnosAte(ultimoAnoFechado());
+	}
+
+	/**
+	 * Move os lançamentos do ano do usuário para o arquivo. O saldo consolidado
+	 * e o resumo mensal não mudam; a versão do usuário muda porque a listagem
+	 * deixa de trazer esses lançamentos. As linhas ficam travadas da leitura à
+	 * exclusão, para que nenhuma alteração em andamento se perca.
+	 */
+	@Override
+	@Transactional
+	public int arquivar(Long idUsuario, Integer ano) {
+		List<Lancamento> lancamentos = lancamentoRepository.travarPorUsuarioEAno(idUsuario, ano);
+		if (lancamentos.isEmpty()) {
+			return 0;
+		}
+
+		long saldo = 0;
+		for (Lancamento lancamento : lancamentos) {
+			saldo += Centavos.contribuicao(lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+		}
+
+		Optional<LancamentoArquivado> existente = repository.findById(new LancamentoArquivado.Chave(idUsuario, ano));
+		if (existente.isPresent()) {
+			// o ano foi reaberto ao aumentar financas.arquivo.anos-abertos e fechado de novo
+			List<Lancamento> arquivados = FormatoArquivo.decodificar(existente.get().getConteudo(), idUsuario, ano);
+			arquivados.addAll(lancamentos);
+			lancamentos = arquivados;
+			saldo += Centavos.de(existente.get().getSaldo());
+		}
+
+		repository.save(LancamentoArquivado.builder()
+				.idUsuario(idUsuario)
+				.ano(ano)
+				.quantidade(lancamentos.size())
+				.saldo(Centavos.paraBigDecimal(saldo))
+				.conteudo(FormatoArquivo.codificar(lancamentos))
+				.build());
+		int excluidos = lancamentoRepository.excluirPorUsuarioEAno(idUsuario, ano);
+		versaoUsuarioService.incrementar(Collections.singletonList(idUsuario));
+		eventPublisher.publishEvent(new LancamentosAlteradosEmLoteEvent(Collections.singletonList(idUsuario)));
+		return excluidos;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Integer> listarAnosArquivados(Long idUsuario) {
+		return repository.listarAnos(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<List<Lancamento>> listarArquivados(Long idUsuario, Integer ano) {
+		return repository.findById(new LancamentoArquivado.Chave(idUsuario, ano))
+				.map(arquivo -> FormatoArquivo.decodificar(arquivo.getConteudo(), idUsuario, ano));
+	}
+
+	private int ultimoAnoFechado() {
+		return Year.now().getValue() - anosAbertos;
+	}
+
+}
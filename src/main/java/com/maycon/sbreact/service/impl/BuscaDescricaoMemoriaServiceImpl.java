@@ -0,0 +1,244 @@
+package com.maycon.sbreact.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.maycon.sbreact.model.consulta.DescricaoLancamento;
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.BuscaDescricaoService;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+
+/**
+ * Busca por trigramas mantida em memória, usada no perfil de testes (H2), onde
+ * não há pg_trgm. Segue a mesma semântica da busca no PostgreSQL: o índice de
+ * cada usuário é carregado na primeira busca e mantido pelos eventos de
+ * alteração de lançamentos.
+ */
+@Service
+@Profile("test")
+public class BuscaDescricaoMemoriaServiceImpl implements BuscaDescricaoService {
+
+	/**
+	 * Mesmo padrão de pg_trgm.word_similarity_threshold.
+	 */
+	static final double SIMILARIDADE_MINIMA = 0.6;
+
+	private final Map<Long, IndiceUsuario> indices = new ConcurrentHashMap<>();
+
+	private LancamentoRepository repository;
+
+	public BuscaDescricaoMemoriaServiceImpl(LancamentoRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Lancamento> buscar(Long idUsuario, String termo, ModoBusca modo, int limite) {
+		IndiceUsuario indice = indices.computeIfAbsent(idUsuario, id -> new IndiceUsuario());
+		indice.carregarSeNecessario(() -> repository.listarDescricoes(idUsuario));
+
+		String normalizado = normalizar(termo);
+		List<Long> ids = modo == ModoBusca.APROXIMADO ? indice.buscarAproximado(normalizado, limite)
+				: indice.buscarPrefixo(normalizado, limite);
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, Lancamento> lancamentos = repository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Lancamento::getId, Function.identity()));
+		return ids.stream().map(lancamentos::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarLancamento(LancamentoAlteradoEvent evento) {
+		if (evento.getAnterior() != null) {
+			IndiceUsuario indice = indices.get(evento.getAnterior().getUsuario().getId());
+			if (indice != null) {
+				indice.remover(evento.getAnterior().getId());
+			}
+		}
+
+		if (evento.getAtual() != null) {
+			IndiceUsuario indice = indices.get(evento.getAtual().getUsuario().getId());
+			if (indice != null) {
+				indice.adicionar(evento.getAtual().getId(), evento.getAtual().getDescricao());
+			}
+		}
+	}
+
+	static String normalizar(String texto) {
+		return texto == null ? "" : texto.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Trigramas no formato do pg_trgm: cada palavra recebe dois espaços à
+	 * esquerda e um à direita.
+	 */
+	static Set<String> trigramas(String texto) {
+		Set<String> trigramas = new LinkedHashSet<>();
+		for (String palavra : palavras(texto)) {
+			adicionarTrigramas(trigramas, "  " + palavra + " ");
+		}
+		return trigramas;
+	}
+
+	/**
+	 * Trigramas que toda descrição com alguma palavra iniciada pelo termo possui:
+	 * a última palavra do termo pode estar incompleta.
+	 */
+	static Set<String> trigramasPrefixo(String termo) {
+		Set<String> trigramas = new LinkedHashSet<>();
+		List<String> palavras = palavras(termo);
+		for (int i = 0; i < palavras.size(); i++) {
+			boolean ultima = i == palavras.size() - 1;
+			adicionarTrigramas(trigramas, "  " + palavras.get(i) + (ultima ? "" : " "));
+		}
+		return trigramas;
+	}
+
+	private static List<String> palavras(String texto) {
+		List<String> palavras = new ArrayList<>();
+		int inicio = -1;
+		for (int i = 0; i <= texto.length(); i++) {
+			boolean letra = i < texto.length() && Character.isLetterOrDigit(texto.charAt(i));
+			if (letra && inicio < 0) {
+				inicio = i;
+			} else if (!letra && inicio >= 0) {
+				palavras.add(texto.substring(inicio, i));
+				inicio = -1;
+			}
+		}
+		return palavras;
+	}
+
+	private static void adicionarTrigramas(Set<String> trigramas, String palavra) {
+		for (int i = 0; i + 3 <= palavra.length(); i++) {
+			trigramas.add(palavra.substring(i, i + 3));
+		}
+	}
+
+	private static class IndiceUsuario {
+
+		private final Map<Long, String> descricoes = new HashMap<>();
+		private final Map<String, Set<Long>> ocorrencias = new HashMap<>();
+		private boolean carregado;
+
+		synchronized void carregarSeNecessario(Supplier<List<DescricaoLancamento>> carga) {
+			if (carregado) {
+				return;
+			}
+			for (DescricaoLancamento descricao : carga.get()) {
+				adicionar(descricao.getId(), descricao.getDescricao());
+			}
+			carregado = true;
+		}
+
+		synchronized void adicionar(Long id, String descricao) {
+			remover(id);
+			String normalizada = normalizar(descricao);
+			descricoes.put(id, normalizada);
+			for (String trigrama : trigramas(normalizada)) {
+				ocorrencias.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+			}
+		}
+
+		synchronized void remover(Long id) {
+			String descricao = descricoes.remove(id);
+			if (descricao == null) {
+				return;
+			}
+			for (String trigrama : trigramas(descricao)) {
+				Set<Long> ids = ocorrencias.get(trigrama);
+				if (ids != null && ids.remove(id) && ids.isEmpty()) {
+					ocorrencias.remove(trigrama);
+				}
+			}
+		}
+
+		synchronized List<Long> buscarPrefixo(String termo, int limite) {
+			Set<String> trigramas = trigramasPrefixo(termo);
+			if (trigramas.isEmpty()) {
+				return Collections.emptyList();
+			}
+
+			List<Set<Long>> listas = new ArrayList<>();
+			for (String trigrama : trigramas) {
+				Set<Long> ids = ocorrencias.get(trigrama);
+				if (ids == null) {
+					return Collections.emptyList();
+				}
+				listas.add(ids);
+			}
+			listas.sort(Comparator.comparingInt(Set::size));
+
+			String prefixoPalavra = " " + termo;
+			List<Long> encontrados = new ArrayList<>();
+			for (Long id : listas.get(0)) {
+				if (!contidoEmTodas(id, listas)) {
+					continue;
+				}
+				String descricao = descricoes.get(id);
+				if (descricao.startsWith(termo) || descricao.contains(prefixoPalavra)) {
+					encontrados.add(id);
+				}
+			}
+
+			encontrados.sort(Comparator.<Long, String>comparing(descricoes::get).thenComparing(id -> id));
+			return encontrados.size() > limite ? encontrados.subList(0, limite) : encontrados;
+		}
+
+		synchronized List<Long> buscarAproximado(String termo, int limite) {
+			Set<String> trigramas = trigramas(termo);
+			if (trigramas.isEmpty()) {
+				return Collections.emptyList();
+			}
+
+			Map<Long, Integer> coincidencias = new HashMap<>();
+			for (String trigrama : trigramas) {
+				for (Long id : ocorrencias.getOrDefault(trigrama, Collections.emptySet())) {
+					coincidencias.merge(id, 1, Integer::sum);
+				}
+			}
+
+			int minimo = (int) Math.ceil(trigramas.size() * SIMILARIDADE_MINIMA);
+			return coincidencias.entrySet().stream()
+					.filter(entrada -> entrada.getValue() >= minimo)
+					.sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+							.thenComparing(Map.Entry.comparingByKey()))
+					.limit(limite)
+					.map(Map.Entry::getKey)
+					.collect(Collectors.toList());
+		}
+
+		private static boolean contidoEmTodas(Long id, List<Set<Long>> listas) {
+			for (int i = 1; i < listas.size(); i++) {
+				if (!listas.get(i).contains(id)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.maycon.sbreact.service.impl;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.BuscaDescricaoService;
+
+/**
+ * Busca servida pelo índice GIN de trigramas (pg_trgm) sobre lower(descricao),
+ * criado em db/migracao/003_busca_descricao.sql.
+ */
+@Service
+@Profile("!test")
+public class BuscaDescricaoTrigramaServiceImpl implements BuscaDescricaoService {
+
+	private LancamentoRepository repository;
+
+	public BuscaDescricaoTrigramaServiceImpl(LancamentoRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Lancamento> buscar(Long idUsuario, String termo, ModoBusca modo, int limite) {
+		String normalizado = termo.trim().toLowerCase();
+		if (modo == ModoBusca.APROXIMADO) {
+			return repository.buscarPorDescricaoAproximada(idUsuario, normalizado, limite);
+		}
+
+		String escapado = normalizado.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return repository.buscarPorPrefixoDescricao(idUsuario, escapado, limite);
+	}
+
+}
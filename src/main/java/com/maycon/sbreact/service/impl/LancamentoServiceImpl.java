@@ -1,31 +1,70 @@
 package com.maycon.sbreact.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.Pagina;
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
 import com.maycon.sbreact.model.entity.Lancamento;
 import com.maycon.sbreact.model.entity.enums.StatusLancamento;
-import com.maycon.sbreact.model.entity.enums.TipoLancamento;
 import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.ArquivoLancamentoService;
 import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.ResumoMensalService;
+import com.maycon.sbreact.service.SaldoUsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+import com.maycon.sbreact.service.calculo.Centavos;
+import com.maycon.sbreact.service.concorrencia.ChamadaCompartilhada;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+import com.maycon.sbreact.service.evento.LancamentosAlteradosEmLoteEvent;
+import com.maycon.sbreact.service.evento.UsuariosAlteradosEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
+	static final int TAMANHO_PAGINA_PADRAO = 50;
+	static final int TAMANHO_PAGINA_MAXIMO = 500;
+
 	private LancamentoRepository repository;
+	private SaldoUsuarioService saldoUsuarioService;
+	private ResumoMensalService resumoMensalService;
+	private VersaoUsuarioService versaoUsuarioService;
+	private ArquivoLancamentoService arquivoLancamentoService;
+	private ApplicationEventPublisher eventPublisher;
+	private ChamadaCompartilhada<Long, BigDecimal> saldosEmAndamento;
 
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	public LancamentoServiceImpl(LancamentoRepository repository, SaldoUsuarioService saldoUsuarioService,
+			ResumoMensalService resumoMensalService, VersaoUsuarioService versaoUsuarioService,
+			ArquivoLancamentoService arquivoLancamentoService, ApplicationEventPublisher eventPublisher,
+			MeterRegistry registry) {
 		this.repository = repository;
+		this.saldoUsuarioService = saldoUsuarioService;
+		this.resumoMensalService = resumoMensalService;
+		this.versaoUsuarioService = versaoUsuarioService;
+		this.arquivoLancamentoService = arquivoLancamentoService;
+		this.eventPublisher = eventPublisher;
+		this.saldosEmAndamento = new ChamadaCompartilhada<>("saldo", registry);
 	}
 
 	@Override
@@ -33,37 +72,183 @@ public class LancamentoServiceImpl implements LancamentoService {
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento salvo = repository.save(lancamento);
+		saldoUsuarioService.registrarAlteracao(null, salvo);
+		resumoMensalService.registrarAlteracao(null, salvo);
+		registrarAlteracaoUsuarios(idsUsuario(Stream.of(salvo)));
+		eventPublisher.publishEvent(new LancamentoAlteradoEvent(null, salvo));
+		return salvo;
+	}
+
+	@Override
+	@Transactional
+	public List<Lancamento> salvarLote(List<Lancamento> lancamentos) {
+		for (int i = 0; i < lancamentos.size(); i++) {
+			try {
+				validar(lancamentos.get(i));
+			} catch (RegraNegocioException e) {
+				throw new RegraNegocioException("Lançamento " + (i + 1) + ": " + e.getMessage());
+			}
+			lancamentos.get(i).setStatus(StatusLancamento.PENDENTE);
+		}
+
+		// lançamentos pendentes não alteram o saldo consolidado
+		repository.salvarEmLote(lancamentos);
+		resumoMensalService.registrarInclusao(lancamentos);
+		registrarAlteracaoUsuarios(idsUsuario(lancamentos.stream()));
+		lancamentos.forEach(lancamento -> eventPublisher.publishEvent(new LancamentoAlteradoEvent(null, lancamento)));
+		return lancamentos;
 	}
 
+	/**
+	 * O estado anterior, de onde saem as variações do saldo e do resumo, é lido
+	 * pelo id. O lançamento recebido não pode ser a instância gerenciada já
+	 * alterada: a leitura devolveria essa mesma instância e a variação seria zero.
+	 */
 	@Override
 	@Transactional
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		Lancamento anterior = repository.findById(lancamento.getId()).map(l -> l.toBuilder().build()).orElse(null);
+		if (anterior != null) {
+			verificarAnoAberto(anterior.getAno());
+		}
+		if (lancamento.getVersao() == null && anterior != null) {
+			// sem versão o Spring Data trataria o lançamento como novo
+			lancamento.setVersao(anterior.getVersao());
+		}
+		Lancamento atualizado = repository.save(lancamento);
+		saldoUsuarioService.registrarAlteracao(anterior, atualizado);
+		resumoMensalService.registrarAlteracao(anterior, atualizado);
+		registrarAlteracaoUsuarios(idsUsuario(Stream.of(anterior, atualizado)));
+		eventPublisher.publishEvent(new LancamentoAlteradoEvent(anterior, atualizado));
+		return atualizado;
+	}
+
+	/**
+	 * Aplica ao lançamento apenas os campos não nulos de {@code alteracoes}. O
+	 * lançamento é lido uma única vez e o {@code @DynamicUpdate} faz o flush emitir
+	 * um só UPDATE das colunas alteradas, condicionado à versão lida; uma gravação
+	 * concorrente entre a leitura e o flush também resulta em
+	 * {@link OptimisticLockingFailureException}.
+	 */
+	@Override
+	@Transactional
+	public Optional<Lancamento> atualizarParcial(Long id, Long versao, Lancamento alteracoes) {
+		Optional<Lancamento> encontrado = repository.findById(id);
+		if (!encontrado.isPresent()) {
+			return Optional.empty();
+		}
+
+		Lancamento lancamento = encontrado.get();
+		if (!lancamento.getVersao().equals(versao)) {
+			throw new OptimisticLockingFailureException("Versão " + versao + " do lançamento " + id
+					+ " desatualizada; a versão atual é " + lancamento.getVersao() + ".");
+		}
+
+		verificarAnoAberto(lancamento.getAno());
+		Lancamento anterior = lancamento.toBuilder().build();
+		aplicarAlteracoes(lancamento, alteracoes);
+		validar(lancamento);
+		repository.flush();
+
+		saldoUsuarioService.registrarAlteracao(anterior, lancamento);
+		resumoMensalService.registrarAlteracao(anterior, lancamento);
+		registrarAlteracaoUsuarios(idsUsuario(Stream.of(anterior, lancamento)));
+		eventPublisher.publishEvent(new LancamentoAlteradoEvent(anterior, lancamento));
+		return Optional.of(lancamento);
 	}
 
 	@Override
 	@Transactional
 	public void deletarLancamento(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		Lancamento anterior = repository.findById(lancamento.getId()).orElse(lancamento);
+		verificarAnoAberto(anterior.getAno());
 		repository.delete(lancamento);
+		saldoUsuarioService.registrarAlteracao(anterior, null);
+		resumoMensalService.registrarAlteracao(anterior, null);
+		registrarAlteracaoUsuarios(idsUsuario(Stream.of(anterior)));
+		eventPublisher.publishEvent(new LancamentoAlteradoEvent(anterior, null));
+	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoProjecao> buscar(Lancamento lancamentoFiltro, Set<CampoLancamento> campos) {
+		return repository.buscar(lancamentoFiltro, campos);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-		Example example = Example.of(lancamentoFiltro,
-				ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
+	public Pagina<LancamentoProjecao> buscarPagina(Lancamento lancamentoFiltro, CursorLancamento cursor, boolean decrescente,
+			Integer tamanho, Set<CampoLancamento> campos) {
+		int tamanhoPagina = tamanho == null || tamanho < 1 ? TAMANHO_PAGINA_PADRAO
+				: Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+
+		List<LancamentoProjecao> lancamentos = repository.buscarPagina(lancamentoFiltro, cursor, decrescente,
+				tamanhoPagina + 1, campos);
+		if (lancamentos.size() <= tamanhoPagina) {
+			return new Pagina<>(lancamentos, null);
+		}
+
+		List<LancamentoProjecao> conteudo = lancamentos.subList(0, tamanhoPagina);
+		String proximoCursor = CursorLancamento.de(conteudo.get(tamanhoPagina - 1)).codificar();
+		return new Pagina<>(new ArrayList<>(conteudo), proximoCursor);
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public void exportar(Long idUsuario, Consumer<LancamentoProjecao> consumidor) {
+		try (Stream<LancamentoProjecao> lancamentos = repository.streamPorUsuario(idUsuario)) {
+			lancamentos.forEach(consumidor);
+		}
+	}
+
+	@Override
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
-		lancamento.setStatus(status);
-		atualizar(lancamento);
+		atualizar(lancamento.toBuilder().status(status).build());
+	}
+
+	/**
+	 * Os lançamentos de anos fechados ficam de fora, como os de status que não
+	 * permitem a transição.
+	 */
+	@Override
+	@Transactional
+	public int atualizarStatusEmLote(List<Long> ids, StatusLancamento status) {
+		Set<StatusLancamento> origens = status.origensPermitidas();
+		List<Long> travados = repository.travarPorIds(ids, arquivoLancamentoService.primeiroAnoAberto(), origens);
+		return atualizarStatusTravados(travados, status, origens);
+	}
+
+	@Override
+	@Transactional
+	public int atualizarStatusPorPeriodo(Long idUsuario, Integer ano, Integer mes, StatusLancamento status) {
+		verificarAnoAberto(ano);
+		Set<StatusLancamento> origens = status.origensPermitidas();
+		return atualizarStatusTravados(repository.travarPorPeriodo(idUsuario, ano, mes, origens), status, origens);
+	}
+
+	/**
+	 * Os lançamentos chegam travados: uma gravação concorrente não muda o status
+	 * entre a totalização e o UPDATE, e o saldo e o resumo recebem exatamente as
+	 * linhas alteradas.
+	 */
+	private int atualizarStatusTravados(List<Long> travados, StatusLancamento status, Set<StatusLancamento> origens) {
+		if (travados.isEmpty()) {
+			return 0;
+		}
+
+		List<TotalLancamentos> totais = repository.totalizarPorIds(travados, origens);
+		int atualizados = repository.atualizarStatusPorIds(travados, status, origens);
+		saldoUsuarioService.registrarTransicao(totais, status);
+		resumoMensalService.registrarTransicao(totais, status);
+		List<Long> idsUsuario = idsUsuario(totais);
+		registrarAlteracaoUsuarios(idsUsuario);
+		eventPublisher.publishEvent(new LancamentosAlteradosEmLoteEvent(idsUsuario));
+		return atualizados;
 	}
 
 	@Override
@@ -89,32 +274,107 @@ public class LancamentoServiceImpl implements LancamentoService {
 			throw new RegraNegocioException("Informe um valor válido.");
 		}
 
+		if (lancamento.getValor().stripTrailingZeros().scale() > Centavos.ESCALA) {
+			throw new RegraNegocioException("Informe um valor com no máximo duas casas decimais.");
+		}
+
 		if (lancamento.getTipo() == null) {
 			throw new RegraNegocioException("Informe um tipo de lançamento.");
 		}
 
+		verificarAnoAberto(lancamento.getAno());
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Lancamento> obterPorId(Long id) {
 		return repository.findById(id);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<LancamentoProjecao> obterProjecaoPorId(Long id, Set<CampoLancamento> campos) {
+		return repository.obterProjecaoPorId(id, campos);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Long> obterVersao(Long id) {
+		return repository.obterVersao(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> listarIdsUsuario(List<Long> ids) {
+		return repository.listarIdsUsuario(ids);
+	}
+
+	/**
+	 * Chamadas simultâneas para o mesmo usuário, comuns quando o aplicativo está
+	 * aberto em mais de um dispositivo, compartilham uma única consulta. Fica fora
+	 * de transação para que quem aguarda não ocupe uma conexão por isso.
+	 */
 	@Override
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obtserSaldoPorTipoLancamentoEusuarioEStatus(id, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
-		BigDecimal despesas = repository.obtserSaldoPorTipoLancamentoEusuarioEStatus(id, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
-		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
-		}
-		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
-		}
-		
-		
-		return receitas.subtract(despesas);
+		return saldosEmAndamento.executar(id, () -> saldoUsuarioService.obterSaldo(id));
+	}
+
+	private void verificarAnoAberto(Integer ano) {
+		if (arquivoLancamentoService.anoFechado(ano)) {
+			throw new RegraNegocioException("O ano informado está fechado e não aceita lançamentos.");
+		}
+	}
+
+	private void registrarAlteracaoUsuarios(List<Long> idsUsuario) {
+		versaoUsuarioService.incrementar(idsUsuario);
+		eventPublisher.publishEvent(new UsuariosAlteradosEvent(idsUsuario));
+		// quem pedir o saldo após o commit não deve receber uma consulta iniciada antes dele
+		Runnable descartarSaldos = () -> idsUsuario.forEach(saldosEmAndamento::descartar);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			descartarSaldos.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				descartarSaldos.run();
+			}
+		});
+	}
+
+	private static void aplicarAlteracoes(Lancamento lancamento, Lancamento alteracoes) {
+		if (alteracoes.getDescricao() != null) {
+			lancamento.setDescricao(alteracoes.getDescricao());
+		}
+		if (alteracoes.getMes() != null) {
+			lancamento.setMes(alteracoes.getMes());
+		}
+		if (alteracoes.getAno() != null) {
+			lancamento.setAno(alteracoes.getAno());
+		}
+		if (alteracoes.getValor() != null) {
+			lancamento.setValor(alteracoes.getValor());
+		}
+		if (alteracoes.getUsuario() != null) {
+			lancamento.setUsuario(alteracoes.getUsuario());
+		}
+		if (alteracoes.getTipo() != null) {
+			lancamento.setTipo(alteracoes.getTipo());
+		}
+		if (alteracoes.getStatus() != null) {
+			lancamento.setStatus(alteracoes.getStatus());
+		}
+	}
+
+	private static List<Long> idsUsuario(Stream<Lancamento> lancamentos) {
+		return lancamentos
+				.filter(lancamento -> lancamento != null && lancamento.getUsuario() != null)
+				.map(lancamento -> lancamento.getUsuario().getId())
+				.collect(Collectors.toList());
+	}
+
+	private static List<Long> idsUsuario(List<TotalLancamentos> totais) {
+		return totais.stream().map(TotalLancamentos::getIdUsuario).collect(Collectors.toList());
 	}
 
 
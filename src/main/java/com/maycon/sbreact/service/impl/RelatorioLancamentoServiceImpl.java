@@ -0,0 +1,112 @@
+package com.maycon.sbreact.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.RelatorioLancamentoService;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+import com.maycon.sbreact.service.evento.LancamentosAlteradosEmLoteEvent;
+import com.maycon.sbreact.service.relatorio.ColunasLancamentos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Relatórios calculados sobre uma cópia em colunas dos lançamentos de cada
+ * usuário, carregada na primeira consulta e mantida pelos eventos de gravação.
+ * As cópias saem da memória pela menos usada quando o total estimado passa de
+ * {@code financas.relatorio.memoria-maxima}, e são recarregadas após
+ * {@code financas.relatorio.validade} para corrigir qualquer divergência.
+ *
+ * Cobrem os lançamentos ativos; os anos arquivados ficam de fora.
+ */
+@Service
+public class RelatorioLancamentoServiceImpl implements RelatorioLancamentoService {
+
+	static final String CACHE = "relatorios";
+
+	private final Cache<Long, ColunasLancamentos> colunas;
+
+	private LancamentoRepository repository;
+	private int limiarParalelo;
+
+	public RelatorioLancamentoServiceImpl(LancamentoRepository repository, MeterRegistry registry,
+			@Value("${financas.relatorio.memoria-maxima:64MB}") String memoriaMaxima,
+			@Value("${financas.relatorio.validade:PT10M}") String validade,
+			@Value("${financas.relatorio.limiar-paralelo:100000}") int limiarParalelo) {
+		this.repository = repository;
+		this.limiarParalelo = limiarParalelo;
+		this.colunas = Caffeine.newBuilder()
+				.maximumWeight(DataSize.parse(memoriaMaxima).toBytes())
+				.<Long, ColunasLancamentos>weigher(
+						(idUsuario, doUsuario) -> (int) Math.min(doUsuario.bytes(), Integer.MAX_VALUE))
+				.expireAfterWrite(Duration.parse(validade))
+				.recordStats()
+				.build();
+		// mesmas chaves de tag das métricas de cache do actuator, exigidas pelo Prometheus
+		CaffeineCacheMetrics.monitor(registry, colunas, CACHE, Tags.of("cacheManager", "relatorios", "name", CACHE));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LinhaRelatorio> agrupar(Long idUsuario, FiltroRelatorio filtro, Agrupamento agrupamento, int limite) {
+		ColunasLancamentos doUsuario = colunas.get(idUsuario, id -> new ColunasLancamentos());
+		if (doUsuario.carregarSeNecessario(() -> repository.streamLinhasPorUsuario(idUsuario))) {
+			repesar(idUsuario, doUsuario);
+		}
+		return doUsuario.agrupar(filtro, agrupamento, limite, limiarParalelo);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarLancamento(LancamentoAlteradoEvent evento) {
+		Lancamento anterior = evento.getAnterior();
+		Lancamento atual = evento.getAtual();
+		if (anterior != null && (atual == null || !anterior.getUsuario().getId().equals(atual.getUsuario().getId()))) {
+			ColunasLancamentos doUsuario = colunas.getIfPresent(anterior.getUsuario().getId());
+			if (doUsuario != null) {
+				doUsuario.remover(anterior.getId());
+			}
+		}
+
+		if (atual != null) {
+			ColunasLancamentos doUsuario = colunas.getIfPresent(atual.getUsuario().getId());
+			if (doUsuario != null) {
+				doUsuario.gravar(new LinhaLancamento(atual.getId(), atual.getDescricao(), atual.getMes(),
+						atual.getAno(), atual.getValor(), atual.getTipo(), atual.getStatus(), atual.getVersao()));
+				repesar(atual.getUsuario().getId(), doUsuario);
+			}
+		}
+	}
+
+	/**
+	 * Gravações em lote não informam os lançamentos alterados; a cópia do usuário
+	 * é descartada e recarregada na próxima consulta.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void aoAlterarEmLote(LancamentosAlteradosEmLoteEvent evento) {
+		colunas.invalidateAll(evento.getIdsUsuario());
+	}
+
+	/**
+	 * O peso de uma entrada só é calculado quando ela é gravada no cache.
+	 */
+	private void repesar(Long idUsuario, ColunasLancamentos doUsuario) {
+		colunas.asMap().replace(idUsuario, doUsuario, doUsuario);
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.maycon.sbreact.service.impl;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.ResumoMensal;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.ResumoMensalRepository;
+import com.maycon.sbreact.service.ResumoMensalService;
+import com.maycon.sbreact.service.calculo.Centavos;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+	private ResumoMensalRepository repository;
+	private LancamentoRepository lancamentoRepository;
+
+	public ResumoMensalServiceImpl(ResumoMensalRepository repository, LancamentoRepository lancamentoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(Lancamento anterior, Lancamento atual) {
+		Map<ResumoMensal.Chave, Variacao> variacoes = new LinkedHashMap<>();
+		if (anterior != null) {
+			acumular(variacoes, chave(anterior), -centavos(anterior), -1);
+		}
+		if (atual != null) {
+			acumular(variacoes, chave(atual), centavos(atual), 1);
+		}
+		variacoes.forEach(this::aplicar);
+	}
+
+	@Override
+	@Transactional
+	public void registrarInclusao(List<Lancamento> lancamentos) {
+		Map<ResumoMensal.Chave, Variacao> variacoes = new LinkedHashMap<>();
+		for (Lancamento lancamento : lancamentos) {
+			acumular(variacoes, chave(lancamento), centavos(lancamento), 1);
+		}
+		variacoes.forEach(this::aplicar);
+	}
+
+	@Override
+	@Transactional
+	public void registrarTransicao(List<TotalLancamentos> totais, StatusLancamento novoStatus) {
+		Map<ResumoMensal.Chave, Variacao> variacoes = new LinkedHashMap<>();
+		for (TotalLancamentos total : totais) {
+			acumular(variacoes, new ResumoMensal.Chave(total.getIdUsuario(), total.getAno(), total.getMes(),
+					total.getTipo(), total.getStatus()), -Centavos.de(total.getValor()), -total.getQuantidade());
+			acumular(variacoes, new ResumoMensal.Chave(total.getIdUsuario(), total.getAno(), total.getMes(),
+					total.getTipo(), novoStatus), Centavos.de(total.getValor()), total.getQuantidade());
+		}
+		variacoes.forEach(this::aplicar);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ResumoMensal> listar(Long idUsuario, Integer ano) {
+		return repository.listarPorAno(idUsuario, ano);
+	}
+
+	@Override
+	@Transactional
+	public void recalcular(Long idUsuario) {
+		repository.excluirPorUsuario(idUsuario);
+		for (TotalLancamentos total : lancamentoRepository.totalizarPorUsuario(idUsuario)) {
+			Variacao variacao = new Variacao();
+			variacao.centavos = Centavos.de(total.getValor());
+			variacao.quantidade = total.getQuantidade();
+			aplicar(new ResumoMensal.Chave(total.getIdUsuario(), total.getAno(), total.getMes(), total.getTipo(),
+					total.getStatus()), variacao);
+		}
+	}
+
+	private void aplicar(ResumoMensal.Chave chave, Variacao variacao) {
+		if (variacao.quantidade == 0 && variacao.centavos == 0) {
+			return;
+		}
+
+		// sem linha para a chave, não há lançamentos anteriores nela; se outra
+		// transação criou a linha entre as duas instruções, a soma é refeita
+		if (somar(chave, variacao) == 0 && repository.inserirSeAusente(chave.getIdUsuario(), chave.getAno(),
+				chave.getMes(), chave.getTipo().name(), chave.getStatus().name(),
+				Centavos.paraBigDecimal(variacao.centavos), variacao.quantidade) == 0) {
+			somar(chave, variacao);
+		}
+	}
+
+	private int somar(ResumoMensal.Chave chave, Variacao variacao) {
+		return repository.somar(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(),
+				chave.getStatus(), Centavos.paraBigDecimal(variacao.centavos), variacao.quantidade);
+	}
+
+	private static void acumular(Map<ResumoMensal.Chave, Variacao> variacoes, ResumoMensal.Chave chave,
+			long centavos, long quantidade) {
+		Variacao variacao = variacoes.computeIfAbsent(chave, c -> new Variacao());
+		variacao.centavos += centavos;
+		variacao.quantidade += quantidade;
+	}
+
+	private static ResumoMensal.Chave chave(Lancamento lancamento) {
+		return new ResumoMensal.Chave(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), lancamento.getStatus());
+	}
+
+	private static long centavos(Lancamento lancamento) {
+		return Centavos.de(lancamento.getValor());
+	}
+
+	private static class Variacao {
+
+		long centavos;
+		long quantidade;
+
+	}
+
+}
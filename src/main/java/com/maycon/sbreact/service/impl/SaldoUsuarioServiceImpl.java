@@ -0,0 +1,156 @@
+package com.maycon.sbreact.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoArquivadoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.SaldoUsuarioRepository;
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+import com.maycon.sbreact.service.SaldoUsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+import com.maycon.sbreact.service.calculo.Centavos;
+
+@Service
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService {
+
+	private SaldoUsuarioRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private LancamentoArquivadoRepository lancamentoArquivadoRepository;
+	private UsuarioRepository usuarioRepository;
+	private VersaoUsuarioService versaoUsuarioService;
+
+	public SaldoUsuarioServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository,
+			LancamentoArquivadoRepository lancamentoArquivadoRepository, UsuarioRepository usuarioRepository,
+			VersaoUsuarioService versaoUsuarioService) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.lancamentoArquivadoRepository = lancamentoArquivadoRepository;
+		this.usuarioRepository = usuarioRepository;
+		this.versaoUsuarioService = versaoUsuarioService;
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(Lancamento anterior, Lancamento atual) {
+		Long usuarioAnterior = idUsuario(anterior);
+		Long usuarioAtual = idUsuario(atual);
+
+		if (usuarioAnterior != null && usuarioAnterior.equals(usuarioAtual)) {
+			aplicar(usuarioAtual, contribuicao(atual) - contribuicao(anterior));
+			return;
+		}
+
+		if (usuarioAnterior != null) {
+			aplicar(usuarioAnterior, -contribuicao(anterior));
+		}
+
+		if (usuarioAtual != null) {
+			aplicar(usuarioAtual, contribuicao(atual));
+		}
+	}
+
+	@Override
+	@Transactional
+	public void registrarTransicao(List<TotalLancamentos> totais, StatusLancamento novoStatus) {
+		Map<Long, long[]> variacoes = new HashMap<>();
+		for (TotalLancamentos total : totais) {
+			long variacao = Centavos.contribuicao(total.getTipo(), novoStatus, total.getValor())
+					- Centavos.contribuicao(total.getTipo(), total.getStatus(), total.getValor());
+			variacoes.computeIfAbsent(total.getIdUsuario(), id -> new long[1])[0] += variacao;
+		}
+		variacoes.forEach((idUsuario, variacao) -> aplicar(idUsuario, variacao[0]));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long idUsuario) {
+		return repository.obterSaldo(idUsuario).orElseGet(() -> calcularPelosLancamentos(idUsuario));
+	}
+
+	@Override
+	@Transactional
+	public BigDecimal recalcular(Long idUsuario) {
+		BigDecimal saldo = calcularPelosLancamentos(idUsuario);
+		if (repository.definirSaldo(idUsuario, saldo) == 0 && repository.inserirSeAusente(idUsuario, saldo) == 0) {
+			// outra transação criou a linha entre as duas instruções
+			repository.definirSaldo(idUsuario, saldo);
+		}
+		// a correção de uma divergência muda o saldo sem passar por uma alteração de lançamento
+		versaoUsuarioService.incrementar(Collections.singletonList(idUsuario));
+		return saldo;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean verificar(Long idUsuario) {
+		BigDecimal calculado = calcularPelosLancamentos(idUsuario);
+		return repository.obterSaldo(idUsuario)
+				.map(saldo -> saldo.compareTo(calculado) == 0)
+				.orElse(calculado.signum() == 0);
+	}
+
+	@Override
+	@Transactional
+	public void recalcularTodos() {
+		usuarioRepository.listarIds().forEach(this::recalcular);
+	}
+
+	private void aplicar(Long idUsuario, long centavos) {
+		if (centavos == 0) {
+			return;
+		}
+
+		BigDecimal valor = Centavos.paraBigDecimal(centavos);
+		if (repository.somarAoSaldo(idUsuario, valor) > 0) {
+			return;
+		}
+
+		// primeira alteração do usuário: a consulta já enxerga o lançamento alterado nesta transação
+		if (repository.inserirSeAusente(idUsuario, calcularPelosLancamentos(idUsuario)) == 0) {
+			// outra transação criou a linha depois da soma, sem esta alteração
+			repository.somarAoSaldo(idUsuario, valor);
+		}
+	}
+
+	/**
+	 * Total dos anos arquivados mais o dos lançamentos ativos, que só percorre as
+	 * partições dos anos ainda abertos.
+	 */
+	private BigDecimal calcularPelosLancamentos(Long idUsuario) {
+		BigDecimal arquivado = lancamentoArquivadoRepository.somarSaldo(idUsuario);
+		BigDecimal receitas = lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(idUsuario,
+				TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
+		BigDecimal despesas = lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(idUsuario,
+				TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+
+		// somas nulas quando não há lançamentos
+		return Centavos.paraBigDecimal(Centavos.de(arquivado) + Centavos.de(receitas) - Centavos.de(despesas));
+	}
+
+	private static long contribuicao(Lancamento lancamento) {
+		if (lancamento == null) {
+			return 0;
+		}
+		return Centavos.contribuicao(lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+	}
+
+	private static Long idUsuario(Lancamento lancamento) {
+		if (lancamento == null || lancamento.getUsuario() == null) {
+			return null;
+		}
+		return Objects.requireNonNull(lancamento.getUsuario().getId());
+	}
+
+}
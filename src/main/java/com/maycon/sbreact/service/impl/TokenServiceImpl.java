@@ -0,0 +1,141 @@
+package com.maycon.sbreact.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.maycon.sbreact.exceptions.AutenticacaoException;
+import com.maycon.sbreact.service.TokenService;
+
+/**
+ * Tokens no formato {@code idUsuario.expiracao.assinatura}, com a expiração em
+ * segundos desde a época e a assinatura HMAC-SHA256 dos dois primeiros campos em
+ * Base64 URL. A assinatura do token de eventos cobre também o prefixo
+ * {@value #PREFIXO_EVENTOS}, e por isso um não vale no lugar do outro.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+	private static final String ALGORITMO = "HmacSHA256";
+
+	private static final String PREFIXO_EVENTOS = "eventos.";
+
+	/**
+	 * Só precisa durar até o navegador abrir o stream: o token é conferido uma vez,
+	 * ao assinar.
+	 */
+	private static final long VALIDADE_EVENTOS_SEGUNDOS = 60;
+
+	private final long validadeSegundos;
+
+	/** {@link Mac} não é thread-safe; cada thread mantém a sua já inicializada. */
+	private final ThreadLocal<Mac> mac;
+
+	/**
+	 * Sem chave configurada é gerada uma aleatória, e os tokens emitidos deixam de
+	 * valer quando a aplicação reinicia.
+	 */
+	public TokenServiceImpl(@Value("${financas.seguranca.chave-token:}") String chave,
+			@Value("${financas.seguranca.validade-token:PT12H}") Duration validade) {
+		SecretKeySpec chaveSecreta = new SecretKeySpec(
+				chave.isEmpty() ? chaveAleatoria() : Base64.getDecoder().decode(chave), ALGORITMO);
+		this.validadeSegundos = validade.getSeconds();
+		this.mac = ThreadLocal.withInitial(() -> {
+			try {
+				Mac instancia = Mac.getInstance(ALGORITMO);
+				instancia.init(chaveSecreta);
+				return instancia;
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	@Override
+	public String gerar(Long idUsuario) {
+		return gerar("", idUsuario, validadeSegundos);
+	}
+
+	@Override
+	public Long validar(String token) {
+		return validar("", token);
+	}
+
+	@Override
+	public String gerarParaEventos(Long idUsuario) {
+		return gerar(PREFIXO_EVENTOS, idUsuario, VALIDADE_EVENTOS_SEGUNDOS);
+	}
+
+	@Override
+	public Long validarParaEventos(String token) {
+		return validar(PREFIXO_EVENTOS, token);
+	}
+
+	private String gerar(String prefixo, Long idUsuario, long validade) {
+		long expiracao = System.currentTimeMillis() / 1000 + validade;
+		String conteudo = idUsuario + "." + expiracao;
+		byte[] assinatura = mac.get().doFinal((prefixo + conteudo).getBytes(StandardCharsets.US_ASCII));
+		return conteudo + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(assinatura);
+	}
+
+	private Long validar(String prefixo, String token) {
+		int fimId = token.indexOf('.');
+		int fimExpiracao = token.indexOf('.', fimId + 1);
+		if (fimId < 1 || fimExpiracao < fimId + 2 || fimExpiracao == token.length() - 1) {
+			throw new AutenticacaoException("Token inválido.");
+		}
+
+		Mac instancia = mac.get();
+		instancia.update(prefixo.getBytes(StandardCharsets.US_ASCII));
+		for (int i = 0; i < fimExpiracao; i++) {
+			char caractere = token.charAt(i);
+			if (caractere > 0x7F) {
+				// o cast para byte descartaria o byte alto, e outro caractere passaria pela assinatura
+				instancia.reset();
+				throw new AutenticacaoException("Token inválido.");
+			}
+			instancia.update((byte) caractere);
+		}
+		byte[] esperada = instancia.doFinal();
+
+		byte[] assinatura;
+		try {
+			assinatura = Base64.getUrlDecoder().decode(token.substring(fimExpiracao + 1));
+		} catch (IllegalArgumentException e) {
+			throw new AutenticacaoException("Token inválido.");
+		}
+		if (!MessageDigest.isEqual(esperada, assinatura)) {
+			throw new AutenticacaoException("Token inválido.");
+		}
+
+		// a assinatura confere, então os campos são os gerados por este serviço
+		long expiracao;
+		long idUsuario;
+		try {
+			expiracao = Long.parseLong(token, fimId + 1, fimExpiracao, 10);
+			idUsuario = Long.parseLong(token, 0, fimId, 10);
+		} catch (NumberFormatException e) {
+			throw new AutenticacaoException("Token inválido.");
+		}
+		if (System.currentTimeMillis() / 1000 >= expiracao) {
+			throw new AutenticacaoException("Token expirado.");
+		}
+		return idUsuario;
+	}
+
+	private static byte[] chaveAleatoria() {
+		byte[] chave = new byte[32];
+		new SecureRandom().nextBytes(chave);
+		return chave;
+	}
+
+}
@@ -1,7 +1,10 @@
 package com.maycon.sbreact.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Optional;
 
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +19,12 @@ import com.maycon.sbreact.service.UsuarioService;
 public class UsuarioServiceImpl implements UsuarioService {
 	
 	private UsuarioRepository repository;
+	private PasswordEncoder passwordEncoder;
 	
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository, PasswordEncoder passwordEncoder) {
 		super();
 		this.repository = repository;
+		this.passwordEncoder = passwordEncoder;
 	}
 
 	@Override
@@ -30,7 +35,23 @@ public class UsuarioServiceImpl implements UsuarioService {
 			throw new AutenticacaoException("Usuário não encontrado.");
 		}
 		
-		if(!usuario.get().getSenha().equals(senha)) {
+		String senhaArmazenada = usuario.get().getSenha();
+		if (senhaArmazenada == null || senha == null) {
+			throw new AutenticacaoException("Senha inválida");
+		}
+		
+		if (senhaLegada(senhaArmazenada)) {
+			if (!MessageDigest.isEqual(senhaArmazenada.getBytes(StandardCharsets.UTF_8),
+					senha.getBytes(StandardCharsets.UTF_8))) {
+				throw new AutenticacaoException("Senha inválida");
+			}
+			// senhas gravadas antes do hash são convertidas no primeiro login
+			usuario.get().setSenha(passwordEncoder.encode(senha));
+			repository.save(usuario.get());
+			return usuario.get();
+		}
+		
+		if(!passwordEncoder.matches(senha, senhaArmazenada)) {
 			throw new AutenticacaoException("Senha inválida");
 		}
 		
@@ -41,6 +62,9 @@ public class UsuarioServiceImpl implements UsuarioService {
 	@Transactional
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
+		if (usuario.getSenha() != null) {
+			usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+		}
 		return repository.save(usuario);
 	}
 
@@ -53,8 +77,18 @@ public class UsuarioServiceImpl implements UsuarioService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Usuario> obterPorId(Long id) {		
 		return repository.findById(id);
 	}
 
+	private static boolean senhaLegada(String senha) {
+		return !senha.startsWith("$2");
+	}
+
+	@Override
+	public Usuario obterReferencia(Long id) {
+		return repository.getOne(id);
+	}
+
 }
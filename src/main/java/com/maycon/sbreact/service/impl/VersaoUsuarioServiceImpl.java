@@ -0,0 +1,43 @@
+package com.maycon.sbreact.service.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.repository.VersaoUsuarioRepository;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+
+@Service
+public class VersaoUsuarioServiceImpl implements VersaoUsuarioService {
+
+	private VersaoUsuarioRepository repository;
+
+	public VersaoUsuarioServiceImpl(VersaoUsuarioRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	@Transactional
+	public void incrementar(Collection<Long> idsUsuario) {
+		for (Long idUsuario : new LinkedHashSet<>(idsUsuario)) {
+			if (idUsuario == null) {
+				continue;
+			}
+			if (repository.incrementar(idUsuario) == 0 && repository.inserirSeAusente(idUsuario) == 0) {
+				// outra transação criou a linha entre as duas instruções
+				repository.incrementar(idUsuario);
+			}
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Long> obterVersao(Long idUsuario) {
+		return repository.obterVersao(Objects.requireNonNull(idUsuario));
+	}
+
+}
@@ -0,0 +1,436 @@
+package com.maycon.sbreact.service.relatorio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.calculo.Centavos;
+
+/**
+ * Lançamentos de um usuário em colunas de tipos primitivos, para agrupar e somar
+ * percorrendo arrays em vez de entidades. As descrições ficam num dicionário e
+ * cada linha guarda apenas o código da sua.
+ *
+ * As gravações são aplicadas pela versão de cada lançamento: um evento de uma
+ * transação que a carga já leu, ou entregue depois de outro mais novo, não
+ * desfaz o estado atual. As recebidas durante a carga ficam pendentes e são
+ * aplicadas ao final dela.
+ */
+public class ColunasLancamentos {
+
+	/**
+	 * id, centavos e versão (long), descrição (int), ano (short), mês, tipo e
+	 * status (byte).
+	 */
+	static final int BYTES_POR_LINHA = 3 * Long.BYTES + Integer.BYTES + Short.BYTES + 3;
+
+	/**
+	 * Entrada de HashMap com chave e valor em caixa, usada no índice por id, no
+	 * dicionário e nos removidos.
+	 */
+	static final int BYTES_POR_ENTRADA = 64;
+
+	private static final int CAPACIDADE_INICIAL = 16;
+	private static final int SEM_FILTRO = -1;
+	private static final long VERSAO_DESCONHECIDA = -1;
+
+	private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+	private static final StatusLancamento[] STATUS = StatusLancamento.values();
+
+	private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+	private long[] ids = new long[CAPACIDADE_INICIAL];
+	private long[] centavos = new long[CAPACIDADE_INICIAL];
+	private long[] versoes = new long[CAPACIDADE_INICIAL];
+	private int[] descricoes = new int[CAPACIDADE_INICIAL];
+	private short[] anos = new short[CAPACIDADE_INICIAL];
+	private byte[] meses = new byte[CAPACIDADE_INICIAL];
+	private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+	private byte[] status = new byte[CAPACIDADE_INICIAL];
+	private int tamanho;
+
+	private final Map<Long, Integer> posicoes = new HashMap<>();
+	private final Set<Long> removidos = new HashSet<>();
+	private final List<String> dicionario = new ArrayList<>();
+	private final Map<String, Integer> codigos = new HashMap<>();
+	private long bytesDicionario;
+
+	private final List<Runnable> pendentes = new ArrayList<>();
+	private volatile boolean carregado;
+
+	/**
+	 * Carrega os lançamentos na primeira chamada; as seguintes aguardam a carga
+	 * em andamento. Retorna verdadeiro apenas para quem carregou.
+	 */
+	public boolean carregarSeNecessario(Supplier<Stream<LinhaLancamento>> carga) {
+		if (carregado) {
+			return false;
+		}
+
+		synchronized (this) {
+			if (carregado) {
+				return false;
+			}
+
+			// enquanto não carregado, as gravações só entram em pendentes
+			try (Stream<LinhaLancamento> linhas = carga.get()) {
+				linhas.forEach(this::gravarLinha);
+			} catch (RuntimeException e) {
+				limpar();
+				throw e;
+			}
+
+			trava.writeLock().lock();
+			try {
+				pendentes.forEach(Runnable::run);
+				pendentes.clear();
+				carregado = true;
+			} finally {
+				trava.writeLock().unlock();
+			}
+			return true;
+		}
+	}
+
+	public void gravar(LinhaLancamento linha) {
+		alterar(() -> gravarLinha(linha));
+	}
+
+	public void remover(Long id) {
+		alterar(() -> removerLinha(id));
+	}
+
+	public int tamanho() {
+		trava.readLock().lock();
+		try {
+			return tamanho;
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Memória aproximada ocupada pelas colunas, índices e dicionário.
+	 */
+	public long bytes() {
+		trava.readLock().lock();
+		try {
+			return (long) ids.length * BYTES_POR_LINHA
+					+ (long) (posicoes.size() + removidos.size() + codigos.size()) * BYTES_POR_ENTRADA
+					+ bytesDicionario;
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Soma os valores e conta os lançamentos que atendem ao filtro, por grupo.
+	 * Acima de {@code limiarParalelo} linhas a soma é dividida em blocos no pool
+	 * comum de fork-join. Os grupos por descrição vêm do maior valor para o
+	 * menor; os demais, na ordem natural da chave.
+	 */
+	public List<LinhaRelatorio> agrupar(FiltroRelatorio filtro, Agrupamento agrupamento, int limite,
+			int limiarParalelo) {
+		trava.readLock().lock();
+		try {
+			if (tamanho == 0) {
+				return new ArrayList<>();
+			}
+
+			Consulta consulta = new Consulta(filtro, agrupamento);
+			int grupos = grupos(consulta);
+			Soma soma = new Soma(consulta, grupos, 0, tamanho, Math.max(limiarParalelo, 1));
+			long[][] totais = tamanho > limiarParalelo ? ForkJoinPool.commonPool().invoke(soma) : soma.compute();
+			return linhas(consulta, totais[0], totais[1], limite);
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	private void alterar(Runnable alteracao) {
+		trava.writeLock().lock();
+		try {
+			if (carregado) {
+				alteracao.run();
+			} else {
+				pendentes.add(alteracao);
+			}
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	private void gravarLinha(LinhaLancamento linha) {
+		Long id = linha.getId();
+		if (removidos.contains(id)) {
+			// evento de criação ou alteração entregue depois da remoção
+			return;
+		}
+
+		Integer posicao = posicoes.get(id);
+		if (posicao == null) {
+			garantirCapacidade(tamanho + 1);
+			posicao = tamanho++;
+			posicoes.put(id, posicao);
+			ids[posicao] = id;
+		} else if (linha.getVersao() != null && versoes[posicao] >= linha.getVersao()) {
+			return;
+		}
+
+		centavos[posicao] = Centavos.de(linha.getValor());
+		versoes[posicao] = linha.getVersao() == null ? VERSAO_DESCONHECIDA : linha.getVersao();
+		descricoes[posicao] = codigo(linha.getDescricao());
+		anos[posicao] = linha.getAno().shortValue();
+		meses[posicao] = linha.getMes().byteValue();
+		tipos[posicao] = (byte) linha.getTipo().ordinal();
+		status[posicao] = (byte) linha.getStatus().ordinal();
+	}
+
+	/**
+	 * A última linha ocupa o lugar da removida, para que as colunas não tenham
+	 * buracos.
+	 */
+	private void removerLinha(Long id) {
+		removidos.add(id);
+		Integer posicao = posicoes.remove(id);
+		if (posicao == null) {
+			return;
+		}
+
+		int ultima = --tamanho;
+		if (posicao != ultima) {
+			ids[posicao] = ids[ultima];
+			centavos[posicao] = centavos[ultima];
+			versoes[posicao] = versoes[ultima];
+			descricoes[posicao] = descricoes[ultima];
+			anos[posicao] = anos[ultima];
+			meses[posicao] = meses[ultima];
+			tipos[posicao] = tipos[ultima];
+			status[posicao] = status[ultima];
+			posicoes.put(ids[posicao], posicao);
+		}
+	}
+
+	private int codigo(String descricao) {
+		String chave = descricao == null ? "" : descricao;
+		Integer codigo = codigos.get(chave);
+		if (codigo == null) {
+			codigo = dicionario.size();
+			dicionario.add(chave);
+			codigos.put(chave, codigo);
+			bytesDicionario += 40 + 2L * chave.length();
+		}
+		return codigo;
+	}
+
+	private void garantirCapacidade(int minima) {
+		if (minima <= ids.length) {
+			return;
+		}
+
+		int capacidade = Math.max(minima, ids.length * 2);
+		ids = Arrays.copyOf(ids, capacidade);
+		centavos = Arrays.copyOf(centavos, capacidade);
+		versoes = Arrays.copyOf(versoes, capacidade);
+		descricoes = Arrays.copyOf(descricoes, capacidade);
+		anos = Arrays.copyOf(anos, capacidade);
+		meses = Arrays.copyOf(meses, capacidade);
+		tipos = Arrays.copyOf(tipos, capacidade);
+		status = Arrays.copyOf(status, capacidade);
+	}
+
+	private void limpar() {
+		ids = new long[CAPACIDADE_INICIAL];
+		centavos = new long[CAPACIDADE_INICIAL];
+		versoes = new long[CAPACIDADE_INICIAL];
+		descricoes = new int[CAPACIDADE_INICIAL];
+		anos = new short[CAPACIDADE_INICIAL];
+		meses = new byte[CAPACIDADE_INICIAL];
+		tipos = new byte[CAPACIDADE_INICIAL];
+		status = new byte[CAPACIDADE_INICIAL];
+		tamanho = 0;
+		posicoes.clear();
+		removidos.clear();
+		dicionario.clear();
+		codigos.clear();
+		bytesDicionario = 0;
+	}
+
+	private int grupos(Consulta consulta) {
+		switch (consulta.agrupamento) {
+		case ANO:
+			return consulta.quantidadeAnos;
+		case MES:
+			return consulta.quantidadeAnos * 12;
+		case TIPO:
+			return TIPOS.length;
+		case STATUS:
+			return STATUS.length;
+		default:
+			return dicionario.size();
+		}
+	}
+
+	private int grupo(Consulta consulta, int i) {
+		switch (consulta.agrupamento) {
+		case ANO:
+			return anos[i] - consulta.anoMinimo;
+		case MES:
+			return (anos[i] - consulta.anoMinimo) * 12 + meses[i] - 1;
+		case TIPO:
+			return tipos[i];
+		case STATUS:
+			return status[i];
+		default:
+			return descricoes[i];
+		}
+	}
+
+	private void somar(Consulta consulta, int inicio, int fim, long[] somas, long[] quantidades) {
+		for (int i = inicio; i < fim; i++) {
+			if ((consulta.ano != SEM_FILTRO && anos[i] != consulta.ano)
+					|| (consulta.mes != SEM_FILTRO && meses[i] != consulta.mes)
+					|| (consulta.tipo != SEM_FILTRO && tipos[i] != consulta.tipo)
+					|| (consulta.status != SEM_FILTRO && status[i] != consulta.status)) {
+				continue;
+			}
+			int grupo = grupo(consulta, i);
+			somas[grupo] += centavos[i];
+			quantidades[grupo]++;
+		}
+	}
+
+	private List<LinhaRelatorio> linhas(Consulta consulta, long[] somas, long[] quantidades, int limite) {
+		List<Integer> grupos = new ArrayList<>();
+		for (int grupo = 0; grupo < quantidades.length; grupo++) {
+			if (quantidades[grupo] > 0) {
+				grupos.add(grupo);
+			}
+		}
+		if (consulta.agrupamento == Agrupamento.DESCRICAO) {
+			grupos.sort(Comparator.<Integer>comparingLong(grupo -> -somas[grupo]).thenComparing(dicionario::get));
+		}
+
+		List<LinhaRelatorio> linhas = new ArrayList<>();
+		for (Integer grupo : grupos.subList(0, Math.min(limite, grupos.size()))) {
+			linhas.add(new LinhaRelatorio(chave(consulta, grupo), Centavos.paraBigDecimal(somas[grupo]),
+					quantidades[grupo]));
+		}
+		return linhas;
+	}
+
+	private String chave(Consulta consulta, int grupo) {
+		switch (consulta.agrupamento) {
+		case ANO:
+			return String.valueOf(consulta.anoMinimo + grupo);
+		case MES:
+			return String.format("%d-%02d", consulta.anoMinimo + grupo / 12, grupo % 12 + 1);
+		case TIPO:
+			return TIPOS[grupo].name();
+		case STATUS:
+			return STATUS[grupo].name();
+		default:
+			return dicionario.get(grupo);
+		}
+	}
+
+	/**
+	 * Filtro convertido para os códigos das colunas. Os grupos por ano cobrem do
+	 * menor ao maior ano presente, ou só o ano do filtro.
+	 */
+	private class Consulta {
+
+		final Agrupamento agrupamento;
+		final int ano;
+		final int mes;
+		final int tipo;
+		final int status;
+		final int anoMinimo;
+		final int quantidadeAnos;
+
+		Consulta(FiltroRelatorio filtro, Agrupamento agrupamento) {
+			this.agrupamento = agrupamento;
+			this.ano = filtro.getAno() == null ? SEM_FILTRO : filtro.getAno();
+			this.mes = filtro.getMes() == null ? SEM_FILTRO : filtro.getMes();
+			this.tipo = filtro.getTipo() == null ? SEM_FILTRO : filtro.getTipo().ordinal();
+			this.status = filtro.getStatus() == null ? SEM_FILTRO : filtro.getStatus().ordinal();
+
+			if (ano != SEM_FILTRO) {
+				this.anoMinimo = ano;
+				this.quantidadeAnos = 1;
+			} else {
+				int minimo = Integer.MAX_VALUE;
+				int maximo = Integer.MIN_VALUE;
+				for (int i = 0; i < tamanho; i++) {
+					minimo = Math.min(minimo, ColunasLancamentos.this.anos[i]);
+					maximo = Math.max(maximo, ColunasLancamentos.this.anos[i]);
+				}
+				this.anoMinimo = minimo;
+				this.quantidadeAnos = maximo - minimo + 1;
+			}
+		}
+
+	}
+
+	/**
+	 * Somas e quantidades por grupo de um intervalo de linhas. Roda na thread
+	 * que consulta, que mantém a trava de leitura até o fim da soma.
+	 */
+	private class Soma extends RecursiveTask<long[][]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Consulta consulta;
+		private final int grupos;
+		private final int inicio;
+		private final int fim;
+		private final int limiar;
+
+		Soma(Consulta consulta, int grupos, int inicio, int fim, int limiar) {
+			this.consulta = consulta;
+			this.grupos = grupos;
+			this.inicio = inicio;
+			this.fim = fim;
+			this.limiar = limiar;
+		}
+
+		@Override
+		protected long[][] compute() {
+			if (fim - inicio <= limiar) {
+				long[] somas = new long[grupos];
+				long[] quantidades = new long[grupos];
+				somar(consulta, inicio, fim, somas, quantidades);
+				return new long[][] { somas, quantidades };
+			}
+
+			int meio = (inicio + fim) >>> 1;
+			Soma esquerda = new Soma(consulta, grupos, inicio, meio, limiar);
+			esquerda.fork();
+			long[][] direita = new Soma(consulta, grupos, meio, fim, limiar).compute();
+			long[][] total = esquerda.join();
+			for (int grupo = 0; grupo < grupos; grupo++) {
+				total[0][grupo] += direita[0][grupo];
+				total[1][grupo] += direita[1][grupo];
+			}
+			return total;
+		}
+
+	}
+
+}
@@ -0,0 +1,13 @@
+-- Saldo consolidado por usuário, mantido pelo LancamentoService a cada alteração.
+CREATE TABLE financas.saldo_usuario
+(
+	id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	saldo numeric(16,2) NOT NULL
+);
+
+-- Carga inicial a partir dos lançamentos efetivados já existentes.
+INSERT INTO financas.saldo_usuario (id_usuario, saldo)
+SELECT id_usuario, SUM(CASE WHEN tipo = 'RECEITA' THEN valor ELSE -valor END)
+FROM financas.lancamento
+WHERE status = 'EFETIVADO'
+GROUP BY id_usuario;
@@ -0,0 +1,6 @@
+-- Sequência com incremento igual ao allocationSize do Lancamento (otimizador pooled do Hibernate),
+-- necessária para que os inserts sejam agrupados em lotes JDBC.
+CREATE SEQUENCE financas.lancamento_seq INCREMENT BY 50;
+
+-- O Hibernate usa a faixa (valor - 49 .. valor), então o primeiro valor precisa ficar 50 acima do maior id.
+SELECT setval('financas.lancamento_seq', COALESCE((SELECT MAX(id) FROM financas.lancamento), 0) + 50, false);
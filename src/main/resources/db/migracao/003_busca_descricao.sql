@@ -0,0 +1,7 @@
+-- Índice de trigramas para a busca por descrição (prefixo, aproximada e o filtro "contém" da listagem).
+-- btree_gin permite incluir id_usuario no mesmo índice GIN.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX idx_lancamento_usuario_descricao_trgm
+	ON financas.lancamento USING gin (id_usuario, lower(descricao) gin_trgm_ops);
@@ -0,0 +1,10 @@
+-- Saldo: filtro por usuário, status e tipo, somando valor direto do índice (index-only scan).
+CREATE INDEX idx_lancamento_usuario_status_tipo
+	ON financas.lancamento (id_usuario, status, tipo) INCLUDE (valor);
+
+-- Listagem e paginação por (ano, mes, id) dentro do usuário.
+CREATE INDEX idx_lancamento_usuario_ano_mes
+	ON financas.lancamento (id_usuario, ano, mes, id);
+
+-- Login e cadastro consultam o usuário pelo email.
+ALTER TABLE financas.usuario ADD CONSTRAINT uk_usuario_email UNIQUE (email);
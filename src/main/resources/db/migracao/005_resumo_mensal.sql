@@ -0,0 +1,18 @@
+-- Totais mensais por usuário, tipo e status, mantidos pelo LancamentoService a cada alteração.
+CREATE TABLE financas.resumo_mensal
+(
+	id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+	ano integer NOT NULL,
+	mes integer NOT NULL,
+	tipo character varying(20) NOT NULL,
+	status character varying(20) NOT NULL,
+	valor numeric(16,2) NOT NULL,
+	quantidade bigint NOT NULL,
+	PRIMARY KEY (id_usuario, ano, mes, tipo, status)
+);
+
+-- Carga inicial a partir dos lançamentos já existentes.
+INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, valor, quantidade)
+SELECT id_usuario, ano, mes, tipo, status, SUM(valor), COUNT(*)
+FROM financas.lancamento
+GROUP BY id_usuario, ano, mes, tipo, status;
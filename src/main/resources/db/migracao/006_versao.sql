@@ -0,0 +1,9 @@
+-- Versão de cada lançamento (controle otimista do JPA) e contador de alterações por usuário,
+-- usados como ETag nas consultas de lançamentos e de saldo.
+ALTER TABLE financas.lancamento ADD COLUMN versao bigint NOT NULL DEFAULT 0;
+
+CREATE TABLE financas.versao_usuario
+(
+	id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	versao bigint NOT NULL
+);
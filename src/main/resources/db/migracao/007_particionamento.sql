@@ -0,0 +1,54 @@
+-- Lançamentos particionados por ano: consultas com o ano no filtro e o cálculo do saldo
+-- só percorrem as partições dos anos ainda em uso. A chave primária precisa conter a
+-- chave de partição; o id continua único pela sequência.
+ALTER TABLE financas.lancamento RENAME TO lancamento_antiga;
+
+CREATE TABLE financas.lancamento
+(
+	LIKE financas.lancamento_antiga INCLUDING DEFAULTS,
+	PRIMARY KEY (id, ano),
+	FOREIGN KEY (id_usuario) REFERENCES financas.usuario (id)
+) PARTITION BY RANGE (ano);
+
+-- Uma partição por ano existente e pelos próximos dois; anos sem partição ficam na padrão
+-- até que financas.criar_particao_lancamento seja chamada para eles.
+CREATE FUNCTION financas.criar_particao_lancamento(p_ano integer) RETURNS void AS $$
+BEGIN
+	EXECUTE format('CREATE TABLE IF NOT EXISTS financas.lancamento_%s PARTITION OF financas.lancamento'
+		|| ' FOR VALUES FROM (%s) TO (%s)', p_ano, p_ano, p_ano + 1);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT financas.criar_particao_lancamento(ano)
+FROM (
+	SELECT DISTINCT ano FROM financas.lancamento_antiga WHERE ano IS NOT NULL
+	UNION
+	SELECT EXTRACT(YEAR FROM CURRENT_DATE)::integer + s FROM generate_series(0, 2) s
+) anos;
+
+CREATE TABLE financas.lancamento_padrao PARTITION OF financas.lancamento DEFAULT;
+
+INSERT INTO financas.lancamento SELECT * FROM financas.lancamento_antiga;
+DROP TABLE financas.lancamento_antiga;
+
+-- Índices de 003 e 004, agora criados em cada partição.
+CREATE INDEX idx_lancamento_usuario_descricao_trgm
+	ON financas.lancamento USING gin (id_usuario, lower(descricao) gin_trgm_ops);
+CREATE INDEX idx_lancamento_usuario_status_tipo
+	ON financas.lancamento (id_usuario, status, tipo) INCLUDE (valor);
+CREATE INDEX idx_lancamento_usuario_ano_mes
+	ON financas.lancamento (id_usuario, ano, mes, id);
+
+-- Anos fechados, arquivados por usuário: os lançamentos do ano compactados em gzip e a
+-- contribuição efetivada ao saldo, somada ao saldo dos lançamentos ativos no recálculo.
+-- Quando todos os usuários de um ano estiverem arquivados, a partição do ano fica vazia
+-- e pode ser removida com DROP TABLE.
+CREATE TABLE financas.lancamento_arquivado
+(
+	id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+	ano integer NOT NULL,
+	quantidade integer NOT NULL,
+	saldo numeric(16,2) NOT NULL,
+	conteudo bytea NOT NULL,
+	PRIMARY KEY (id_usuario, ano)
+);
@@ -0,0 +1,84 @@
+package com.maycon.sbreact.reativo.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+import com.maycon.sbreact.service.TokenService;
+import com.maycon.sbreact.service.impl.TokenServiceImpl;
+
+import reactor.core.publisher.Mono;
+
+public class AutenticacaoTokenWebFilterTest {
+
+	TokenService tokenService = new TokenServiceImpl("", Duration.ofHours(1));
+
+	AutenticacaoTokenWebFilter filter = new AutenticacaoTokenWebFilter(tokenService);
+
+	AtomicReference<ServerWebExchange> encaminhada = new AtomicReference<>();
+
+	WebFilterChain chain = exchange -> {
+		encaminhada.set(exchange);
+		return Mono.empty();
+	};
+
+	@Test
+	@DisplayName("Deve recusar requisição à API reativa sem token.")
+	public void recusaSemToken() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/lancamentos"));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(exchange.getResponse().getStatusCode().value()).isEqualTo(401);
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("Token de autenticação não informado.");
+		assertThat(encaminhada.get()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve recusar requisição com token inválido.")
+	public void recusaTokenInvalido() {
+		MockServerWebExchange exchange = MockServerWebExchange
+				.from(MockServerHttpRequest.get("/api/lancamentos").header("Authorization", "Bearer 1.2.abc"));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(exchange.getResponse().getStatusCode().value()).isEqualTo(401);
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("Token inválido.");
+	}
+
+	@Test
+	@DisplayName("Deve aceitar token válido e informar o usuário na troca.")
+	public void aceitaTokenValido() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/lancamentos")
+				.header("Authorization", "Bearer " + tokenService.gerar(7l)));
+
+		filter.filter(exchange, chain).block();
+
+		assertThat(encaminhada.get()).isSameAs(exchange);
+		assertThat((Long) exchange.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO)).isEqualTo(7l);
+	}
+
+	@Test
+	@DisplayName("Deve liberar o login e o cadastro de usuário sem token.")
+	public void liberaLoginECadastro() {
+		MockServerWebExchange login = MockServerWebExchange
+				.from(MockServerHttpRequest.post("/api/usuarios/autenticar"));
+		MockServerWebExchange cadastro = MockServerWebExchange.from(MockServerHttpRequest.post("/api/usuarios"));
+
+		filter.filter(login, chain).block();
+		assertThat(encaminhada.get()).isSameAs(login);
+
+		filter.filter(cadastro, chain).block();
+		assertThat(encaminhada.get()).isSameAs(cadastro);
+	}
+
+}
@@ -0,0 +1,334 @@
+package com.maycon.sbreact.reativo.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Year;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import com.maycon.sbreact.api.dto.AtualizaStatusDTO;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.dto.UsuarioDTO;
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.reativo.ReativoApplication;
+import com.maycon.sbreact.reativo.model.LancamentoReativo;
+import com.maycon.sbreact.reativo.model.UsuarioReativo;
+import com.maycon.sbreact.reativo.repository.LancamentoReativoRepository;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ReativoApplication.class, properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles({ ReativoApplication.PERFIL, "test" })
+public class LancamentoHandlerTest {
+
+	static final String API = "/api/lancamentos";
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	LancamentoHandler handler;
+
+	@Autowired
+	LancamentoReativoRepository repository;
+
+	@Autowired
+	DatabaseClient databaseClient;
+
+	Long idUsuario;
+
+	/**
+	 * 2020, o ano dos lançamentos dos testes, é o primeiro ano aberto.
+	 */
+	@DynamicPropertySource
+	static void anosAbertos(DynamicPropertyRegistry registro) {
+		registro.add("financas.arquivo.anos-abertos", () -> Year.now().getValue() - 2019);
+	}
+
+	@BeforeEach
+	public void setUp() {
+		UsuarioDTO usuario = UsuarioHandlerTest.criarUsuarioDTO();
+		idUsuario = client.post().uri("/api/usuarios").bodyValue(usuario)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(UsuarioReativo.class).returnResult().getResponseBody().getId();
+	}
+
+	@Test
+	public void deveSalvarLancamentoPendente() {
+		LancamentoDTO salvo = salvar(criarLancamentoDTO("Salário", 1, "RECEITA", "100"));
+
+		client.get().uri(API.concat("/{id}"), salvo.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("id").isEqualTo(salvo.getId())
+				.jsonPath("status").isEqualTo("PENDENTE")
+				.jsonPath("usuario").isEqualTo(idUsuario);
+	}
+
+	@Test
+	public void naoDeveSalvarLancamentoInvalido() {
+		LancamentoDTO dto = criarLancamentoDTO("Salário", 1, "RECEITA", "100");
+		dto.setValor(null);
+
+		client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Informe um valor válido.");
+	}
+
+	@Test
+	public void naoDeveSalvarLancamentoComMaisDeDuasCasasDecimais() {
+		LancamentoDTO dto = criarLancamentoDTO("Salário", 1, "RECEITA", "10.555");
+
+		client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Informe um valor com no máximo duas casas decimais.");
+	}
+
+	@Test
+	public void naoDeveSalvarLancamentoDeUsuarioInexistente() {
+		LancamentoDTO dto = criarLancamentoDTO("Salário", 1, "RECEITA", "100");
+		dto.setUsuario(Long.MAX_VALUE);
+
+		client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Usuario não encontrado para o id informado.");
+	}
+
+	@Test
+	public void deveBuscarLancamentosPeloFiltro() {
+		salvar(criarLancamentoDTO("Conta de luz", 1, "DESPESA", "80"));
+		salvar(criarLancamentoDTO("Conta de água", 2, "DESPESA", "40"));
+		salvar(criarLancamentoDTO("Luz de natal", 2, "DESPESA", "15"));
+
+		client.get().uri(uri -> uri.path(API).queryParam("usuario", idUsuario).queryParam("descricao", "LUZ")
+				.queryParam("mes", 1).build())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(1)
+				.jsonPath("$[0].descricao").isEqualTo("Conta de luz");
+	}
+
+	@Test
+	public void deveManterSaldoEResumoAoAlterarLancamentos() {
+		LancamentoDTO receita = salvar(criarLancamentoDTO("Salário", 3, "RECEITA", "100"));
+		LancamentoDTO despesa = salvar(criarLancamentoDTO("Mercado", 3, "DESPESA", "30"));
+
+		efetivar(receita.getId());
+		efetivar(despesa.getId());
+		verificarSaldo("70.00");
+
+		client.get().uri(uri -> uri.path("/api/usuarios/{id}/resumo").queryParam("ano", 2020).build(idUsuario))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(2)
+				.jsonPath("$[0].tipo").isEqualTo("DESPESA")
+				.jsonPath("$[0].status").isEqualTo("EFETIVADO")
+				.jsonPath("$[0].quantidade").isEqualTo(1);
+
+		client.delete().uri(API.concat("/{id}"), despesa.getId())
+				.exchange()
+				.expectStatus().isNoContent();
+		verificarSaldo("100.00");
+	}
+
+	@Test
+	public void deveAtualizarLancamento() {
+		LancamentoDTO salvo = salvar(criarLancamentoDTO("Salário", 1, "RECEITA", "100"));
+		salvo.setDescricao("Salário de janeiro");
+
+		client.put().uri(API.concat("/{id}"), salvo.getId()).bodyValue(salvo)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("descricao").isEqualTo("Salário de janeiro");
+	}
+
+	@Test
+	public void deveResponderNaoModificadoEnquantoNaoHouverAlteracao() {
+		LancamentoDTO salvo = salvar(criarLancamentoDTO("Salário", 1, "RECEITA", "100"));
+		String etagLancamento = "\"l" + salvo.getId() + "-v0\"";
+		String etagLista = "W/\"u" + idUsuario + "-v1\"";
+
+		client.get().uri(API.concat("/{id}"), salvo.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, etagLancamento);
+		client.get().uri(API.concat("/{id}"), salvo.getId()).header(HttpHeaders.IF_NONE_MATCH, etagLancamento)
+				.exchange()
+				.expectStatus().isNotModified();
+		client.get().uri(uri -> uri.path(API).queryParam("usuario", idUsuario).build())
+				.header(HttpHeaders.IF_NONE_MATCH, etagLista)
+				.exchange()
+				.expectStatus().isNotModified();
+
+		efetivar(salvo.getId());
+
+		client.get().uri(API.concat("/{id}"), salvo.getId()).header(HttpHeaders.IF_NONE_MATCH, etagLancamento)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"l" + salvo.getId() + "-v1\"");
+		client.get().uri("/api/usuarios/{id}/saldo", idUsuario).header(HttpHeaders.IF_NONE_MATCH, etagLista)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"u" + idUsuario + "-v2\"");
+	}
+
+	@Test
+	public void deveRecusarAlteracoesDeLancamentoInexistente() {
+		client.get().uri(API.concat("/{id}"), Long.MAX_VALUE)
+				.exchange()
+				.expectStatus().isNotFound();
+
+		client.put().uri(API.concat("/{id}/atualiza-status"), Long.MAX_VALUE)
+				.bodyValue(new AtualizaStatusDTO("EFETIVADO"))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Lançamento não encontrado na base de dados.");
+
+		client.delete().uri(API.concat("/{id}"), Long.MAX_VALUE)
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void naoDeveBuscarLancamentosDeOutroUsuario() {
+		ServerRequest request = MockServerRequest.builder()
+				.queryParam("usuario", idUsuario.toString())
+				.attribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, idUsuario + 1)
+				.build();
+
+		assertThat(handler.buscar(request).block().statusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+
+	@Test
+	public void naoDeveExcluirLancamentoDeOutroUsuario() {
+		LancamentoDTO salvo = salvar(criarLancamentoDTO("Salário", 1, "RECEITA", "100"));
+		ServerRequest request = MockServerRequest.builder()
+				.pathVariable("id", salvo.getId().toString())
+				.attribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, idUsuario + 1)
+				.build();
+
+		assertThat(handler.deletar(request).block().statusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+		client.get().uri(API.concat("/{id}"), salvo.getId())
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	public void naoDeveAlterarLancamentoDeAnoFechado() {
+		String mensagem = "O ano informado está fechado e não aceita lançamentos.";
+		LancamentoDTO dto = criarLancamentoDTO("Salário", 1, "RECEITA", "100");
+		dto.setAno(2019);
+		client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo(mensagem);
+
+		// gravado antes de o ano ser fechado
+		LancamentoReativo fechado = LancamentoReativo.builder().descricao("Salário").mes(1).ano(2019)
+				.valor(BigDecimal.TEN).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE)
+				.idUsuario(idUsuario).versao(0L).build();
+		fechado.setId(repository.proximoId().block());
+		databaseClient.insert().into(LancamentoReativo.class).using(fechado).then().block();
+
+		dto.setStatus("PENDENTE");
+		client.put().uri(API.concat("/{id}"), fechado.getId()).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo(mensagem);
+
+		dto.setAno(2020);
+		client.put().uri(API.concat("/{id}"), fechado.getId()).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo(mensagem);
+
+		client.put().uri(API.concat("/{id}/atualiza-status"), fechado.getId())
+				.bodyValue(new AtualizaStatusDTO("EFETIVADO"))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo(mensagem);
+
+		client.delete().uri(API.concat("/{id}"), fechado.getId())
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo(mensagem);
+
+		client.get().uri(API.concat("/{id}"), fechado.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("ano").isEqualTo(2019)
+				.jsonPath("status").isEqualTo("PENDENTE");
+	}
+
+	@Test
+	public void deveSomarAnosArquivadosAoSaldoSemConsolidado() {
+		databaseClient.execute("INSERT INTO financas.lancamento_arquivado (id_usuario, ano, quantidade, saldo, conteudo) "
+				+ "VALUES (:idUsuario, 2019, 1, 50, X'00')")
+				.bind("idUsuario", idUsuario)
+				.fetch().rowsUpdated().block();
+
+		verificarSaldo("50.00");
+	}
+
+	private LancamentoDTO salvar(LancamentoDTO dto) {
+		return client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(LancamentoDTO.class).returnResult().getResponseBody();
+	}
+
+	private void efetivar(Long id) {
+		client.put().uri(API.concat("/{id}/atualiza-status"), id)
+				.bodyValue(new AtualizaStatusDTO("EFETIVADO"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("status").isEqualTo("EFETIVADO");
+	}
+
+	private void verificarSaldo(String saldo) {
+		client.get().uri("/api/usuarios/{id}/saldo", idUsuario)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(BigDecimal.class).isEqualTo(new BigDecimal(saldo));
+	}
+
+	private LancamentoDTO criarLancamentoDTO(String descricao, int mes, String tipo, String valor) {
+		return LancamentoDTO.builder()
+				.descricao(descricao)
+				.mes(mes)
+				.ano(2020)
+				.tipo(tipo)
+				.valor(new BigDecimal(valor))
+				.usuario(idUsuario)
+				.build();
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.maycon.sbreact.reativo.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import com.maycon.sbreact.api.dto.UsuarioDTO;
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+import com.maycon.sbreact.reativo.ReativoApplication;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ReativoApplication.class, properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles({ ReativoApplication.PERFIL, "test" })
+public class UsuarioHandlerTest {
+
+	static final String API = "/api/usuarios";
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	UsuarioHandler handler;
+
+	@Test
+	public void deveSalvarUsuarioSemExporSenha() {
+		UsuarioDTO dto = criarUsuarioDTO();
+
+		client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody()
+				.jsonPath("id").isNotEmpty()
+				.jsonPath("email").isEqualTo(dto.getEmail())
+				.jsonPath("senha").doesNotExist();
+	}
+
+	@Test
+	public void naoDeveSalvarUsuarioComEmailJaCadastrado() {
+		UsuarioDTO dto = criarUsuarioDTO();
+		client.post().uri(API).bodyValue(dto).exchange().expectStatus().isCreated();
+
+		client.post().uri(API).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Ja existe um usuário cadastrado com este email.");
+	}
+
+	@Test
+	public void deveAutenticarUsuarioEGerarToken() {
+		UsuarioDTO dto = criarUsuarioDTO();
+		client.post().uri(API).bodyValue(dto).exchange().expectStatus().isCreated();
+
+		client.post().uri(API.concat("/autenticar")).bodyValue(dto)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("id").isNotEmpty()
+				.jsonPath("email").isEqualTo(dto.getEmail())
+				.jsonPath("token").isNotEmpty();
+	}
+
+	@Test
+	public void naoDeveAutenticarComSenhaErrada() {
+		UsuarioDTO dto = criarUsuarioDTO();
+		client.post().uri(API).bodyValue(dto).exchange().expectStatus().isCreated();
+		dto.setSenha("outra");
+
+		client.post().uri(API.concat("/autenticar")).bodyValue(dto)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(String.class).isEqualTo("Senha inválida");
+	}
+
+	@Test
+	public void deveRetornarNotFoundParaSaldoDeUsuarioInexistente() {
+		client.get().uri(API.concat("/{id}/saldo"), Long.MAX_VALUE)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void naoDeveRetornarSaldoDeOutroUsuario() {
+		ServerRequest request = MockServerRequest.builder()
+				.pathVariable("id", "1")
+				.attribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 2l)
+				.build();
+
+		assertThat(handler.obterSaldo(request).block().statusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+
+	static UsuarioDTO criarUsuarioDTO() {
+		return UsuarioDTO.builder()
+				.nome("usuario")
+				.email(UUID.randomUUID() + "@email.com")
+				.senha("123")
+				.build();
+	}
+
+}
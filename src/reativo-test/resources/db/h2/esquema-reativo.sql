@@ -0,0 +1,62 @@
+-- Esquema da variante reativa no H2 em memória (perfis reativo e test). No PostgreSQL
+-- as tabelas já existem e vêm dos scripts de db/migracao.
+CREATE SCHEMA IF NOT EXISTS financas;
+
+CREATE TABLE IF NOT EXISTS financas.usuario
+(
+	id bigint AUTO_INCREMENT PRIMARY KEY,
+	nome character varying(150),
+	email character varying(100),
+	senha character varying(60),
+	CONSTRAINT uk_usuario_email UNIQUE (email)
+);
+
+CREATE SEQUENCE IF NOT EXISTS financas.lancamento_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS financas.lancamento
+(
+	id bigint PRIMARY KEY,
+	descricao character varying(100) NOT NULL,
+	mes integer NOT NULL,
+	ano integer NOT NULL,
+	valor numeric(16,2) NOT NULL,
+	tipo character varying(20),
+	status character varying(20),
+	id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+	data_cadastro date,
+	versao bigint NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS financas.saldo_usuario
+(
+	id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	saldo numeric(16,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS financas.resumo_mensal
+(
+	id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+	ano integer NOT NULL,
+	mes integer NOT NULL,
+	tipo character varying(20) NOT NULL,
+	status character varying(20) NOT NULL,
+	valor numeric(16,2) NOT NULL,
+	quantidade bigint NOT NULL,
+	PRIMARY KEY (id_usuario, ano, mes, tipo, status)
+);
+
+CREATE TABLE IF NOT EXISTS financas.versao_usuario
+(
+	id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	versao bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS financas.lancamento_arquivado
+(
+	id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+	ano integer NOT NULL,
+	quantidade integer NOT NULL,
+	saldo numeric(16,2) NOT NULL,
+	conteudo bytea NOT NULL,
+	PRIMARY KEY (id_usuario, ano)
+);
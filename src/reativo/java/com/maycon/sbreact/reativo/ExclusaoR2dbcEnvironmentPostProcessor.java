@@ -0,0 +1,44 @@
+package com.maycon.sbreact.reativo;
+
+import java.util.Collections;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.StringUtils;
+
+/**
+ * No perfil Maven {@code reativo} o R2DBC também fica no classpath da
+ * aplicação servlet, e o {@code ConnectionFactory} da autoconfiguração faz o
+ * Spring Boot desistir do {@code DataSource}. Fora do perfil
+ * {@value ReativoApplication#PERFIL}, as autoconfigurações do R2DBC são
+ * excluídas; sem o perfil Maven esta classe nem existe.
+ */
+public class ExclusaoR2dbcEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+	static final String PROPRIEDADE = "spring.autoconfigure.exclude";
+
+	static final String EXCLUSOES = StringUtils.arrayToCommaDelimitedString(new String[] {
+			R2dbcAutoConfiguration.class.getName(), R2dbcDataAutoConfiguration.class.getName(),
+			R2dbcRepositoriesAutoConfiguration.class.getName(),
+			R2dbcTransactionManagerAutoConfiguration.class.getName() });
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		if (environment.acceptsProfiles(Profiles.of(ReativoApplication.PERFIL))) {
+			return;
+		}
+
+		String excluidas = environment.getProperty(PROPRIEDADE);
+		environment.getPropertySources().addFirst(new MapPropertySource("exclusaoR2dbc",
+				Collections.singletonMap(PROPRIEDADE,
+						StringUtils.hasText(excluidas) ? excluidas + "," + EXCLUSOES : EXCLUSOES)));
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.maycon.sbreact.reativo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.maycon.sbreact.config.SegurancaConfiguration;
+import com.maycon.sbreact.reativo.api.AutenticacaoTokenWebFilter;
+import com.maycon.sbreact.reativo.api.LancamentoHandler;
+import com.maycon.sbreact.reativo.api.UsuarioHandler;
+import com.maycon.sbreact.reativo.service.LancamentoReativoService;
+import com.maycon.sbreact.reativo.service.UsuarioReativoService;
+import com.maycon.sbreact.service.TokenService;
+import com.maycon.sbreact.service.impl.TokenServiceImpl;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Variante WebFlux + R2DBC das APIs de lançamentos e usuários, iniciada por
+ * este main em vez do {@code BackendCursoSbReactApplication}. Só é compilada,
+ * com as dependências reativas, no perfil Maven {@code reativo}.
+ * <p>
+ * Fica no pacote varrido pela aplicação servlet, por isso só é ativada no
+ * perfil {@value #PERFIL} e os handlers e serviços são importados aqui em vez
+ * de anotados com {@code @Component}.
+ */
+@Profile(ReativoApplication.PERFIL)
+@Configuration(proxyBeanMethods = false)
+@EnableAutoConfiguration(exclude = { DataSourceAutoConfiguration.class,
+		DataSourceTransactionManagerAutoConfiguration.class, HibernateJpaAutoConfiguration.class })
+@Import({ SegurancaConfiguration.class, TokenServiceImpl.class, LancamentoReativoService.class,
+		UsuarioReativoService.class, LancamentoHandler.class, UsuarioHandler.class })
+public class ReativoApplication {
+
+	public static final String PERFIL = "reativo";
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReativoApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.profiles(PERFIL)
+				.run(args);
+	}
+
+	/**
+	 * O perfil Maven mantém o Tomcat da aplicação servlet no classpath, e o
+	 * Spring Boot o prefere ao Netty também na pilha reativa.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	@Bean
+	public RouterFunction<ServerResponse> rotas(LancamentoHandler lancamentoHandler, UsuarioHandler usuarioHandler) {
+		return RouterFunctions.route()
+				.GET("/api/lancamentos", lancamentoHandler::buscar)
+				.GET("/api/lancamentos/{id}", lancamentoHandler::obterLancamento)
+				.POST("/api/lancamentos", lancamentoHandler::salvar)
+				.PUT("/api/lancamentos/{id}", lancamentoHandler::atualizar)
+				.PUT("/api/lancamentos/{id}/atualiza-status", lancamentoHandler::atualizarStatus)
+				.DELETE("/api/lancamentos/{id}", lancamentoHandler::deletar)
+				.POST("/api/usuarios/autenticar", usuarioHandler::autenticar)
+				.POST("/api/usuarios", usuarioHandler::salvar)
+				.GET("/api/usuarios/{id}/saldo", usuarioHandler::obterSaldo)
+				.GET("/api/usuarios/{id}/resumo", usuarioHandler::obterResumo)
+				.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "financas.seguranca.habilitada", havingValue = "true", matchIfMissing = true)
+	public AutenticacaoTokenWebFilter autenticacaoTokenWebFilter(TokenService tokenService) {
+		return new AutenticacaoTokenWebFilter(tokenService);
+	}
+
+	/**
+	 * O R2DBC não gera o esquema; em produção ele vem dos scripts de
+	 * {@code db/migracao}, e bancos em memória informam aqui o script de criação.
+	 */
+	@Bean
+	@ConditionalOnProperty("financas.reativo.esquema")
+	public ConnectionFactoryInitializer inicializadorEsquema(ConnectionFactory connectionFactory,
+			@Value("${financas.reativo.esquema}") Resource esquema) {
+		ConnectionFactoryInitializer inicializador = new ConnectionFactoryInitializer();
+		inicializador.setConnectionFactory(connectionFactory);
+		inicializador.setDatabasePopulator(new ResourceDatabasePopulator(esquema));
+		return inicializador;
+	}
+
+}
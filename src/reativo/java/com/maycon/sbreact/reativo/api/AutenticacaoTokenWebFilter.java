@@ -0,0 +1,72 @@
+package com.maycon.sbreact.reativo.api;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+import com.maycon.sbreact.exceptions.AutenticacaoException;
+import com.maycon.sbreact.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mesmas regras do {@link AutenticacaoTokenFilter}; o id do usuário autenticado
+ * fica no atributo {@link AutenticacaoTokenFilter#ATRIBUTO_ID_USUARIO} da troca.
+ */
+@RequiredArgsConstructor
+public class AutenticacaoTokenWebFilter implements WebFilter {
+
+	private static final String PREFIXO = "Bearer ";
+
+	private final TokenService tokenService;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (livre(request)) {
+			return chain.filter(exchange);
+		}
+
+		String cabecalho = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (cabecalho == null || !cabecalho.regionMatches(true, 0, PREFIXO, 0, PREFIXO.length())) {
+			return recusar(exchange.getResponse(), "Token de autenticação não informado.");
+		}
+
+		try {
+			Long idUsuario = tokenService.validar(cabecalho.substring(PREFIXO.length()).trim());
+			exchange.getAttributes().put(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, idUsuario);
+		} catch (AutenticacaoException e) {
+			return recusar(exchange.getResponse(), e.getMessage());
+		}
+
+		return chain.filter(exchange);
+	}
+
+	private static boolean livre(ServerHttpRequest request) {
+		String caminho = request.getPath().pathWithinApplication().value();
+		if (!caminho.startsWith("/api/") || request.getMethod() == HttpMethod.OPTIONS) {
+			return true;
+		}
+		return request.getMethod() == HttpMethod.POST
+				&& (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+	}
+
+	private static Mono<Void> recusar(ServerHttpResponse response, String mensagem) {
+		response.setStatusCode(HttpStatus.UNAUTHORIZED);
+		response.getHeaders().setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+		DataBuffer corpo = response.bufferFactory().wrap(mensagem.getBytes(StandardCharsets.UTF_8));
+		return response.writeWith(Mono.just(corpo));
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.maycon.sbreact.reativo.api;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.maycon.sbreact.api.dto.AtualizaStatusDTO;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.resource.Etags;
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.reativo.model.LancamentoReativo;
+import com.maycon.sbreact.reativo.service.LancamentoReativoService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contrato de {@code /api/lancamentos} do {@code LancamentoResource}, sem
+ * bloquear threads enquanto o banco responde.
+ */
+@RequiredArgsConstructor
+public class LancamentoHandler {
+
+	private static final String USUARIO_NAO_ENCONTRADO = "Usuario não encontrado para o id informado.";
+
+	private final LancamentoReativoService service;
+
+	public Mono<ServerResponse> buscar(ServerRequest request) {
+		if (request.queryParam("cursor").isPresent() || request.queryParam("tamanho").isPresent()
+				|| request.queryParam("ordem").isPresent()) {
+			return ServerResponse.badRequest().bodyValue("Paginação por cursor não disponível na API reativa.");
+		}
+
+		Long idUsuario = parametro(request, "usuario", Long::valueOf)
+				.orElseThrow(() -> new ServerWebInputException("Informe o parâmetro usuario."));
+		if (!permite(request, idUsuario)) {
+			return proibido();
+		}
+
+		LancamentoReativo lancamentoFiltro = new LancamentoReativo();
+		lancamentoFiltro.setDescricao(request.queryParam("descricao").orElse(null));
+		lancamentoFiltro.setMes(parametro(request, "mes", Integer::valueOf).orElse(null));
+		lancamentoFiltro.setAno(parametro(request, "ano", Integer::valueOf).orElse(null));
+		lancamentoFiltro.setIdUsuario(idUsuario);
+
+		return service.obterVersaoUsuario(idUsuario)
+				.map(versao -> Etags.usuario(idUsuario, versao))
+				.flatMap(etag -> request.checkNotModified(etag)
+						.switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(etag)
+								.body(service.buscar(lancamentoFiltro).map(LancamentoHandler::converter),
+										LancamentoDTO.class))))
+				.switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+						.bodyValue("Não foi possivel realizar a consulta. Usuário não encontrado.")));
+	}
+
+	/**
+	 * O lançamento é lido antes da ETag para conferir o dono.
+	 */
+	public Mono<ServerResponse> obterLancamento(ServerRequest request) {
+		Long id = id(request);
+		return service.obterPorId(id)
+				.flatMap(lancamento -> {
+					if (!permite(request, lancamento.getIdUsuario())) {
+						return proibido();
+					}
+					String etag = Etags.lancamento(id, lancamento.getVersao());
+					return request.checkNotModified(etag)
+							.switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(etag)
+									.bodyValue(converter(lancamento))));
+				})
+				.switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+	}
+
+	public Mono<ServerResponse> salvar(ServerRequest request) {
+		return request.bodyToMono(LancamentoDTO.class)
+				.map(LancamentoHandler::converter)
+				.flatMap(lancamento -> !permite(request, lancamento.getIdUsuario()) ? proibido()
+						: service.salvar(lancamento)
+								.flatMap(salvo -> ServerResponse.status(HttpStatus.CREATED).bodyValue(converter(salvo))))
+				.as(LancamentoHandler::tratarErros);
+	}
+
+	public Mono<ServerResponse> atualizar(ServerRequest request) {
+		Long id = id(request);
+		return request.bodyToMono(LancamentoDTO.class)
+				.map(dto -> {
+					LancamentoReativo lancamento = converter(dto);
+					lancamento.setId(id);
+					return lancamento;
+				})
+				.flatMap(lancamento -> doUsuario(request, id)
+						.flatMap(permitido -> !permitido || !permite(request, lancamento.getIdUsuario()) ? proibido()
+								: service.atualizar(lancamento)
+										.flatMap(atualizado -> ServerResponse.ok().bodyValue(converter(atualizado)))))
+				.switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+						.bodyValue("Lançamento não encontrado na base de dados.")))
+				.as(LancamentoHandler::tratarErros);
+	}
+
+	public Mono<ServerResponse> atualizarStatus(ServerRequest request) {
+		Long id = id(request);
+		return request.bodyToMono(AtualizaStatusDTO.class)
+				.flatMap(dto -> {
+					StatusLancamento status;
+					try {
+						status = StatusLancamento.valueOf(String.valueOf(dto.getStatus()));
+					} catch (IllegalArgumentException e) {
+						return ServerResponse.badRequest()
+								.bodyValue("Não foi possível atualizar o status do lançamento. Envie um status válido.");
+					}
+					return doUsuario(request, id)
+							.flatMap(permitido -> !permitido ? proibido()
+									: service.atualizarStatus(id, status)
+											.flatMap(atualizado -> ServerResponse.ok().bodyValue(converter(atualizado))))
+							.switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+									.bodyValue("Lançamento não encontrado na base de dados.")));
+				})
+				.as(LancamentoHandler::tratarErros);
+	}
+
+	public Mono<ServerResponse> deletar(ServerRequest request) {
+		Long id = id(request);
+		return doUsuario(request, id)
+				.flatMap(permitido -> !permitido ? proibido()
+						: service.deletar(id).flatMap(excluido -> ServerResponse.noContent().build()))
+				.switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest()
+						.bodyValue("Lancamento não encontrado na base de dados.")))
+				.as(LancamentoHandler::tratarErros);
+	}
+
+	static LancamentoDTO converter(LancamentoReativo lancamento) {
+		return LancamentoDTO.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.valor(lancamento.getValor())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.status(lancamento.getStatus().name())
+				.tipo(lancamento.getTipo().name())
+				.usuario(lancamento.getIdUsuario())
+				.build();
+	}
+
+	static LancamentoReativo converter(LancamentoDTO dto) {
+		if (dto.getUsuario() == null) {
+			throw new RegraNegocioException(USUARIO_NAO_ENCONTRADO);
+		}
+
+		LancamentoReativo lancamento = new LancamentoReativo();
+		lancamento.setId(dto.getId());
+		lancamento.setDescricao(dto.getDescricao());
+		lancamento.setAno(dto.getAno());
+		lancamento.setMes(dto.getMes());
+		lancamento.setValor(dto.getValor());
+		lancamento.setIdUsuario(dto.getUsuario());
+		if (dto.getTipo() != null) {
+			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+		}
+		if (dto.getStatus() != null) {
+			lancamento.setStatus(StatusLancamento.valueOf(dto.getStatus()));
+		}
+
+		return lancamento;
+	}
+
+	/**
+	 * Como no {@code LancamentoResource}, um id de usuário inexistente só é
+	 * detectado pela chave estrangeira ao gravar.
+	 */
+	private static Mono<ServerResponse> tratarErros(Mono<ServerResponse> resposta) {
+		return resposta
+				.onErrorResume(RegraNegocioException.class,
+						e -> ServerResponse.badRequest().bodyValue(e.getMessage()))
+				.onErrorResume(DataIntegrityViolationException.class,
+						e -> ServerResponse.badRequest().bodyValue(USUARIO_NAO_ENCONTRADO));
+	}
+
+	/**
+	 * Se o lançamento é do usuário autenticado; vazio quando ele não existe.
+	 */
+	private Mono<Boolean> doUsuario(ServerRequest request, Long id) {
+		return service.obterPorId(id).map(lancamento -> permite(request, lancamento.getIdUsuario()));
+	}
+
+	/**
+	 * Como o {@code UsuarioAutenticado} da API servlet: sem o filtro de
+	 * autenticação não há usuário na troca e o acesso é permitido.
+	 */
+	static boolean permite(ServerRequest request, Long idUsuario) {
+		return request.attribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO)
+				.map(autenticado -> autenticado.equals(idUsuario))
+				.orElse(true);
+	}
+
+	static Mono<ServerResponse> proibido() {
+		return ServerResponse.status(HttpStatus.FORBIDDEN).build();
+	}
+
+	static Long id(ServerRequest request) {
+		try {
+			return Long.valueOf(request.pathVariable("id"));
+		} catch (NumberFormatException e) {
+			throw new ServerWebInputException("Id inválido.");
+		}
+	}
+
+	static <T> Optional<T> parametro(ServerRequest request, String nome, Function<String, T> conversor) {
+		try {
+			return request.queryParam(nome).map(conversor);
+		} catch (IllegalArgumentException e) {
+			throw new ServerWebInputException("Parâmetro " + nome + " inválido.");
+		}
+	}
+
+}
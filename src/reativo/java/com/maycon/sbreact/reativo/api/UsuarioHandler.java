@@ -0,0 +1,90 @@
+package com.maycon.sbreact.reativo.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.maycon.sbreact.api.dto.ResumoMensalDTO;
+import com.maycon.sbreact.api.dto.UsuarioAutenticadoDTO;
+import com.maycon.sbreact.api.dto.UsuarioDTO;
+import com.maycon.sbreact.api.resource.Etags;
+import com.maycon.sbreact.exceptions.AutenticacaoException;
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.reativo.model.UsuarioReativo;
+import com.maycon.sbreact.reativo.service.LancamentoReativoService;
+import com.maycon.sbreact.reativo.service.UsuarioReativoService;
+import com.maycon.sbreact.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contrato de {@code /api/usuarios} do {@code UsuarioResource}: login,
+ * cadastro, saldo e resumo mensal.
+ */
+@RequiredArgsConstructor
+public class UsuarioHandler {
+
+	private final UsuarioReativoService service;
+	private final LancamentoReativoService lancamentoService;
+	private final TokenService tokenService;
+
+	public Mono<ServerResponse> autenticar(ServerRequest request) {
+		return request.bodyToMono(UsuarioDTO.class)
+				.flatMap(dto -> service.autenticar(dto.getEmail(), dto.getSenha()))
+				.flatMap(usuario -> ServerResponse.ok().bodyValue(UsuarioAutenticadoDTO.builder()
+						.id(usuario.getId())
+						.nome(usuario.getNome())
+						.email(usuario.getEmail())
+						.token(tokenService.gerar(usuario.getId()))
+						.build()))
+				.onErrorResume(AutenticacaoException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+	}
+
+	public Mono<ServerResponse> salvar(ServerRequest request) {
+		return request.bodyToMono(UsuarioDTO.class)
+				.map(dto -> UsuarioReativo.builder().nome(dto.getNome()).email(dto.getEmail()).senha(dto.getSenha())
+						.build())
+				.flatMap(service::salvarUsuario)
+				.flatMap(usuarioSalvo -> ServerResponse.status(HttpStatus.CREATED).bodyValue(usuarioSalvo))
+				.onErrorResume(RegraNegocioException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+	}
+
+	public Mono<ServerResponse> obterSaldo(ServerRequest request) {
+		Long id = LancamentoHandler.id(request);
+		if (!LancamentoHandler.permite(request, id)) {
+			return LancamentoHandler.proibido();
+		}
+
+		return lancamentoService.obterVersaoUsuario(id)
+				.map(versao -> Etags.usuario(id, versao))
+				.flatMap(etag -> request.checkNotModified(etag)
+						.switchIfEmpty(Mono.defer(() -> lancamentoService.obterSaldo(id)
+								.flatMap(saldo -> ServerResponse.ok().eTag(etag).bodyValue(saldo)))))
+				.switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+	}
+
+	public Mono<ServerResponse> obterResumo(ServerRequest request) {
+		Long id = LancamentoHandler.id(request);
+		if (!LancamentoHandler.permite(request, id)) {
+			return LancamentoHandler.proibido();
+		}
+
+		Integer ano = LancamentoHandler.parametro(request, "ano", Integer::valueOf)
+				.orElseThrow(() -> new ServerWebInputException("Informe o parâmetro ano."));
+
+		return service.obterPorId(id)
+				.flatMap(usuario -> ServerResponse.ok().body(lancamentoService.listarResumo(id, ano)
+						.map(linha -> ResumoMensalDTO.builder()
+								.ano(linha.getAno())
+								.mes(linha.getMes())
+								.tipo(linha.getTipo().name())
+								.status(linha.getStatus().name())
+								.valor(linha.getValor())
+								.quantidade(linha.getQuantidade())
+								.build()), ResumoMensalDTO.class))
+				.switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+	}
+
+}
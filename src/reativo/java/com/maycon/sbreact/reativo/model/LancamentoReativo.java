@@ -0,0 +1,62 @@
+package com.maycon.sbreact.reativo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha de {@code financas.lancamento} lida pelo R2DBC. Diferente da entidade
+ * JPA, o usuário é apenas o id da coluna, sem associação.
+ */
+@Table("financas.lancamento")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoReativo {
+
+	@Id
+	@Column("id")
+	private Long id;
+
+	@Column("descricao")
+	private String descricao;
+
+	@Column("mes")
+	private Integer mes;
+
+	@Column("ano")
+	private Integer ano;
+
+	@Column("id_usuario")
+	private Long idUsuario;
+
+	@Column("valor")
+	private BigDecimal valor;
+
+	@Column("data_cadastro")
+	private LocalDate dataCadastro;
+
+	@Column("tipo")
+	private TipoLancamento tipo;
+
+	@Column("status")
+	private StatusLancamento status;
+
+	@Version
+	@Column("versao")
+	private Long versao;
+
+}
@@ -0,0 +1,35 @@
+package com.maycon.sbreact.reativo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Table("financas.usuario")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioReativo {
+
+	@Id
+	@Column("id")
+	private Long id;
+
+	@Column("nome")
+	private String nome;
+
+	@Column("email")
+	private String email;
+
+	@Column("senha")
+	@JsonIgnore
+	private String senha;
+
+}
@@ -0,0 +1,31 @@
+package com.maycon.sbreact.reativo.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.maycon.sbreact.reativo.model.LancamentoReativo;
+
+import reactor.core.publisher.Mono;
+
+public interface LancamentoReativoRepository extends ReactiveCrudRepository<LancamentoReativo, Long> {
+
+	/**
+	 * Cada valor da sequência reserva a faixa (valor - 49 .. valor) usada pelo
+	 * otimizador pooled do Hibernate, então usar o próprio valor como id não
+	 * colide com os ids gerados pela API servlet.
+	 */
+	@Query("SELECT nextval('financas.lancamento_seq')")
+	Mono<Long> proximoId();
+
+	/**
+	 * Zero quando não há lançamentos: um SUM nulo não pode ser emitido pelo Mono.
+	 */
+	@Query("SELECT COALESCE(SUM(valor), 0) FROM financas.lancamento WHERE id_usuario = :idUsuario AND tipo = :tipo AND status = :status")
+	Mono<BigDecimal> obterSaldoPorTipoLancamentoEUsuarioEStatus(Long idUsuario, String tipo, String status);
+
+	@Query("SELECT COALESCE(SUM(saldo), 0) FROM financas.lancamento_arquivado WHERE id_usuario = :idUsuario")
+	Mono<BigDecimal> somarSaldoArquivado(Long idUsuario);
+
+}
@@ -0,0 +1,18 @@
+package com.maycon.sbreact.reativo.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.maycon.sbreact.reativo.model.UsuarioReativo;
+
+import reactor.core.publisher.Mono;
+
+public interface UsuarioReativoRepository extends ReactiveCrudRepository<UsuarioReativo, Long> {
+
+	// a consulta derivada de existsBy não é decodificada como Boolean no Spring Data R2DBC 1.1
+	@Query("SELECT COUNT(*) > 0 FROM financas.usuario WHERE email = :email")
+	Mono<Boolean> existsByEmail(String email);
+
+	Mono<UsuarioReativo> findByEmail(String email);
+
+}
@@ -0,0 +1,369 @@
+package com.maycon.sbreact.reativo.service;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.entity.ResumoMensal;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.reativo.model.LancamentoReativo;
+import com.maycon.sbreact.reativo.repository.LancamentoReativoRepository;
+import com.maycon.sbreact.service.calculo.Centavos;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mesmas regras do {@code LancamentoServiceImpl} sobre R2DBC. O saldo
+ * consolidado, o resumo mensal e a versão do usuário são mantidos por SQL na
+ * mesma transação da gravação, como fazem o {@code SaldoUsuarioServiceImpl}, o
+ * {@code ResumoMensalServiceImpl} e o {@code VersaoUsuarioServiceImpl}, e os
+ * anos fechados pelo {@code financas.arquivo.anos-abertos} são recusados como
+ * no {@code ArquivoLancamentoServiceImpl}.
+ */
+public class LancamentoReativoService {
+
+	private static final String SOMAR_SALDO = "UPDATE financas.saldo_usuario SET saldo = saldo + :valor "
+			+ "WHERE id_usuario = :idUsuario";
+
+	/**
+	 * Como os demais INSERT, não grava nada quando outra transação acabou de
+	 * criar a linha, e quem chama refaz a soma.
+	 */
+	private static final String INSERIR_SALDO = "INSERT INTO financas.saldo_usuario (id_usuario, saldo) "
+			+ "VALUES (:idUsuario, :saldo) ON CONFLICT DO NOTHING";
+
+	private static final String SOMAR_RESUMO = "UPDATE financas.resumo_mensal "
+			+ "SET valor = valor + :valor, quantidade = quantidade + :quantidade "
+			+ "WHERE id_usuario = :idUsuario AND ano = :ano AND mes = :mes AND tipo = :tipo AND status = :status";
+
+	private static final String INSERIR_RESUMO = "INSERT INTO financas.resumo_mensal "
+			+ "(id_usuario, ano, mes, tipo, status, valor, quantidade) "
+			+ "VALUES (:idUsuario, :ano, :mes, :tipo, :status, :valor, :quantidade) ON CONFLICT DO NOTHING";
+
+	private static final String INCREMENTAR_VERSAO = "UPDATE financas.versao_usuario SET versao = versao + 1 "
+			+ "WHERE id_usuario = :idUsuario";
+
+	private static final String INSERIR_VERSAO = "INSERT INTO financas.versao_usuario (id_usuario, versao) "
+			+ "VALUES (:idUsuario, 1) ON CONFLICT DO NOTHING";
+
+	private final LancamentoReativoRepository repository;
+	private final DatabaseClient databaseClient;
+	private final TransactionalOperator transacao;
+	private final int anosAbertos;
+
+	public LancamentoReativoService(LancamentoReativoRepository repository, DatabaseClient databaseClient,
+			TransactionalOperator transacao, @Value("${financas.arquivo.anos-abertos:0}") int anosAbertos) {
+		this.repository = repository;
+		this.databaseClient = databaseClient;
+		this.transacao = transacao;
+		this.anosAbertos = anosAbertos;
+	}
+
+	public Mono<LancamentoReativo> salvar(LancamentoReativo lancamento) {
+		return Mono.fromRunnable(() -> validar(lancamento))
+				.then(repository.proximoId())
+				.flatMap(id -> {
+					lancamento.setId(id);
+					lancamento.setStatus(StatusLancamento.PENDENTE);
+					lancamento.setVersao(0L);
+					// com o id preenchido o save() tentaria um UPDATE
+					return databaseClient.insert().into(LancamentoReativo.class).using(lancamento).then()
+							.then(registrarAlteracao(null, lancamento))
+							.thenReturn(lancamento);
+				})
+				.as(transacao::transactional);
+	}
+
+	/**
+	 * Vazio quando o lançamento não existe.
+	 */
+	public Mono<LancamentoReativo> atualizar(LancamentoReativo lancamento) {
+		Objects.requireNonNull(lancamento.getId());
+		return repository.findById(lancamento.getId())
+				.flatMap(anterior -> {
+					verificarAnoAberto(anterior.getAno());
+					validar(lancamento);
+					if (lancamento.getVersao() == null) {
+						lancamento.setVersao(anterior.getVersao());
+					}
+					return repository.save(lancamento)
+							.flatMap(atualizado -> registrarAlteracao(anterior, atualizado).thenReturn(atualizado));
+				})
+				.as(transacao::transactional);
+	}
+
+	/**
+	 * Vazio quando o lançamento não existe.
+	 */
+	public Mono<LancamentoReativo> atualizarStatus(Long id, StatusLancamento status) {
+		return repository.findById(id)
+				.flatMap(anterior -> {
+					verificarAnoAberto(anterior.getAno());
+					LancamentoReativo atual = anterior.toBuilder().status(status).build();
+					validar(atual);
+					return repository.save(atual)
+							.flatMap(atualizado -> registrarAlteracao(anterior, atualizado).thenReturn(atualizado));
+				})
+				.as(transacao::transactional);
+	}
+
+	/**
+	 * Emite o lançamento excluído, ou vazio quando ele não existe.
+	 */
+	public Mono<LancamentoReativo> deletar(Long id) {
+		return repository.findById(id)
+				.flatMap(anterior -> {
+					verificarAnoAberto(anterior.getAno());
+					return repository.delete(anterior)
+							.then(registrarAlteracao(anterior, null))
+							.thenReturn(anterior);
+				})
+				.as(transacao::transactional);
+	}
+
+	public Mono<LancamentoReativo> obterPorId(Long id) {
+		return repository.findById(id);
+	}
+
+	/**
+	 * Zero para o usuário sem alterações registradas e vazio quando o usuário não existe.
+	 */
+	public Mono<Long> obterVersaoUsuario(Long idUsuario) {
+		return databaseClient.execute("SELECT COALESCE(v.versao, 0) AS versao FROM financas.usuario u "
+				+ "LEFT JOIN financas.versao_usuario v ON v.id_usuario = u.id WHERE u.id = :idUsuario")
+				.bind("idUsuario", idUsuario)
+				.map(linha -> linha.get("versao", Long.class))
+				.one();
+	}
+
+	public Flux<LancamentoReativo> buscar(LancamentoReativo filtro) {
+		StringBuilder sql = new StringBuilder("SELECT * FROM financas.lancamento WHERE id_usuario = :idUsuario");
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		parametros.put("idUsuario", filtro.getIdUsuario());
+
+		if (filtro.getDescricao() != null && !filtro.getDescricao().isEmpty()) {
+			sql.append(" AND LOWER(descricao) LIKE :descricao ESCAPE '\\'");
+			parametros.put("descricao", contendo(filtro.getDescricao()));
+		}
+
+		if (filtro.getMes() != null) {
+			sql.append(" AND mes = :mes");
+			parametros.put("mes", filtro.getMes());
+		}
+
+		if (filtro.getAno() != null) {
+			sql.append(" AND ano = :ano");
+			parametros.put("ano", filtro.getAno());
+		}
+
+		sql.append(" ORDER BY ano, mes, id");
+
+		GenericExecuteSpec consulta = databaseClient.execute(sql.toString());
+		for (Map.Entry<String, Object> parametro : parametros.entrySet()) {
+			consulta = consulta.bind(parametro.getKey(), parametro.getValue());
+		}
+		return consulta.as(LancamentoReativo.class).fetch().all();
+	}
+
+	public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+		return databaseClient.execute("SELECT saldo FROM financas.saldo_usuario WHERE id_usuario = :idUsuario")
+				.bind("idUsuario", idUsuario)
+				.map(linha -> linha.get("saldo", BigDecimal.class))
+				.one()
+				.switchIfEmpty(Mono.defer(() -> calcularPelosLancamentos(idUsuario)));
+	}
+
+	public Flux<ResumoMensal> listarResumo(Long idUsuario, Integer ano) {
+		return databaseClient.execute("SELECT * FROM financas.resumo_mensal "
+				+ "WHERE id_usuario = :idUsuario AND ano = :ano AND quantidade > 0 ORDER BY mes, tipo, status")
+				.bind("idUsuario", idUsuario)
+				.bind("ano", ano)
+				.map(linha -> ResumoMensal.builder()
+						.idUsuario(linha.get("id_usuario", Long.class))
+						.ano(linha.get("ano", Integer.class))
+						.mes(linha.get("mes", Integer.class))
+						.tipo(TipoLancamento.valueOf(linha.get("tipo", String.class)))
+						.status(StatusLancamento.valueOf(linha.get("status", String.class)))
+						.valor(linha.get("valor", BigDecimal.class))
+						.quantidade(linha.get("quantidade", Long.class))
+						.build())
+				.all();
+	}
+
+	public void validar(LancamentoReativo lancamento) {
+
+		if (lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")) {
+			throw new RegraNegocioException("Informe uma descrição válida.");
+		}
+
+		if (lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() > 12) {
+			throw new RegraNegocioException("Informe um mês válido.");
+		}
+
+		if (lancamento.getAno() == null || lancamento.getAno().toString().length() != 4) {
+			throw new RegraNegocioException("Informe um ano válido.");
+		}
+
+		if (lancamento.getIdUsuario() == null) {
+			throw new RegraNegocioException("Informe um usuário.");
+		}
+
+		if (lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1) {
+			throw new RegraNegocioException("Informe um valor válido.");
+		}
+
+		if (lancamento.getValor().stripTrailingZeros().scale() > Centavos.ESCALA) {
+			throw new RegraNegocioException("Informe um valor com no máximo duas casas decimais.");
+		}
+
+		if (lancamento.getTipo() == null) {
+			throw new RegraNegocioException("Informe um tipo de lançamento.");
+		}
+
+		verificarAnoAberto(lancamento.getAno());
+	}
+
+	private void verificarAnoAberto(Integer ano) {
+		if (anosAbertos > 0 && ano < Year.now().getValue() - anosAbertos + 1) {
+			throw new RegraNegocioException("O ano informado está fechado e não aceita lançamentos.");
+		}
+	}
+
+	/**
+	 * Total dos anos arquivados mais o dos lançamentos ativos, como no
+	 * {@code SaldoUsuarioServiceImpl}.
+	 */
+	private Mono<BigDecimal> calcularPelosLancamentos(Long idUsuario) {
+		Mono<BigDecimal> arquivado = repository.somarSaldoArquivado(idUsuario);
+		Mono<BigDecimal> receitas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario,
+				TipoLancamento.RECEITA.name(), StatusLancamento.EFETIVADO.name());
+		Mono<BigDecimal> despesas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario,
+				TipoLancamento.DESPESA.name(), StatusLancamento.EFETIVADO.name());
+		return Mono.zip(arquivado, receitas, despesas)
+				.map(somas -> Centavos.paraBigDecimal(
+						Centavos.de(somas.getT1()) + Centavos.de(somas.getT2()) - Centavos.de(somas.getT3())));
+	}
+
+	private Mono<Void> registrarAlteracao(LancamentoReativo anterior, LancamentoReativo atual) {
+		Map<Long, long[]> saldos = new LinkedHashMap<>();
+		Map<ResumoMensal.Chave, Variacao> resumos = new LinkedHashMap<>();
+		if (anterior != null) {
+			saldos.computeIfAbsent(anterior.getIdUsuario(), id -> new long[1])[0] -= contribuicao(anterior);
+			acumular(resumos, chave(anterior), -centavos(anterior), -1);
+		}
+		if (atual != null) {
+			saldos.computeIfAbsent(atual.getIdUsuario(), id -> new long[1])[0] += contribuicao(atual);
+			acumular(resumos, chave(atual), centavos(atual), 1);
+		}
+
+		return Flux.fromIterable(saldos.entrySet())
+				.concatMap(saldo -> aplicarSaldo(saldo.getKey(), saldo.getValue()[0]))
+				.thenMany(Flux.fromIterable(resumos.entrySet())
+						.concatMap(resumo -> aplicarResumo(resumo.getKey(), resumo.getValue())))
+				.thenMany(Flux.fromIterable(saldos.keySet()).concatMap(this::incrementarVersao))
+				.then();
+	}
+
+	private Mono<Void> incrementarVersao(Long idUsuario) {
+		Mono<Integer> incrementar = Mono.defer(() -> databaseClient.execute(INCREMENTAR_VERSAO)
+				.bind("idUsuario", idUsuario)
+				.fetch().rowsUpdated());
+		return incrementar
+				.flatMap(atualizados -> atualizados > 0 ? Mono.<Integer>empty()
+						: databaseClient.execute(INSERIR_VERSAO).bind("idUsuario", idUsuario).fetch().rowsUpdated())
+				// outra transação criou a linha entre as duas instruções
+				.flatMap(inseridos -> inseridos > 0 ? Mono.<Integer>empty() : incrementar)
+				.then();
+	}
+
+	private Mono<Void> aplicarSaldo(Long idUsuario, long centavos) {
+		if (centavos == 0) {
+			return Mono.empty();
+		}
+
+		Mono<Integer> somar = Mono.defer(() -> databaseClient.execute(SOMAR_SALDO)
+				.bind("valor", Centavos.paraBigDecimal(centavos))
+				.bind("idUsuario", idUsuario)
+				.fetch().rowsUpdated());
+		return somar
+				// primeira alteração do usuário: a consulta já enxerga o lançamento alterado nesta transação
+				.flatMap(atualizados -> atualizados > 0 ? Mono.<Integer>empty()
+						: calcularPelosLancamentos(idUsuario).flatMap(saldo -> databaseClient.execute(INSERIR_SALDO)
+								.bind("idUsuario", idUsuario)
+								.bind("saldo", saldo)
+								.fetch().rowsUpdated()))
+				// outra transação criou a linha depois da soma, sem esta alteração
+				.flatMap(inseridos -> inseridos > 0 ? Mono.<Integer>empty() : somar)
+				.then();
+	}
+
+	private Mono<Void> aplicarResumo(ResumoMensal.Chave chave, Variacao variacao) {
+		if (variacao.quantidade == 0 && variacao.centavos == 0) {
+			return Mono.empty();
+		}
+
+		Mono<Integer> somar = Mono.defer(() -> vincular(databaseClient.execute(SOMAR_RESUMO), chave, variacao)
+				.fetch().rowsUpdated());
+		return somar
+				// sem linha para a chave, não há lançamentos anteriores nela
+				.flatMap(atualizados -> atualizados > 0 ? Mono.<Integer>empty()
+						: vincular(databaseClient.execute(INSERIR_RESUMO), chave, variacao).fetch().rowsUpdated())
+				// outra transação criou a linha entre as duas instruções
+				.flatMap(inseridos -> inseridos > 0 ? Mono.<Integer>empty() : somar)
+				.then();
+	}
+
+	private static GenericExecuteSpec vincular(GenericExecuteSpec comando, ResumoMensal.Chave chave,
+			Variacao variacao) {
+		return comando.bind("idUsuario", chave.getIdUsuario())
+				.bind("ano", chave.getAno())
+				.bind("mes", chave.getMes())
+				.bind("tipo", chave.getTipo().name())
+				.bind("status", chave.getStatus().name())
+				.bind("valor", Centavos.paraBigDecimal(variacao.centavos))
+				.bind("quantidade", variacao.quantidade);
+	}
+
+	private static void acumular(Map<ResumoMensal.Chave, Variacao> variacoes, ResumoMensal.Chave chave,
+			long centavos, long quantidade) {
+		Variacao variacao = variacoes.computeIfAbsent(chave, c -> new Variacao());
+		variacao.centavos += centavos;
+		variacao.quantidade += quantidade;
+	}
+
+	private static ResumoMensal.Chave chave(LancamentoReativo lancamento) {
+		return new ResumoMensal.Chave(lancamento.getIdUsuario(), lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), lancamento.getStatus());
+	}
+
+	private static long centavos(LancamentoReativo lancamento) {
+		return Centavos.de(lancamento.getValor());
+	}
+
+	private static long contribuicao(LancamentoReativo lancamento) {
+		return Centavos.contribuicao(lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+	}
+
+	private static String contendo(String descricao) {
+		String escapada = descricao.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return "%" + escapada + "%";
+	}
+
+	private static class Variacao {
+
+		long centavos;
+		long quantidade;
+
+	}
+
+}
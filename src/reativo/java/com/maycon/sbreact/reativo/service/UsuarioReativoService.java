@@ -0,0 +1,87 @@
+package com.maycon.sbreact.reativo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.maycon.sbreact.exceptions.AutenticacaoException;
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.reativo.model.UsuarioReativo;
+import com.maycon.sbreact.reativo.repository.UsuarioReativoRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Mesmas regras do {@code UsuarioServiceImpl}. O BCrypt consome dezenas de
+ * milissegundos de CPU e roda fora do event loop.
+ */
+public class UsuarioReativoService {
+
+	private final UsuarioReativoRepository repository;
+	private final PasswordEncoder passwordEncoder;
+
+	public UsuarioReativoService(UsuarioReativoRepository repository, PasswordEncoder passwordEncoder) {
+		this.repository = repository;
+		this.passwordEncoder = passwordEncoder;
+	}
+
+	public Mono<UsuarioReativo> autenticar(String email, String senha) {
+		return repository.findByEmail(email)
+				.switchIfEmpty(Mono.defer(() -> Mono.error(new AutenticacaoException("Usuário não encontrado."))))
+				.flatMap(usuario -> conferirSenha(usuario, senha));
+	}
+
+	public Mono<UsuarioReativo> salvarUsuario(UsuarioReativo usuario) {
+		Mono<String> senha = usuario.getSenha() == null ? Mono.empty()
+				: codificar(usuario.getSenha()).doOnNext(usuario::setSenha);
+		return validarEmail(usuario.getEmail())
+				.then(senha)
+				.then(Mono.defer(() -> repository.save(usuario)));
+	}
+
+	public Mono<Void> validarEmail(String email) {
+		return repository.existsByEmail(email)
+				.flatMap(existe -> existe
+						? Mono.error(new RegraNegocioException("Ja existe um usuário cadastrado com este email."))
+						: Mono.empty());
+	}
+
+	public Mono<UsuarioReativo> obterPorId(Long id) {
+		return repository.findById(id);
+	}
+
+	private Mono<UsuarioReativo> conferirSenha(UsuarioReativo usuario, String senha) {
+		String senhaArmazenada = usuario.getSenha();
+		if (senhaArmazenada == null || senha == null) {
+			return Mono.error(new AutenticacaoException("Senha inválida"));
+		}
+
+		if (senhaLegada(senhaArmazenada)) {
+			if (!MessageDigest.isEqual(senhaArmazenada.getBytes(StandardCharsets.UTF_8),
+					senha.getBytes(StandardCharsets.UTF_8))) {
+				return Mono.error(new AutenticacaoException("Senha inválida"));
+			}
+			// senhas gravadas antes do hash são convertidas no primeiro login
+			return codificar(senha).flatMap(hash -> {
+				usuario.setSenha(hash);
+				return repository.save(usuario);
+			});
+		}
+
+		return Mono.fromCallable(() -> passwordEncoder.matches(senha, senhaArmazenada))
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMap(confere -> confere ? Mono.just(usuario)
+						: Mono.error(new AutenticacaoException("Senha inválida")));
+	}
+
+	private Mono<String> codificar(String senha) {
+		return Mono.fromCallable(() -> passwordEncoder.encode(senha)).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private static boolean senhaLegada(String senha) {
+		return !senha.startsWith("$2");
+	}
+
+}
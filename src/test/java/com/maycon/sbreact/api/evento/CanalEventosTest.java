@@ -0,0 +1,103 @@
+package com.maycon.sbreact.api.evento;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+import com.maycon.sbreact.service.evento.UsuariosAlteradosEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CanalEventosTest {
+
+	LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+	VersaoUsuarioService versaoUsuarioService = Mockito.mock(VersaoUsuarioService.class);
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	// as tarefas de envio só rodam quando o teste pede
+	List<Runnable> tarefas = new ArrayList<>();
+
+	CanalEventos canal = new CanalEventos(lancamentoService, versaoUsuarioService, registry, 2,
+			Duration.ofMinutes(1), Duration.ofMinutes(1), tarefas::add);
+
+	@BeforeEach
+	public void setUp() {
+		Mockito.when(versaoUsuarioService.obterVersao(Mockito.anyLong())).thenReturn(Optional.of(1l));
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(Mockito.anyLong())).thenReturn(BigDecimal.TEN);
+	}
+
+	@Test
+	@DisplayName("Deve encerrar a assinatura do cliente que não consome os eventos quando a fila enche.")
+	public void descartaAssinanteLento() {
+		canal.assinar(1l);
+		canal.assinar(2l);
+
+		canal.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarLancamento(1l)));
+		assertThat(canal.quantidadeAssinantes()).isEqualTo(2);
+
+		canal.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarLancamento(1l)));
+		assertThat(canal.quantidadeAssinantes()).isEqualTo(1);
+		assertThat(registry.get(CanalEventos.METRICA_DESCARTADOS).counter().count()).isEqualTo(1);
+		assertThat(registry.get(CanalEventos.METRICA_ASSINANTES).gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve esvaziar a fila do assinante com uma única tarefa de envio por vez.")
+	public void enviaEventosEnfileirados() {
+		canal.assinar(1l);
+		canal.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarLancamento(1l)));
+		assertThat(tarefas).hasSize(1);
+
+		tarefas.remove(0).run();
+		canal.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarLancamento(1l)));
+		canal.aoAlterarLancamento(new LancamentoAlteradoEvent(null, criarLancamento(1l)));
+
+		assertThat(tarefas).hasSize(1);
+		assertThat(canal.quantidadeAssinantes()).isEqualTo(1);
+		assertThat(registry.get(CanalEventos.METRICA_DESCARTADOS).counter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve calcular o saldo alterado apenas dos usuários com assinantes.")
+	public void calculaSaldoApenasDeAssinantes() {
+		canal.assinar(1l);
+		Mockito.clearInvocations(lancamentoService);
+
+		canal.aoAlterarUsuarios(new UsuariosAlteradosEvent(Arrays.asList(1l, 2l)));
+		new ArrayList<>(tarefas).forEach(Runnable::run);
+
+		Mockito.verify(lancamentoService).obterSaldoPorUsuario(1l);
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(2l);
+	}
+
+	private Lancamento criarLancamento(Long idUsuario) {
+		return Lancamento.builder()
+				.id(1l)
+				.descricao("Salário")
+				.valor(BigDecimal.TEN)
+				.mes(1)
+				.ano(2020)
+				.tipo(TipoLancamento.RECEITA)
+				.status(StatusLancamento.PENDENTE)
+				.usuario(Usuario.builder().id(idUsuario).build())
+				.build();
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.maycon.sbreact.api.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.dto.UsuarioDTO;
+import com.maycon.sbreact.model.entity.Usuario;
+
+/**
+ * No Tomcat de verdade: a compressão é do conector, e o MockMvc não a aplica.
+ * O cliente é o do JDK, que entrega a resposta ainda comprimida.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class CompressaoRespostaTest {
+
+	@Autowired
+	TestRestTemplate rest;
+
+	@Test
+	@DisplayName("Deve comprimir a listagem de lançamentos, que tem ETag fraca.")
+	public void comprimeListagem() {
+		UsuarioDTO usuario = UsuarioDTO.builder().nome("compressao").email("compressao@email.com").senha("senha")
+				.build();
+		Long idUsuario = rest.postForObject("/api/usuarios", usuario, Usuario.class).getId();
+
+		List<LancamentoDTO> lancamentos = new ArrayList<>();
+		for (int i = 1; i <= 50; i++) {
+			lancamentos.add(LancamentoDTO.builder().descricao("lançamento " + i).mes(1).ano(2020)
+					.valor(BigDecimal.TEN).tipo("DESPESA").usuario(idUsuario).build());
+		}
+		assertThat(rest.postForEntity("/api/lancamentos/lote", lancamentos, String.class).getStatusCode()
+				.is2xxSuccessful()).isTrue();
+
+		HttpHeaders cabecalhos = new HttpHeaders();
+		cabecalhos.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		ResponseEntity<byte[]> resposta = rest.exchange("/api/lancamentos?usuario={id}", HttpMethod.GET,
+				new HttpEntity<>(cabecalhos), byte[].class, idUsuario);
+
+		assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(resposta.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(resposta.getHeaders().getETag()).startsWith("W/\"u" + idUsuario + "-v");
+
+		cabecalhos.setIfNoneMatch(resposta.getHeaders().getETag());
+		ResponseEntity<byte[]> naoModificada = rest.exchange("/api/lancamentos?usuario={id}", HttpMethod.GET,
+				new HttpEntity<>(cabecalhos), byte[].class, idUsuario);
+
+		assertThat(naoModificada.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+}
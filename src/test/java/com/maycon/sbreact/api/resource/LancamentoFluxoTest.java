@@ -0,0 +1,161 @@
+package com.maycon.sbreact.api.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.maycon.sbreact.api.dto.AtualizaStatusDTO;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.dto.UsuarioDTO;
+
+/**
+ * Os fluxos passam pela aplicação inteira, com a mesma sessão do Hibernate
+ * entre o resource e o serviço, como acontece em produção.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LancamentoFluxoTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper mapper;
+
+	@Autowired
+	DataSource dataSource;
+
+	Long idUsuario;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		UsuarioDTO usuario = UsuarioDTO.builder().nome("fluxo").email("fluxo" + System.nanoTime() + "@email.com")
+				.senha("senha").build();
+		idUsuario = executar(MockMvcRequestBuilders.post("/api/usuarios").content(json(usuario))).get("id").asLong();
+	}
+
+	@Test
+	@DisplayName("Deve mover o saldo ao alterar o status de um lançamento.")
+	public void alteracaoDeStatusMoveSaldo() throws Exception {
+		salvar("100");
+		executar(MockMvcRequestBuilders.post("/api/usuarios/{id}/saldo/recalcular", idUsuario));
+		Long id = salvar("50");
+
+		executar(MockMvcRequestBuilders.put(API + "/{id}/atualiza-status", id)
+				.content(json(new AtualizaStatusDTO("EFETIVADO"))));
+
+		assertThat(saldo()).isEqualByComparingTo("50");
+		assertThat(executar(MockMvcRequestBuilders.post("/api/usuarios/{id}/saldo/recalcular", idUsuario))
+				.decimalValue()).isEqualByComparingTo("50");
+	}
+
+	@Test
+	@DisplayName("Deve mover o resumo mensal ao alterar o status, o valor e ao excluir um lançamento.")
+	public void alteracoesMovemResumo() throws Exception {
+		salvar("100");
+		Long id = salvar("50");
+
+		executar(MockMvcRequestBuilders.put(API + "/{id}/atualiza-status", id)
+				.content(json(new AtualizaStatusDTO("EFETIVADO"))));
+
+		assertThat(resumo("PENDENTE").get("valor").decimalValue()).isEqualByComparingTo("100");
+		assertThat(resumo("EFETIVADO").get("valor").decimalValue()).isEqualByComparingTo("50");
+
+		LancamentoDTO alterado = criarLancamentoDTO("300");
+		alterado.setStatus("EFETIVADO");
+		executar(MockMvcRequestBuilders.put(API + "/{id}", id).content(json(alterado)));
+
+		assertThat(resumo("EFETIVADO").get("valor").decimalValue()).isEqualByComparingTo("300");
+		assertThat(saldo()).isEqualByComparingTo("300");
+
+		mvc.perform(MockMvcRequestBuilders.delete(API + "/{id}", id))
+				.andExpect(MockMvcResultMatchers.status().isNoContent());
+
+		JsonNode resumo = resumo();
+		assertThat(resumo).hasSize(1);
+		assertThat(resumo.get(0).get("status").asText()).isEqualTo("PENDENTE");
+		assertThat(resumo.get(0).get("valor").decimalValue()).isEqualByComparingTo("100");
+		assertThat(resumo.get(0).get("quantidade").asLong()).isEqualTo(1);
+		assertThat(saldo()).isEqualByComparingTo("0");
+	}
+
+	@Test
+	@DisplayName("Deve devolver a conexão ao pool enquanto a assinatura de eventos fica aberta.")
+	public void assinaturaDeEventosNaoPrendeConexao() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/{id}/eventos", idUsuario)
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+		assertThat(dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections())
+				.isZero();
+	}
+
+	private Long salvar(String valor) throws Exception {
+		return executar(MockMvcRequestBuilders.post(API).content(json(criarLancamentoDTO(valor)))).get("id").asLong();
+	}
+
+	private BigDecimal saldo() throws Exception {
+		return executar(MockMvcRequestBuilders.get("/api/usuarios/{id}/saldo", idUsuario)).decimalValue();
+	}
+
+	private JsonNode resumo() throws Exception {
+		return executar(MockMvcRequestBuilders.get("/api/usuarios/{id}/resumo", idUsuario).param("ano", "2020"));
+	}
+
+	private JsonNode resumo(String status) throws Exception {
+		for (JsonNode linha : resumo()) {
+			if (linha.get("status").asText().equals(status)) {
+				return linha;
+			}
+		}
+		throw new AssertionError("Sem resumo para o status " + status);
+	}
+
+	private JsonNode executar(MockHttpServletRequestBuilder requisicao) throws Exception {
+		String corpo = mvc.perform(requisicao.contentType(JSON).accept(JSON))
+				.andExpect(MockMvcResultMatchers.status().is2xxSuccessful())
+				.andReturn().getResponse().getContentAsString();
+		return mapper.readTree(corpo);
+	}
+
+	private String json(Object objeto) throws Exception {
+		return mapper.writeValueAsString(objeto);
+	}
+
+	private LancamentoDTO criarLancamentoDTO(String valor) {
+		return LancamentoDTO.builder()
+				.descricao("fluxo")
+				.ano(2020)
+				.mes(1)
+				.valor(new BigDecimal(valor))
+				.tipo("RECEITA")
+				.usuario(idUsuario)
+				.build();
+	}
+
+}
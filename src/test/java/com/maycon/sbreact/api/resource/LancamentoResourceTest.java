@@ -0,0 +1,505 @@
+package com.maycon.sbreact.api.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maycon.sbreact.api.dto.AtualizaStatusLoteDTO;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
+import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.consulta.Pagina;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.BuscaDescricaoService;
+import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.UsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoResource.class)
+@AutoConfigureMockMvc
+public class LancamentoResourceTest {
+
+	static final String API = "/api/lancamentos";
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	LancamentoService service;
+
+	@MockBean
+	UsuarioService usuarioService;
+
+	@MockBean
+	BuscaDescricaoService buscaDescricaoService;
+
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+
+	@Test
+	@DisplayName("Deve recusar a listagem de lançamentos de outro usuário que não o do token.")
+	public void buscarLancamentosDeOutroUsuario() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1"))
+				.requestAttr(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 2l))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(service, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve recusar a exclusão de lançamento de outro usuário que não o do token.")
+	public void deletarLancamentoDeOutroUsuario() throws Exception {
+		Lancamento lancamento = Lancamento.builder().id(1l).usuario(Usuario.builder().id(1l).build()).build();
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(lancamento));
+
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/1"))
+				.requestAttr(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 2l))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(service, Mockito.never()).deletarLancamento(Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request ao excluir lançamento de ano fechado.")
+	public void deletarLancamentoDeAnoFechado() throws Exception {
+		Lancamento lancamento = Lancamento.builder().id(1l).usuario(Usuario.builder().id(1l).build()).build();
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(lancamento));
+		Mockito.doThrow(new RegraNegocioException("O ano informado está fechado e não aceita lançamentos."))
+				.when(service).deletarLancamento(lancamento);
+
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/1")))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.content()
+						.string("O ano informado está fechado e não aceita lançamentos."));
+	}
+
+	@Test
+	@DisplayName("Deve recusar o detalhe de lançamento de outro usuário e aceitar o do próprio usuário.")
+	public void obterLancamentoConfereDono() throws Exception {
+		Mockito.when(service.listarIdsUsuario(Arrays.asList(1l))).thenReturn(Arrays.asList(1l));
+		Mockito.when(service.obterVersao(1l)).thenReturn(Optional.of(0l));
+		Mockito.when(service.obterProjecaoPorId(1l, CampoLancamento.TODOS))
+				.thenReturn(Optional.of(criarProjecao(1l, "Aluguel")));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1"))
+				.requestAttr(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 2l))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1"))
+				.requestAttr(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 1l))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	@Test
+	@DisplayName("Deve recusar o lote de status com lançamentos de outro usuário que não o do token.")
+	public void atualizarStatusEmLoteDeOutroUsuario() throws Exception {
+		Mockito.when(service.listarIdsUsuario(Arrays.asList(1l, 2l))).thenReturn(Arrays.asList(1l, 2l));
+		String json = new ObjectMapper().writeValueAsString(AtualizaStatusLoteDTO.builder()
+				.ids(Arrays.asList(1l, 2l)).status("EFETIVADO").build());
+
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status")).content(json)
+				.contentType(MediaType.APPLICATION_JSON)
+				.requestAttr(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 1l))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(service, Mockito.never()).atualizarStatusEmLote(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve liberar o PATCH de outra origem e expor a ETag para o If-Match.")
+	public void corsLiberaPatchEExpoeEtag() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.options(API.concat("/1"))
+				.header(HttpHeaders.ORIGIN, "http://localhost:3000")
+				.header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+						Matchers.containsString("PATCH")));
+
+		Mockito.when(service.listarIdsUsuario(Arrays.asList(1l))).thenReturn(Arrays.asList(1l));
+		Mockito.when(service.obterVersao(1l)).thenReturn(Optional.of(0l));
+		Mockito.when(service.obterProjecaoPorId(1l, CampoLancamento.TODOS))
+				.thenReturn(Optional.of(criarProjecao(1l, "Aluguel")));
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1")).header(HttpHeaders.ORIGIN, "http://localhost:3000"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "ETag"));
+	}
+
+	@Test
+	@DisplayName("Deve exportar os lançamentos do usuário em CSV.")
+	public void exportaCsv() throws Exception {
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.doAnswer(invocacao -> {
+			Consumer<LancamentoProjecao> consumidor = invocacao.getArgument(1);
+			consumidor.accept(criarProjecao(1l, "Aluguel, casa"));
+			consumidor.accept(criarProjecao(2l, "Salário"));
+			return null;
+		}).when(service).exportar(Mockito.eq(1l), Mockito.any());
+
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export?usuario=1&formato=csv")))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().string("id,descricao,mes,ano,valor,usuario,tipo,status\r\n"
+						+ "1,\"Aluguel, casa\",1,2019,10,1,RECEITA,PENDENTE\r\n"
+						+ "2,Salário,1,2019,10,1,RECEITA,PENDENTE\r\n"));
+	}
+
+	@Test
+	@DisplayName("Deve exportar os lançamentos do usuário em NDJSON.")
+	public void exportaNdjson() throws Exception {
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.doAnswer(invocacao -> {
+			Consumer<LancamentoProjecao> consumidor = invocacao.getArgument(1);
+			consumidor.accept(criarProjecao(1l, "Aluguel"));
+			consumidor.accept(criarProjecao(2l, "Salário"));
+			return null;
+		}).when(service).exportar(Mockito.eq(1l), Mockito.any());
+
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export?usuario=1")))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+		String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string("Content-Type", "application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(corpo.split("\n")).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request ao exportar lançamentos de usuário inexistente.")
+	public void exportaUsuarioInexistente() throws Exception {
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/export?usuario=1")))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Mockito.verify(service, Mockito.never()).exportar(Mockito.anyLong(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve importar um lote de lançamentos sem consultar os usuários.")
+	public void salvarLote() throws Exception {
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(usuario);
+		Mockito.when(service.salvarLote(Mockito.anyList())).then(invocacao -> {
+			List<Lancamento> lancamentos = invocacao.getArgument(0);
+			long id = 1;
+			for (Lancamento lancamento : lancamentos) {
+				lancamento.setId(id++);
+				lancamento.setStatus(StatusLancamento.PENDENTE);
+			}
+			return lancamentos;
+		});
+
+		List<LancamentoDTO> dtos = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			dtos.add(LancamentoDTO.builder().descricao("lancamento " + i).mes(1).ano(2020).valor(BigDecimal.TEN)
+					.usuario(1l).tipo("DESPESA").build());
+		}
+
+		mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote")).contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(dtos)))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[2].id").value(3));
+
+		Mockito.verify(usuarioService, Mockito.times(1)).obterReferencia(1l);
+		Mockito.verify(usuarioService, Mockito.never()).obterPorId(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request ao salvar lançamento de usuário inexistente.")
+	public void salvarUsuarioInexistente() throws Exception {
+		Mockito.when(usuarioService.obterReferencia(1l)).thenReturn(Usuario.builder().id(1l).build());
+		Mockito.when(service.salvar(Mockito.any(Lancamento.class)))
+				.thenThrow(new DataIntegrityViolationException("fk_usuario"));
+		LancamentoDTO dto = LancamentoDTO.builder().descricao("lancamento").mes(1).ano(2020).valor(BigDecimal.TEN)
+				.usuario(1l).tipo("DESPESA").build();
+
+		mvc.perform(MockMvcRequestBuilders.post(API).contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(dto)))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.content().string("Usuario não encontrado para o id informado."));
+	}
+
+	@Test
+	@DisplayName("Deve listar os lançamentos do usuário como DTO.")
+	public void buscar() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(4l));
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class), Mockito.any()))
+				.thenReturn(Arrays.asList(criarProjecao(1l, "Aluguel")));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"u1-v4\""))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].usuario").value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].tipo").value("RECEITA"));
+	}
+
+	@Test
+	@DisplayName("Deve escrever a listagem com os mesmos campos do DTO serializado pelo Jackson.")
+	public void buscarEscreveComoDto() throws Exception {
+		LancamentoProjecao semDescricao = new LancamentoProjecao(2l, null, 2, 2019, new BigDecimal("-10.50"), 1l,
+				TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(4l));
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class), Mockito.any()))
+				.thenReturn(Arrays.asList(criarProjecao(1l, "Aluguel \"casa\""), semDescricao));
+
+		List<LancamentoDTO> esperados = Arrays.asList(
+				LancamentoDTO.builder().id(1l).descricao("Aluguel \"casa\"").mes(1).ano(2019).valor(BigDecimal.TEN)
+						.usuario(1l).tipo("RECEITA").status("PENDENTE").build(),
+				LancamentoDTO.builder().id(2l).mes(2).ano(2019).valor(new BigDecimal("-10.50")).usuario(1l)
+						.tipo("DESPESA").status("EFETIVADO").build());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(MockMvcResultMatchers.content().string(new ObjectMapper().writeValueAsString(esperados)));
+	}
+
+	@Test
+	@DisplayName("Deve consultar e escrever apenas os campos informados em fields.")
+	public void buscarCamposSelecionados() throws Exception {
+		Set<CampoLancamento> campos = EnumSet.of(CampoLancamento.ID, CampoLancamento.DESCRICAO,
+				CampoLancamento.VALOR, CampoLancamento.STATUS);
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(4l));
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class), Mockito.eq(campos))).thenReturn(Arrays.asList(
+				new LancamentoProjecao(1l, "Aluguel", null, null, BigDecimal.TEN, null, null, StatusLancamento.PENDENTE)));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1&fields=id,descricao,valor,status")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content()
+						.string("[{\"id\":1,\"descricao\":\"Aluguel\",\"valor\":10,\"status\":\"PENDENTE\"}]"));
+	}
+
+	@Test
+	@DisplayName("Deve escrever apenas os campos informados em fields em cada item da página.")
+	public void buscarPaginaCamposSelecionados() throws Exception {
+		Set<CampoLancamento> campos = EnumSet.of(CampoLancamento.VALOR);
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(4l));
+		Mockito.when(service.buscarPagina(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(false),
+				Mockito.eq(10), Mockito.eq(campos)))
+				.thenReturn(new Pagina<>(Arrays.asList(criarProjecao(1l, "Aluguel")), null));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1&tamanho=10&fields=valor")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content()
+						.string("{\"conteudo\":[{\"valor\":10}],\"proximoCursor\":null}"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request quando fields tiver um campo inexistente.")
+	public void buscarCampoInvalido() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1&fields=id,senha")))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		Mockito.verify(service, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request quando fields tiver um campo em branco.")
+	public void buscarCampoEmBranco() throws Exception {
+		for (String fields : new String[] { ",", "id,", "id,,tipo", " ," }) {
+			mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("fields", fields))
+					.andExpect(MockMvcResultMatchers.status().isBadRequest())
+					.andExpect(MockMvcResultMatchers.content()
+							.string("Campo inválido: . Informe id, descricao, mes, ano, valor, usuario, tipo ou status."));
+		}
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("tamanho", "10").param("fields", ","))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		Mockito.verify(service, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any());
+		Mockito.verify(service, Mockito.never()).buscarPagina(Mockito.any(), Mockito.any(), Mockito.anyBoolean(),
+				Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar not modified na listagem sem consultar os lançamentos quando a versão do usuário não mudou.")
+	public void buscarNaoModificado() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(4l));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1")).header(HttpHeaders.IF_NONE_MATCH, "W/\"u1-v4\""))
+				.andExpect(MockMvcResultMatchers.status().isNotModified())
+				.andExpect(MockMvcResultMatchers.content().string(""));
+
+		Mockito.verify(service, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request ao listar os lançamentos de usuário inexistente.")
+	public void buscarUsuarioInexistente() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1")))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Deve obter o lançamento com a ETag da sua versão.")
+	public void obterLancamento() throws Exception {
+		Mockito.when(service.obterVersao(1l)).thenReturn(Optional.of(2l));
+		Mockito.when(service.obterProjecaoPorId(1l, CampoLancamento.TODOS)).thenReturn(Optional.of(criarProjecao(1l, "Aluguel")));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"l1-v2\""))
+				.andExpect(MockMvcResultMatchers.jsonPath("descricao").value("Aluguel"));
+	}
+
+	@Test
+	@DisplayName("Deve obter apenas os campos informados em fields do lançamento.")
+	public void obterLancamentoCamposSelecionados() throws Exception {
+		Set<CampoLancamento> campos = EnumSet.of(CampoLancamento.ID, CampoLancamento.TIPO);
+		Mockito.when(service.obterVersao(1l)).thenReturn(Optional.of(2l));
+		Mockito.when(service.obterProjecaoPorId(1l, campos)).thenReturn(Optional.of(
+				new LancamentoProjecao(1l, null, null, null, null, null, TipoLancamento.RECEITA, null)));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1?fields=id,tipo")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"l1-v2\""))
+				.andExpect(MockMvcResultMatchers.content().string("{\"id\":1,\"tipo\":\"RECEITA\"}"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar not modified sem carregar o lançamento quando a versão informada é a atual.")
+	public void obterLancamentoNaoModificado() throws Exception {
+		Mockito.when(service.obterVersao(1l)).thenReturn(Optional.of(2l));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1")).header(HttpHeaders.IF_NONE_MATCH, "\"l1-v2\""))
+				.andExpect(MockMvcResultMatchers.status().isNotModified());
+
+		Mockito.verify(service, Mockito.never()).obterProjecaoPorId(Mockito.anyLong(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar not found ao obter lançamento inexistente.")
+	public void obterLancamentoInexistente() throws Exception {
+		Mockito.when(service.obterVersao(1l)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1")))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	@Test
+	@DisplayName("Deve atualizar parcialmente o lançamento e retornar a ETag da nova versão.")
+	public void atualizarParcial() throws Exception {
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Lancamento atualizado = criarLancamento(usuario, 1l, "Aluguel de março");
+		atualizado.setVersao(3l);
+		Mockito.when(service.atualizarParcial(Mockito.eq(1l), Mockito.eq(2l), Mockito.any(Lancamento.class)))
+				.thenReturn(Optional.of(atualizado));
+
+		mvc.perform(MockMvcRequestBuilders.patch(API.concat("/1")).header(HttpHeaders.IF_MATCH, "\"l1-v2\"")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"descricao\":\"Aluguel de março\"}"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"l1-v3\""))
+				.andExpect(MockMvcResultMatchers.jsonPath("descricao").value("Aluguel de março"));
+
+		Mockito.verify(service).atualizarParcial(Mockito.eq(1l), Mockito.eq(2l),
+				Mockito.argThat(alteracoes -> alteracoes.getValor() == null && alteracoes.getUsuario() == null));
+	}
+
+	@Test
+	@DisplayName("Deve exigir a ETag do lançamento na atualização parcial.")
+	public void atualizarParcialSemIfMatch() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.patch(API.concat("/1")).header(HttpHeaders.IF_MATCH, "\"l2-v2\"")
+				.contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(MockMvcResultMatchers.status().isPreconditionRequired());
+
+		Mockito.verify(service, Mockito.never()).atualizarParcial(Mockito.anyLong(), Mockito.anyLong(),
+				Mockito.any(Lancamento.class));
+	}
+
+	@Test
+	@DisplayName("Deve retornar conflict quando a versão informada estiver desatualizada.")
+	public void atualizarParcialConflito() throws Exception {
+		Mockito.when(service.atualizarParcial(Mockito.eq(1l), Mockito.eq(2l), Mockito.any(Lancamento.class)))
+				.thenThrow(new OptimisticLockingFailureException("versão desatualizada"));
+
+		mvc.perform(MockMvcRequestBuilders.patch(API.concat("/1")).header(HttpHeaders.IF_MATCH, "\"l1-v2\"")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"valor\":15}"))
+				.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+
+	@Test
+	@DisplayName("Deve atualizar o status de lançamentos em lote e retornar a quantidade alterada.")
+	public void atualizarStatusEmLote() throws Exception {
+		Mockito.when(service.atualizarStatusPorPeriodo(1l, 2020, 1, StatusLancamento.EFETIVADO)).thenReturn(7);
+		AtualizaStatusLoteDTO dto = AtualizaStatusLoteDTO.builder().usuario(1l).ano(2020).mes(1)
+				.status("EFETIVADO").build();
+
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status")).contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(dto)))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().string("7"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar bad request ao atualizar status em lote sem ids nem período.")
+	public void atualizarStatusEmLoteSemFiltro() throws Exception {
+		AtualizaStatusLoteDTO dto = AtualizaStatusLoteDTO.builder().usuario(1l).status("EFETIVADO").build();
+
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status")).contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(dto)))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Deve buscar lançamentos pelo prefixo da descrição.")
+	public void buscarPorDescricao() throws Exception {
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.when(buscaDescricaoService.buscar(1l, "alu", ModoBusca.PREFIXO, 20))
+				.thenReturn(Arrays.asList(criarLancamento(usuario, 1l, "Aluguel")));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/busca?usuario=1&q=alu")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].descricao").value("Aluguel"));
+	}
+
+	private LancamentoProjecao criarProjecao(Long id, String descricao) {
+		return new LancamentoProjecao(id, descricao, 1, 2019, BigDecimal.TEN, 1l, TipoLancamento.RECEITA,
+				StatusLancamento.PENDENTE);
+	}
+
+	private Lancamento criarLancamento(Usuario usuario, Long id, String descricao) {
+		return Lancamento.builder().id(id).descricao(descricao).mes(1).ano(2019).valor(BigDecimal.TEN)
+				.usuario(usuario).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).build();
+	}
+
+}
@@ -1,5 +1,9 @@
 package com.maycon.sbreact.api.resource;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -15,14 +20,30 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.maycon.sbreact.api.dto.UsuarioDTO;
+import com.maycon.sbreact.api.evento.CanalEventos;
+import com.maycon.sbreact.api.seguranca.AutenticacaoTokenFilter;
 import com.maycon.sbreact.exceptions.AutenticacaoException;
 import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.ResumoMensal;
 import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.service.ArquivoLancamentoService;
 import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.RelatorioLancamentoService;
+import com.maycon.sbreact.service.ResumoMensalService;
+import com.maycon.sbreact.service.SaldoUsuarioService;
+import com.maycon.sbreact.service.TokenService;
 import com.maycon.sbreact.service.UsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -42,6 +63,164 @@ public class UsuarioResourceTest {
 	@MockBean
 	LancamentoService lancamentoService;
 
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+
+	@MockBean
+	TokenService tokenService;
+
+	@MockBean
+	ResumoMensalService resumoMensalService;
+
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+
+	@MockBean
+	CanalEventos canalEventos;
+
+	@MockBean
+	ArquivoLancamentoService arquivoLancamentoService;
+
+	@MockBean
+	RelatorioLancamentoService relatorioLancamentoService;
+
+	@Test
+	@DisplayName("Deve retornar o saldo do usuário com a ETag da versão dos seus lançamentos.")
+	public void obterSaldo() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(7l));
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(BigDecimal.valueOf(150));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"u1-v7\""))
+				.andExpect(MockMvcResultMatchers.content().string("150"));
+	}
+
+	@Test
+	@DisplayName("Deve recusar o saldo de outro usuário que não o do token.")
+	public void obterSaldoDeOutroUsuario() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.requestAttr(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO, 2l))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve retornar not modified sem calcular o saldo quando a versão do usuário não mudou.")
+	public void obterSaldoNaoModificado() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(7l));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")).header(HttpHeaders.IF_NONE_MATCH, "W/\"u1-v7\""))
+				.andExpect(MockMvcResultMatchers.status().isNotModified());
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve retornar not found ao obter o saldo de usuário inexistente.")
+	public void obterSaldoUsuarioInexistente() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	@Test
+	@DisplayName("Deve abrir o stream de eventos do usuário.")
+	public void assinarEventos() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(7l));
+		Mockito.when(canalEventos.assinar(1l)).thenReturn(new SseEmitter());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/eventos")).accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.request().asyncStarted());
+	}
+
+	@Test
+	@DisplayName("Deve retornar not found ao assinar os eventos de usuário inexistente.")
+	public void assinarEventosUsuarioInexistente() throws Exception {
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/eventos")).accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+		Mockito.verify(canalEventos, Mockito.never()).assinar(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve retornar o resumo mensal do ano do usuário.")
+	public void obterResumo() throws Exception {
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+		Mockito.when(resumoMensalService.listar(1l, 2020)).thenReturn(Arrays.asList(ResumoMensal.builder()
+				.idUsuario(1l).ano(2020).mes(3).tipo(TipoLancamento.DESPESA).status(StatusLancamento.EFETIVADO)
+				.valor(BigDecimal.valueOf(70)).quantidade(4l).build()));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/resumo?ano=2020")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].mes").value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].tipo").value("DESPESA"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].valor").value(70))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].quantidade").value(4));
+	}
+
+	@Test
+	@DisplayName("Deve retornar o relatório do usuário com o filtro e o agrupamento informados.")
+	public void obterRelatorio() throws Exception {
+		FiltroRelatorio filtro = FiltroRelatorio.builder().ano(2020).tipo(TipoLancamento.DESPESA).build();
+		Mockito.when(versaoUsuarioService.obterVersao(1l)).thenReturn(Optional.of(3l));
+		Mockito.when(relatorioLancamentoService.agrupar(1l, filtro, Agrupamento.DESCRICAO, 5)).thenReturn(
+				Arrays.asList(new LinhaRelatorio("Aluguel", new BigDecimal("1200.00"), 12l)));
+
+		mvc.perform(MockMvcRequestBuilders
+				.get(API.concat("/1/relatorio?agrupamento=descricao&ano=2020&tipo=despesa&limite=5")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].chave").value("Aluguel"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].valor").value(1200.00))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].quantidade").value(12));
+	}
+
+	@Test
+	@DisplayName("Deve recusar o relatório com agrupamento inválido.")
+	public void obterRelatorioAgrupamentoInvalido() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/relatorio?agrupamento=semana")))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Mockito.verify(relatorioLancamentoService, Mockito.never()).agrupar(Mockito.any(), Mockito.any(),
+				Mockito.any(), Mockito.anyInt());
+	}
+
+	@Test
+	@DisplayName("Deve retornar not found ao obter o resumo de usuário inexistente.")
+	public void obterResumoUsuarioInexistente() throws Exception {
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/resumo?ano=2020")))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+		Mockito.verify(resumoMensalService, Mockito.never()).listar(Mockito.anyLong(), Mockito.anyInt());
+	}
+
+	@Test
+	@DisplayName("Deve retornar os lançamentos de um ano arquivado.")
+	public void listarArquivados() throws Exception {
+		Lancamento lancamento = Lancamento.builder().id(3l).descricao("Aluguel").mes(5).ano(2015)
+				.valor(BigDecimal.valueOf(800)).tipo(TipoLancamento.DESPESA).status(StatusLancamento.EFETIVADO)
+				.usuario(Usuario.builder().id(1l).build()).build();
+		Mockito.when(arquivoLancamentoService.listarArquivados(1l, 2015))
+				.thenReturn(Optional.of(Arrays.asList(lancamento)));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/arquivo/2015")))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(3))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("EFETIVADO"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0].usuario").value(1));
+	}
+
+	@Test
+	@DisplayName("Deve retornar not found para um ano não arquivado.")
+	public void listarArquivadosAnoNaoArquivado() throws Exception {
+		Mockito.when(arquivoLancamentoService.listarArquivados(1l, 2015)).thenReturn(Optional.empty());
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/arquivo/2015")))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
 	@Test
 	@DisplayName("Deve autenticar um usuário.")
 	public void autenticaUsuario() throws Exception {
@@ -52,6 +231,7 @@ public class UsuarioResourceTest {
 		Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 
 		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(tokenService.gerar(1l)).thenReturn("token");
 
 		String json = new ObjectMapper().writeValueAsString(dto);
 
@@ -62,7 +242,9 @@ public class UsuarioResourceTest {
 		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk())
 				.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 				.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-				.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+				.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+				.andExpect(MockMvcResultMatchers.jsonPath("token").value("token"))
+				.andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
 	}
 
 	@Test
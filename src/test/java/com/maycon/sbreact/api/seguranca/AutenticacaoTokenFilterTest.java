@@ -0,0 +1,119 @@
+package com.maycon.sbreact.api.seguranca;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.maycon.sbreact.service.TokenService;
+import com.maycon.sbreact.service.impl.TokenServiceImpl;
+
+public class AutenticacaoTokenFilterTest {
+
+	TokenService tokenService = new TokenServiceImpl("", Duration.ofHours(1));
+
+	AutenticacaoTokenFilter filter = new AutenticacaoTokenFilter(tokenService);
+
+	@Test
+	@DisplayName("Deve recusar requisição à API sem token.")
+	public void recusaSemToken() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, response, chain);
+
+		assertThat(response.getStatus()).isEqualTo(401);
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve recusar requisição com token inválido.")
+	public void recusaTokenInvalido() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer 1.2.abc");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(401);
+		assertThat(response.getContentAsString()).isEqualTo("Token inválido.");
+	}
+
+	@Test
+	@DisplayName("Deve responder 401 ao token com caractere fora do ASCII.")
+	public void recusaTokenComCaractereNaoAscii() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer \u0131" + tokenService.gerar(1l).substring(1));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, response, chain);
+
+		assertThat(response.getStatus()).isEqualTo(401);
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve aceitar token válido e informar o usuário na requisição.")
+	public void aceitaTokenValido() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer " + tokenService.gerar(7l));
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertThat(chain.getRequest()).isSameAs(request);
+		assertThat(request.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO)).isEqualTo(7l);
+	}
+
+	@Test
+	@DisplayName("Deve aceitar o token de eventos no parâmetro apenas na assinatura de eventos.")
+	public void aceitaTokenDeEventosNoParametro() throws Exception {
+		String token = tokenService.gerarParaEventos(7l);
+
+		MockHttpServletRequest eventos = new MockHttpServletRequest("GET", "/api/usuarios/7/eventos");
+		eventos.setParameter("token", token);
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(eventos, new MockHttpServletResponse(), chain);
+
+		assertThat(chain.getRequest()).isSameAs(eventos);
+		assertThat(eventos.getAttribute(AutenticacaoTokenFilter.ATRIBUTO_ID_USUARIO)).isEqualTo(7l);
+
+		MockHttpServletRequest saldo = new MockHttpServletRequest("GET", "/api/usuarios/7/saldo");
+		saldo.setParameter("token", token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(saldo, response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(401);
+	}
+
+	@Test
+	@DisplayName("Deve recusar o token da API no parâmetro da assinatura de eventos.")
+	public void recusaTokenDaApiNoParametro() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/7/eventos");
+		request.setParameter("token", tokenService.gerar(7l));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(401);
+		assertThat(response.getContentAsString()).isEqualTo("Token inválido.");
+	}
+
+	@Test
+	@DisplayName("Não deve exigir token no login e no cadastro.")
+	public void liberaLoginECadastro() throws Exception {
+		for (String caminho : new String[] { "/api/usuarios/autenticar", "/api/usuarios" }) {
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(new MockHttpServletRequest("POST", caminho), new MockHttpServletResponse(), chain);
+			assertThat(chain.getRequest()).isNotNull();
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.maycon.sbreact.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+import com.maycon.sbreact.service.UsuarioService;
+import com.maycon.sbreact.service.impl.UsuarioServiceImpl;
+
+/**
+ * Sem a transação por teste do DataJpaTest: o cache de segundo nível só recebe
+ * o que foi confirmado.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ CacheConfiguration.class, SegurancaConfiguration.class, UsuarioServiceImpl.class })
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CacheConfigurationTest {
+
+	@Autowired
+	UsuarioService service;
+
+	@Autowired
+	UsuarioRepository repository;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	Statistics estatisticas;
+
+	@BeforeEach
+	public void setUp() {
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		entityManagerFactory.getCache().evictAll();
+		estatisticas.clear();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Deve buscar o usuário no banco uma única vez, por id ou por email, enquanto estiver em cache.")
+	public void buscaUsuarioEmCache() {
+		Usuario usuario = repository.save(Usuario.builder().nome("usuario").email("cache@email.com").build());
+		entityManagerFactory.getCache().evictAll();
+		estatisticas.clear();
+
+		repository.findById(usuario.getId());
+		repository.findById(usuario.getId());
+		assertThat(repository.findByEmail("cache@email.com")).get().extracting(Usuario::getId)
+				.isEqualTo(usuario.getId());
+
+		assertThat(estatisticas.getEntityLoadCount()).isEqualTo(1);
+		assertThat(estatisticas.getDomainDataRegionStatistics(CacheConfiguration.USUARIOS).getHitCount())
+				.isEqualTo(2);
+		assertThat(estatisticas.getNaturalIdStatistics(Usuario.class.getName()).getCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve guardar a verificação de email em cache até que a tabela de usuários mude.")
+	public void verificaEmailEmCache() {
+		assertThat(repository.existsByEmail("novo@email.com")).isFalse();
+		assertThat(repository.existsByEmail("novo@email.com")).isFalse();
+		assertThat(estatisticas.getQueryCacheHitCount()).isEqualTo(1);
+
+		// a validação do cadastro também é atendida pelo cache
+		service.salvarUsuario(Usuario.builder().nome("novo").email("novo@email.com").senha("senha").build());
+		assertThat(estatisticas.getQueryCacheHitCount()).isEqualTo(2);
+
+		assertThat(repository.existsByEmail("novo@email.com")).isTrue();
+		assertThat(estatisticas.getQueryCacheHitCount()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Deve atualizar o usuário em cache quando uma gravação altera o registro.")
+	public void gravacaoAtualizaCache() {
+		Usuario usuario = repository.save(Usuario.builder().nome("usuario").email("legado@email.com")
+				.senha("senha").build());
+		service.obterPorId(usuario.getId());
+
+		service.autenticar("legado@email.com", "senha");
+
+		assertThat(service.obterPorId(usuario.getId())).get().extracting(Usuario::getSenha).asString()
+				.startsWith("$2");
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.maycon.sbreact.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ConsultasPorRequisicaoInterceptorTest {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	ContadorConsultas contador = new ContadorConsultas();
+
+	ConsultasPorRequisicaoInterceptor interceptor = new ConsultasPorRequisicaoInterceptor(contador, registry);
+
+	@Test
+	@DisplayName("Deve registrar os comandos SQL da requisição pelo endpoint.")
+	public void registraComandosPorEndpoint() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/1/saldo");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/usuarios/{id}/saldo");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		interceptor.preHandle(request, response, null);
+		contador.inspect("select 1");
+		contador.inspect("select 2");
+		interceptor.afterCompletion(request, response, null, null);
+
+		DistributionSummary comandos = registry.get(ConsultasPorRequisicaoInterceptor.METRICA)
+				.tag("uri", "/api/usuarios/{id}/saldo").summary();
+		assertThat(comandos.count()).isEqualTo(1);
+		assertThat(comandos.totalAmount()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Não deve contar comandos fora de uma requisição.")
+	public void ignoraComandosForaDeRequisicao() {
+		contador.inspect("select 1");
+
+		assertThat(contador.finalizar()).isEqualTo(-1);
+	}
+
+}
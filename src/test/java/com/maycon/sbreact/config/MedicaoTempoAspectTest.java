@@ -0,0 +1,41 @@
+package com.maycon.sbreact.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MedicaoTempoAspectTest {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	@DisplayName("Deve medir cada método do repositório com a interface da aplicação como classe.")
+	public void medeMetodosDoRepositorio() {
+		UsuarioRepository repository = Mockito.mock(UsuarioRepository.class);
+		Mockito.when(repository.findByEmail("email@email.com")).thenReturn(Optional.empty());
+		AspectJProxyFactory fabrica = new AspectJProxyFactory(repository);
+		fabrica.addAspect(new MedicaoTempoAspect(registry));
+		UsuarioRepository medido = fabrica.getProxy();
+
+		medido.findByEmail("email@email.com");
+		medido.findByEmail("email@email.com");
+		medido.existsByEmail("email@email.com");
+
+		Timer findByEmail = registry.get(MedicaoTempoAspect.METRICA_REPOSITORIO)
+				.tag("classe", "UsuarioRepository").tag("metodo", "findByEmail").timer();
+		assertThat(findByEmail.count()).isEqualTo(2);
+		assertThat(registry.get(MedicaoTempoAspect.METRICA_REPOSITORIO).tag("metodo", "existsByEmail").timer()
+				.count()).isEqualTo(1);
+	}
+
+}
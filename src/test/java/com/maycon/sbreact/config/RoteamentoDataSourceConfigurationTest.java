@@ -0,0 +1,118 @@
+package com.maycon.sbreact.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maycon.sbreact.api.dto.LancamentoDTO;
+import com.maycon.sbreact.api.dto.UsuarioDTO;
+
+/**
+ * A réplica é outro H2, copiado do primário antes da alteração, e a sessão
+ * fica aberta na view, como no pior caso: uma leitura seguida de uma escrita na
+ * mesma requisição deve gravar no primário.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + RoteamentoDataSourceConfigurationTest.PRIMARIO,
+		"financas.datasource.replicas=" + RoteamentoDataSourceConfigurationTest.REPLICA,
+		"financas.datasource.leitura-apos-escrita=PT0S",
+		"spring.jpa.open-in-view=true" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RoteamentoDataSourceConfigurationTest {
+
+	static final String PRIMARIO = "jdbc:h2:mem:aplicacao-primario;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	static final String REPLICA = "jdbc:h2:mem:aplicacao-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper mapper;
+
+	@Test
+	@DisplayName("Deve gravar no primário a alteração lida da réplica na mesma requisição.")
+	public void escritaAposLeituraVaiAoPrimario() throws Exception {
+		UsuarioDTO usuario = UsuarioDTO.builder().nome("roteamento").email("roteamento@email.com").senha("senha")
+				.build();
+		Long idUsuario = idCriado(MockMvcRequestBuilders.post("/api/usuarios").content(json(usuario)));
+		LancamentoDTO lancamento = LancamentoDTO.builder().descricao("original").ano(2020).mes(1)
+				.valor(BigDecimal.TEN).tipo("RECEITA").usuario(idUsuario).build();
+		Long id = idCriado(MockMvcRequestBuilders.post("/api/lancamentos").content(json(lancamento)));
+		copiarPrimarioParaReplica();
+
+		lancamento.setDescricao("alterado");
+		lancamento.setStatus("PENDENTE");
+		mvc.perform(MockMvcRequestBuilders.put("/api/lancamentos/{id}", id).content(json(lancamento))
+				.contentType(JSON))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		assertThat(descricao(PRIMARIO, id)).isEqualTo("alterado");
+		assertThat(descricao(REPLICA, id)).isEqualTo("original");
+	}
+
+	private Long idCriado(MockHttpServletRequestBuilder requisicao) throws Exception {
+		String corpo = mvc.perform(requisicao.contentType(JSON))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return mapper.readTree(corpo).get("id").asLong();
+	}
+
+	private String json(Object objeto) throws Exception {
+		return mapper.writeValueAsString(objeto);
+	}
+
+	private static void copiarPrimarioParaReplica() throws SQLException {
+		List<String> comandos = new ArrayList<>();
+		try (Connection primario = DriverManager.getConnection(PRIMARIO, "sa", "sa");
+				Statement stmt = primario.createStatement();
+				ResultSet script = stmt.executeQuery("SCRIPT")) {
+			while (script.next()) {
+				comandos.add(script.getString(1));
+			}
+		}
+
+		try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "sa");
+				Statement stmt = replica.createStatement()) {
+			stmt.execute("DROP ALL OBJECTS");
+			for (String comando : comandos) {
+				stmt.execute(comando);
+			}
+		}
+	}
+
+	private static String descricao(String url, Long id) throws SQLException {
+		try (Connection conexao = DriverManager.getConnection(url, "sa", "sa");
+				Statement stmt = conexao.createStatement();
+				ResultSet resultado = stmt.executeQuery("select descricao from financas.lancamento where id = " + id)) {
+			resultado.next();
+			return resultado.getString(1);
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.maycon.sbreact.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class RoteamentoDataSourceTest {
+
+	DataSource primario = banco("primario");
+	DataSource replica = banco("replica");
+
+	@Test
+	@DisplayName("Deve enviar as transações somente leitura à réplica e as demais ao primário.")
+	public void roteiaPorTransacao() {
+		Roteamento roteamento = new Roteamento(Collections.singletonList(replica), Duration.ZERO);
+
+		assertThat(roteamento.ler(true, null)).isEqualTo("replica");
+		assertThat(roteamento.ler(false, null)).isEqualTo("primario");
+		assertThat(roteamento.jdbc.queryForObject("select nome from origem", String.class)).isEqualTo("primario");
+	}
+
+	@Test
+	@DisplayName("Deve alternar as leituras entre as réplicas.")
+	public void alternaReplicas() {
+		Roteamento roteamento = new Roteamento(Arrays.asList(replica, banco("replica2")), Duration.ZERO);
+
+		assertThat(roteamento.ler(true, null)).isEqualTo("replica");
+		assertThat(roteamento.ler(true, null)).isEqualTo("replica2");
+		assertThat(roteamento.ler(true, null)).isEqualTo("replica");
+	}
+
+	@Test
+	@DisplayName("Deve ler do primário logo após o commit de uma escrita do mesmo usuário.")
+	public void leEscritaDoMesmoUsuario() {
+		Roteamento roteamento = new Roteamento(Collections.singletonList(replica), Duration.ofMinutes(1));
+
+		roteamento.escrever(1l, true);
+
+		assertThat(roteamento.ler(true, 1l)).isEqualTo("primario");
+		assertThat(roteamento.ler(true, 2l)).isEqualTo("replica");
+	}
+
+	@Test
+	@DisplayName("Deve ignorar escritas desfeitas e, sem janela, manter as leituras na réplica.")
+	public void ignoraEscritaDesfeitaOuSemJanela() {
+		Roteamento comJanela = new Roteamento(Collections.singletonList(replica), Duration.ofMinutes(1));
+		comJanela.escrever(1l, false);
+		assertThat(comJanela.ler(true, 1l)).isEqualTo("replica");
+
+		Roteamento semJanela = new Roteamento(Collections.singletonList(replica), Duration.ZERO);
+		semJanela.escrever(1l, true);
+		assertThat(semJanela.ler(true, 1l)).isEqualTo("replica");
+	}
+
+	@Test
+	@DisplayName("Deve manter no primário as leituras de todos após uma escrita sem usuário.")
+	public void escritaSemUsuarioValeParaTodos() {
+		Roteamento roteamento = new Roteamento(Collections.singletonList(replica), Duration.ofMinutes(1));
+
+		roteamento.escrever(null, true);
+
+		assertThat(roteamento.ler(true, 2l)).isEqualTo("primario");
+	}
+
+	private class Roteamento {
+
+		final JdbcTemplate jdbc;
+		final TransactionTemplate transacao;
+
+		Roteamento(List<DataSource> replicas, Duration janela) {
+			DataSource dataSource = new LazyConnectionDataSourceProxy(
+					new RoteamentoDataSource(primario, replicas, janela));
+			jdbc = new JdbcTemplate(dataSource);
+			transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		}
+
+		String ler(boolean somenteLeitura, Long idUsuario) {
+			transacao.setReadOnly(somenteLeitura);
+			return ContextoLeitura.comUsuario(idUsuario, () -> transacao
+					.execute(status -> jdbc.queryForObject("select nome from origem", String.class)));
+		}
+
+		void escrever(Long idUsuario, boolean confirmar) {
+			transacao.setReadOnly(false);
+			ContextoLeitura.comUsuario(idUsuario, () -> transacao.execute(status -> {
+				jdbc.update("update origem set nome = nome");
+				if (!confirmar) {
+					status.setRollbackOnly();
+				}
+				return null;
+			}));
+		}
+
+	}
+
+	private static DataSource banco(String nome) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:roteamento-" + nome + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("create table if not exists origem (nome varchar(20))");
+		jdbc.execute("delete from origem");
+		jdbc.update("insert into origem values (?)", nome);
+		return dataSource;
+	}
+
+}
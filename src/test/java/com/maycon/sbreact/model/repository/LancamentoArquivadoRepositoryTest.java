@@ -0,0 +1,50 @@
+package com.maycon.sbreact.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.entity.LancamentoArquivado;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class LancamentoArquivadoRepositoryTest {
+
+	@Autowired
+	LancamentoArquivadoRepository repository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Test
+	@DisplayName("Deve somar o saldo e listar os anos arquivados do usuário.")
+	public void somarSaldoEListarAnos() {
+		entityManager.persist(criarArquivo(1l, 2016, "150.50"));
+		entityManager.persist(criarArquivo(1l, 2015, "-20.25"));
+		entityManager.persist(criarArquivo(2l, 2015, "999"));
+		entityManager.flush();
+
+		assertThat(repository.somarSaldo(1l)).isEqualByComparingTo("130.25");
+		assertThat(repository.somarSaldo(3l)).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(repository.listarAnos(1l)).containsExactly(2015, 2016);
+	}
+
+	private static LancamentoArquivado criarArquivo(Long idUsuario, Integer ano, String saldo) {
+		return LancamentoArquivado.builder().idUsuario(idUsuario).ano(ano).quantidade(1)
+				.saldo(new BigDecimal(saldo)).conteudo(new byte[] { 1, 2, 3 }).build();
+	}
+
+}
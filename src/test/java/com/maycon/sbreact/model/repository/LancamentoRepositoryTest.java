@@ -2,9 +2,17 @@ package com.maycon.sbreact.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,10 +21,18 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.maycon.sbreact.model.consulta.AnoUsuario;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
 import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
 import com.maycon.sbreact.model.entity.enums.StatusLancamento;
 import com.maycon.sbreact.model.entity.enums.TipoLancamento;
 
@@ -74,6 +90,22 @@ public class LancamentoRepositoryTest {
 
 	}
 
+	@Test
+	@DisplayName("Não deve gravar um lançamento com versão desatualizada.")
+	public void naoAtualizaVersaoDesatualizada() {
+		Lancamento lancamento = criaPersisteLancamento();
+		entityManager.flush();
+		lancamento.setDescricao("lancamento alterado");
+		entityManager.flush();
+		entityManager.clear();
+
+		Lancamento desatualizado = lancamento.toBuilder().versao(0l).descricao("outra alteração").build();
+		Throwable erro = catchThrowable(() -> repository.saveAndFlush(desatualizado));
+
+		assertThat(lancamento.getVersao()).isEqualTo(1l);
+		assertThat(erro).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+	}
+
 	@Test
 	@DisplayName("Deve buscar um lancamento por id.")
 	public void buscaLancamentoPorId() {
@@ -83,6 +115,227 @@ public class LancamentoRepositoryTest {
 		assertThat(lancamentoEncontrado.isPresent()).isTrue();
 	}
 
+	@Test
+	@DisplayName("Deve filtrar os lançamentos do usuário por ano, mês e descrição.")
+	public void buscaPorFiltro() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Usuario outroUsuario = UsuarioRepositoryTest.criarUsuario();
+		outroUsuario.setEmail("outro@email.com");
+		entityManager.persist(outroUsuario);
+		Lancamento fevereiro = criaPersisteLancamento(usuario, 2020, 2);
+		Lancamento janeiro = criaPersisteLancamento(usuario, 2020, 1);
+		criaPersisteLancamento(usuario, 2019, 1);
+		criaPersisteLancamento(outroUsuario, 2020, 1);
+		janeiro.setDescricao("Conta de LUZ");
+
+		List<LancamentoProjecao> doAno = repository.buscar(Lancamento.builder().usuario(usuario).ano(2020).build(),
+				CampoLancamento.TODOS);
+		assertThat(doAno).extracting(LancamentoProjecao::getId).containsExactly(janeiro.getId(), fevereiro.getId());
+
+		List<LancamentoProjecao> porDescricao = repository
+				.buscar(Lancamento.builder().usuario(usuario).descricao("luz").build(), CampoLancamento.TODOS);
+		assertThat(porDescricao).extracting(LancamentoProjecao::getId).containsExactly(janeiro.getId());
+		assertThat(porDescricao.get(0).getIdUsuario()).isEqualTo(usuario.getId());
+	}
+
+	@Test
+	@DisplayName("Deve buscar a projeção do lançamento sem carregar o usuário.")
+	public void obterProjecaoPorId() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criaPersisteLancamento(usuario, 2020, 1);
+		entityManager.flush();
+		entityManager.clear();
+
+		Optional<LancamentoProjecao> projecao = repository.obterProjecaoPorId(lancamento.getId(), CampoLancamento.TODOS);
+		assertThat(projecao).isPresent();
+		assertThat(projecao.get().getIdUsuario()).isEqualTo(usuario.getId());
+		assertThat(projecao.get().getDescricao()).isEqualTo(lancamento.getDescricao());
+
+		Lancamento encontrado = repository.findById(lancamento.getId()).get();
+		assertThat(Hibernate.isInitialized(encontrado.getUsuario())).isFalse();
+		assertThat(encontrado.getUsuario().getId()).isEqualTo(usuario.getId());
+	}
+
+	@Test
+	@DisplayName("Deve paginar os lançamentos do usuário por ano, mês e id a partir do cursor.")
+	public void buscaPaginaPorCursor() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento maio = criaPersisteLancamento(usuario, 2020, 5);
+		Lancamento janeiro = criaPersisteLancamento(usuario, 2020, 1);
+		Lancamento dezembro = criaPersisteLancamento(usuario, 2019, 12);
+		Lancamento janeiroOutro = criaPersisteLancamento(usuario, 2020, 1);
+		Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+
+		List<LancamentoProjecao> primeira = repository.buscarPagina(filtro, null, false, 2, CampoLancamento.TODOS);
+		assertThat(primeira).extracting(LancamentoProjecao::getId).containsExactly(dezembro.getId(), janeiro.getId());
+
+		List<LancamentoProjecao> segunda = repository.buscarPagina(filtro, CursorLancamento.de(primeira.get(1)),
+				false, 2, CampoLancamento.TODOS);
+		assertThat(segunda).extracting(LancamentoProjecao::getId).containsExactly(janeiroOutro.getId(), maio.getId());
+
+		List<LancamentoProjecao> decrescente = repository.buscarPagina(filtro, CursorLancamento.de(segunda.get(0)),
+				true, 10, CampoLancamento.TODOS);
+		assertThat(decrescente).extracting(LancamentoProjecao::getId).containsExactly(janeiro.getId(),
+				dezembro.getId());
+	}
+
+	@Test
+	@DisplayName("Deve consultar apenas os campos selecionados, além dos do cursor na paginação.")
+	public void buscaCamposSelecionados() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criaPersisteLancamento(usuario, 2020, 1);
+		Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+		Set<CampoLancamento> campos = EnumSet.of(CampoLancamento.DESCRICAO, CampoLancamento.VALOR);
+
+		LancamentoProjecao buscado = repository.buscar(filtro, campos).get(0);
+		assertThat(buscado.getDescricao()).isEqualTo(lancamento.getDescricao());
+		assertThat(buscado.getValor()).isEqualByComparingTo(lancamento.getValor());
+		assertThat(buscado.getId()).isNull();
+		assertThat(buscado.getIdUsuario()).isNull();
+		assertThat(buscado.getStatus()).isNull();
+
+		LancamentoProjecao paginado = repository.buscarPagina(filtro, null, false, 10, campos).get(0);
+		assertThat(CursorLancamento.de(paginado)).isEqualTo(new CursorLancamento(2020, 1, lancamento.getId()));
+		assertThat(paginado.getTipo()).isNull();
+
+		LancamentoProjecao porId = repository
+				.obterProjecaoPorId(lancamento.getId(), EnumSet.of(CampoLancamento.USUARIO)).get();
+		assertThat(porId.getIdUsuario()).isEqualTo(usuario.getId());
+		assertThat(porId.getDescricao()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve percorrer os lançamentos do usuário em ordem.")
+	public void streamPorUsuario() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento segundo = criaPersisteLancamento(usuario, 2020, 2);
+		Lancamento primeiro = criaPersisteLancamento(usuario, 2020, 1);
+		entityManager.flush();
+		entityManager.clear();
+
+		try (Stream<LancamentoProjecao> lancamentos = repository.streamPorUsuario(usuario.getId())) {
+			List<LancamentoProjecao> lista = lancamentos.collect(Collectors.toList());
+			assertThat(lista).extracting(LancamentoProjecao::getId).containsExactly(primeiro.getId(),
+					segundo.getId());
+			assertThat(lista).extracting(LancamentoProjecao::getIdUsuario).containsOnly(usuario.getId());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve percorrer as colunas dos relatórios dos lançamentos do usuário.")
+	public void streamLinhasPorUsuario() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criaPersisteLancamento(usuario, 2020, 2);
+		entityManager.flush();
+		entityManager.clear();
+
+		try (Stream<LinhaLancamento> linhas = repository.streamLinhasPorUsuario(usuario.getId())) {
+			List<LinhaLancamento> lista = linhas.collect(Collectors.toList());
+			assertThat(lista).hasSize(1);
+			assertThat(lista.get(0).getId()).isEqualTo(lancamento.getId());
+			assertThat(lista.get(0).getAno()).isEqualTo(2020);
+			assertThat(lista.get(0).getMes()).isEqualTo(2);
+			assertThat(lista.get(0).getValor()).isEqualByComparingTo(lancamento.getValor());
+			assertThat(lista.get(0).getVersao()).isZero();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve salvar lançamentos em lote.")
+	public void salvarEmLote() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			Lancamento lancamento = criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+
+		repository.salvarEmLote(lancamentos);
+
+		assertThat(lancamentos).extracting(Lancamento::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(repository.count()).isEqualTo(120);
+	}
+
+	@Test
+	@DisplayName("Deve atualizar em lote apenas os lançamentos com transição de status permitida.")
+	public void atualizarStatusPorIds() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento pendente = criaPersisteLancamento(usuario, 2020, 1);
+		Lancamento cancelado = criaPersisteLancamento(usuario, 2020, 1);
+		cancelado.setStatus(StatusLancamento.CANCELADO);
+		entityManager.flush();
+		List<Long> ids = Arrays.asList(pendente.getId(), cancelado.getId());
+		StatusLancamento efetivado = StatusLancamento.EFETIVADO;
+
+		assertThat(repository.travarPorIds(ids, Integer.MIN_VALUE, efetivado.origensPermitidas()))
+				.containsExactly(pendente.getId());
+		List<TotalLancamentos> totais = repository.totalizarPorIds(ids, efetivado.origensPermitidas());
+		int atualizados = repository.atualizarStatusPorIds(ids, efetivado, efetivado.origensPermitidas());
+		entityManager.clear();
+
+		assertThat(totais).hasSize(1);
+		assertThat(totais.get(0).getQuantidade()).isEqualTo(1);
+		assertThat(totais.get(0).getValor()).isEqualByComparingTo(BigDecimal.TEN);
+		assertThat(atualizados).isEqualTo(1);
+		assertThat(entityManager.find(Lancamento.class, pendente.getId()).getStatus()).isEqualTo(efetivado);
+		assertThat(repository.obterVersao(pendente.getId())).contains(1l);
+		assertThat(entityManager.find(Lancamento.class, cancelado.getId()).getStatus())
+				.isEqualTo(StatusLancamento.CANCELADO);
+	}
+
+	@Test
+	@DisplayName("Não deve travar para atualização em lote os lançamentos de anos fechados.")
+	public void travarPorIdsIgnoraAnosFechados() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento fechado = criaPersisteLancamento(usuario, 2019, 12);
+		Lancamento aberto = criaPersisteLancamento(usuario, 2020, 1);
+		entityManager.flush();
+
+		List<Long> travados = repository.travarPorIds(Arrays.asList(fechado.getId(), aberto.getId()), 2020,
+				StatusLancamento.EFETIVADO.origensPermitidas());
+
+		assertThat(travados).containsExactly(aberto.getId());
+	}
+
+	@Test
+	@DisplayName("Deve travar os lançamentos pendentes de um mês.")
+	public void travarPorPeriodo() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento primeiro = criaPersisteLancamento(usuario, 2020, 1);
+		Lancamento segundo = criaPersisteLancamento(usuario, 2020, 1);
+		criaPersisteLancamento(usuario, 2020, 2);
+		entityManager.flush();
+
+		List<Long> travados = repository.travarPorPeriodo(usuario.getId(), 2020, 1,
+				StatusLancamento.EFETIVADO.origensPermitidas());
+
+		assertThat(travados).containsExactly(primeiro.getId(), segundo.getId());
+	}
+
+	@Test
+	@DisplayName("Deve listar os anos até o limite por usuário e excluir os lançamentos de um ano.")
+	public void listaEExcluiAnosAteLimite() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		criaPersisteLancamento(usuario, 2018, 3);
+		criaPersisteLancamento(usuario, 2018, 7);
+		criaPersisteLancamento(usuario, 2019, 1);
+		Lancamento atual = criaPersisteLancamento(usuario, 2020, 1);
+		entityManager.flush();
+
+		assertThat(repository.listarAnosAte(2019)).containsExactlyInAnyOrder(
+				new AnoUsuario(usuario.getId(), 2018), new AnoUsuario(usuario.getId(), 2019));
+		assertThat(repository.travarPorUsuarioEAno(usuario.getId(), 2018)).extracting(Lancamento::getMes)
+				.containsExactly(3, 7);
+
+		int excluidos = repository.excluirPorUsuarioEAno(usuario.getId(), 2018);
+		entityManager.clear();
+
+		assertThat(excluidos).isEqualTo(2);
+		assertThat(repository.findAll()).extracting(Lancamento::getAno).containsExactlyInAnyOrder(2019, 2020);
+		assertThat(repository.findById(atual.getId())).isPresent();
+	}
+
 	public static Lancamento criarLancamento() {
 		return Lancamento.builder().ano(2019).mes(1).descricao("lancamento qualquer").valor(BigDecimal.valueOf(10))
 				.tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).dataCadastro(LocalDate.now()).build();
@@ -94,4 +347,13 @@ public class LancamentoRepositoryTest {
 		return lancamento;
 	}
 
+	private Lancamento criaPersisteLancamento(Usuario usuario, int ano, int mes) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		entityManager.persist(lancamento);
+		return lancamento;
+	}
+
 }
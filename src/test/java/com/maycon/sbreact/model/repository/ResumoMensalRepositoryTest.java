@@ -0,0 +1,87 @@
+package com.maycon.sbreact.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.entity.LancamentoArquivado;
+import com.maycon.sbreact.model.entity.ResumoMensal;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class ResumoMensalRepositoryTest {
+
+	@Autowired
+	ResumoMensalRepository repository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Test
+	@DisplayName("Deve somar valor e quantidade ao resumo existente.")
+	public void somar() {
+		entityManager.persistAndFlush(criarResumo(1, TipoLancamento.RECEITA, 10, 1));
+
+		int atualizados = repository.somar(1l, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(5), 2);
+		entityManager.clear();
+
+		assertThat(atualizados).isEqualTo(1);
+		ResumoMensal resumo = repository.listarPorAno(1l, 2020).get(0);
+		assertThat(resumo.getValor()).isEqualByComparingTo(BigDecimal.valueOf(15));
+		assertThat(resumo.getQuantidade()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("Deve listar o resumo do ano por mês, sem as linhas zeradas.")
+	public void listarPorAno() {
+		entityManager.persist(criarResumo(3, TipoLancamento.DESPESA, 10, 1));
+		entityManager.persist(criarResumo(1, TipoLancamento.RECEITA, 10, 1));
+		entityManager.persist(criarResumo(2, TipoLancamento.RECEITA, 0, 0));
+		entityManager.persist(ResumoMensal.builder().idUsuario(1l).ano(2019).mes(1).tipo(TipoLancamento.RECEITA)
+				.status(StatusLancamento.PENDENTE).valor(BigDecimal.ONE).quantidade(1l).build());
+		entityManager.flush();
+
+		List<ResumoMensal> resumo = repository.listarPorAno(1l, 2020);
+
+		assertThat(resumo).extracting(ResumoMensal::getMes).containsExactly(1, 3);
+	}
+
+	@Test
+	@DisplayName("Deve excluir o resumo do usuário mantendo o dos anos arquivados.")
+	public void excluirPorUsuarioMantemAnosArquivados() {
+		entityManager.persist(criarResumo(1, TipoLancamento.RECEITA, 10, 1));
+		entityManager.persist(ResumoMensal.builder().idUsuario(1l).ano(2015).mes(1).tipo(TipoLancamento.RECEITA)
+				.status(StatusLancamento.EFETIVADO).valor(BigDecimal.ONE).quantidade(1l).build());
+		entityManager.persist(LancamentoArquivado.builder().idUsuario(1l).ano(2015).quantidade(1)
+				.saldo(BigDecimal.ONE).conteudo(new byte[0]).build());
+		entityManager.flush();
+
+		int excluidos = repository.excluirPorUsuario(1l);
+
+		assertThat(excluidos).isEqualTo(1);
+		assertThat(repository.listarPorAno(1l, 2015)).hasSize(1);
+	}
+
+	private static ResumoMensal criarResumo(int mes, TipoLancamento tipo, int valor, long quantidade) {
+		return ResumoMensal.builder().idUsuario(1l).ano(2020).mes(mes).tipo(tipo).status(StatusLancamento.PENDENTE)
+				.valor(BigDecimal.valueOf(valor)).quantidade(quantidade).build();
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.maycon.sbreact.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.entity.SaldoUsuario;
+import com.maycon.sbreact.model.entity.Usuario;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class SaldoUsuarioRepositoryTest {
+
+	@Autowired
+	SaldoUsuarioRepository repository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Test
+	@DisplayName("Deve somar um valor ao saldo existente.")
+	public void somarAoSaldo() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(SaldoUsuario.builder().idUsuario(usuario.getId()).saldo(BigDecimal.TEN).build());
+		entityManager.flush();
+
+		int atualizados = repository.somarAoSaldo(usuario.getId(), BigDecimal.valueOf(-3));
+
+		assertThat(atualizados).isEqualTo(1);
+		assertThat(repository.obterSaldo(usuario.getId()).get()).isEqualByComparingTo(BigDecimal.valueOf(7));
+	}
+
+	@Test
+	@DisplayName("Deve inserir o saldo apenas quando o usuário ainda não possui saldo consolidado.")
+	public void inserirSeAusente() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.flush();
+
+		assertThat(repository.inserirSeAusente(usuario.getId(), BigDecimal.TEN)).isEqualTo(1);
+		assertThat(repository.inserirSeAusente(usuario.getId(), BigDecimal.ONE)).isZero();
+		assertThat(repository.obterSaldo(usuario.getId()).get()).isEqualByComparingTo(BigDecimal.TEN);
+	}
+
+	@Test
+	@DisplayName("Não deve atualizar saldo de usuario sem saldo consolidado.")
+	public void somarAoSaldoInexistente() {
+		int atualizados = repository.somarAoSaldo(99l, BigDecimal.ONE);
+
+		assertThat(atualizados).isZero();
+		Optional<BigDecimal> saldo = repository.obterSaldo(99l);
+		assertThat(saldo.isPresent()).isFalse();
+	}
+
+}
@@ -2,6 +2,8 @@ package com.maycon.sbreact.model.repository;
 
 import java.util.Optional;
 
+import javax.persistence.PersistenceException;
+
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -80,6 +82,15 @@ public class UsuarioRepositoryTest {
 
 	}
 
+	@Test
+	@DisplayName("Não deve permitir dois usuários com o mesmo email.")
+	public void emailUnico() {
+		entityManager.persist(criarUsuario());
+
+		Throwable erro = Assertions.catchThrowable(() -> entityManager.persistAndFlush(criarUsuario()));
+		Assertions.assertThat(erro).isInstanceOf(PersistenceException.class);
+	}
+
 	public static Usuario criarUsuario() {
 		return Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
 	}
@@ -0,0 +1,55 @@
+package com.maycon.sbreact.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.VersaoUsuario;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class VersaoUsuarioRepositoryTest {
+
+	@Autowired
+	VersaoUsuarioRepository repository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Test
+	@DisplayName("Deve incrementar a versão existente do usuário.")
+	public void incrementar() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(VersaoUsuario.builder().idUsuario(usuario.getId()).versao(3l).build());
+		entityManager.flush();
+
+		int atualizados = repository.incrementar(usuario.getId());
+
+		assertThat(atualizados).isEqualTo(1);
+		assertThat(repository.obterVersao(usuario.getId())).contains(4l);
+	}
+
+	@Test
+	@DisplayName("Deve obter versão zero para usuário sem alterações e vazio para usuário inexistente.")
+	public void obterVersaoSemAlteracoes() {
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.flush();
+
+		assertThat(repository.incrementar(usuario.getId())).isZero();
+		assertThat(repository.obterVersao(usuario.getId())).contains(0l);
+		assertThat(repository.obterVersao(usuario.getId() + 1000)).isEmpty();
+	}
+
+}
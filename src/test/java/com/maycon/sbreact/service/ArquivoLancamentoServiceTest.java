@@ -0,0 +1,111 @@
+package com.maycon.sbreact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.LancamentoArquivado;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoArquivadoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.impl.ArquivoLancamentoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "financas.arquivo.anos-abertos=2")
+public class ArquivoLancamentoServiceTest {
+
+	@SpyBean
+	ArquivoLancamentoServiceImpl service;
+
+	@MockBean
+	LancamentoArquivadoRepository repository;
+
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+
+	@Test
+	@DisplayName("Deve fechar os anos anteriores aos anos abertos.")
+	public void fechaAnosAnteriores() {
+		int atual = Year.now().getValue();
+
+		assertThat(service.anoFechado(atual)).isFalse();
+		assertThat(service.anoFechado(atual - 1)).isFalse();
+		assertThat(service.anoFechado(atual - 2)).isTrue();
+		assertThat(service.primeiroAnoAberto()).isEqualTo(atual - 1);
+	}
+
+	@Test
+	@DisplayName("Deve arquivar os lançamentos do ano com a contribuição ao saldo e retirá-los da tabela ativa.")
+	public void arquivaAno() {
+		List<Lancamento> lancamentos = Arrays.asList(
+				criarLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, "1000.50"),
+				criarLancamento(2l, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "200.25"),
+				criarLancamento(3l, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, "50"));
+		Mockito.when(lancamentoRepository.travarPorUsuarioEAno(1l, 2015)).thenReturn(lancamentos);
+		Mockito.when(repository.findById(Mockito.any())).thenReturn(Optional.empty());
+		Mockito.when(lancamentoRepository.excluirPorUsuarioEAno(1l, 2015)).thenReturn(3);
+
+		assertThat(service.arquivar(1l, 2015)).isEqualTo(3);
+
+		ArgumentCaptor<LancamentoArquivado> arquivo = ArgumentCaptor.forClass(LancamentoArquivado.class);
+		Mockito.verify(repository).save(arquivo.capture());
+		assertThat(arquivo.getValue().getQuantidade()).isEqualTo(3);
+		assertThat(arquivo.getValue().getSaldo()).isEqualByComparingTo("800.25");
+		Mockito.verify(versaoUsuarioService).incrementar(Collections.singletonList(1l));
+
+		Mockito.when(repository.findById(new LancamentoArquivado.Chave(1l, 2015)))
+				.thenReturn(Optional.of(arquivo.getValue()));
+		List<Lancamento> arquivados = service.listarArquivados(1l, 2015).get();
+		assertThat(arquivados).usingElementComparatorIgnoringFields("versao").isEqualTo(lancamentos);
+	}
+
+	@Test
+	@DisplayName("Não deve criar arquivo para ano sem lançamentos.")
+	public void ignoraAnoVazio() {
+		Mockito.when(lancamentoRepository.travarPorUsuarioEAno(1l, 2015)).thenReturn(Collections.emptyList());
+
+		assertThat(service.arquivar(1l, 2015)).isZero();
+
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(lancamentoRepository, Mockito.never()).excluirPorUsuarioEAno(Mockito.anyLong(), Mockito.anyInt());
+	}
+
+	private Lancamento criarLancamento(Long id, TipoLancamento tipo, StatusLancamento status, String valor) {
+		return Lancamento.builder()
+				.id(id)
+				.descricao("Lançamento " + id)
+				.mes(id.intValue())
+				.ano(2015)
+				.valor(new BigDecimal(valor).setScale(2))
+				.tipo(tipo)
+				.status(status)
+				.dataCadastro(LocalDate.of(2015, 1, 10))
+				.usuario(Usuario.builder().id(1l).build())
+				.build();
+	}
+
+}
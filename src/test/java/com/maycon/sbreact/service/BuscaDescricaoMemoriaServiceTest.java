@@ -0,0 +1,108 @@
+package com.maycon.sbreact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.consulta.DescricaoLancamento;
+import com.maycon.sbreact.model.consulta.ModoBusca;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+import com.maycon.sbreact.service.impl.BuscaDescricaoMemoriaServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class BuscaDescricaoMemoriaServiceTest {
+
+	@SpyBean
+	BuscaDescricaoMemoriaServiceImpl service;
+
+	@MockBean
+	LancamentoRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		List<DescricaoLancamento> descricoes = Arrays.asList(descricao(1l, "Aluguel casa"),
+				descricao(2l, "Conta de luz"), descricao(3l, "Casamento"), descricao(4l, "Mercado"));
+		Mockito.when(repository.listarDescricoes(1l)).thenReturn(descricoes);
+		Mockito.when(repository.findAllById(Mockito.anyIterable())).then(invocacao -> {
+			Iterable<Long> ids = invocacao.getArgument(0);
+			return StreamSupport.stream(ids.spliterator(), false)
+					.map(id -> Lancamento.builder().id(id).build()).collect(Collectors.toList());
+		});
+	}
+
+	@Test
+	@DisplayName("Deve buscar descrições com alguma palavra iniciada pelo termo.")
+	public void buscaPorPrefixo() {
+		List<Lancamento> resultado = service.buscar(1l, "Cas", ModoBusca.PREFIXO, 10);
+
+		assertThat(resultado).extracting(Lancamento::getId).containsExactly(1l, 3l);
+	}
+
+	@Test
+	@DisplayName("Deve respeitar o limite da busca.")
+	public void buscaComLimite() {
+		List<Lancamento> resultado = service.buscar(1l, "cas", ModoBusca.PREFIXO, 1);
+
+		assertThat(resultado).extracting(Lancamento::getId).containsExactly(1l);
+	}
+
+	@Test
+	@DisplayName("Deve encontrar descrições parecidas com o termo.")
+	public void buscaAproximada() {
+		List<Lancamento> resultado = service.buscar(1l, "aluguell", ModoBusca.APROXIMADO, 10);
+
+		assertThat(resultado).extracting(Lancamento::getId).containsExactly(1l);
+	}
+
+	@Test
+	@DisplayName("Deve manter o índice atualizado pelas alterações de lançamentos.")
+	public void atualizaIndicePorEvento() {
+		service.buscar(1l, "cas", ModoBusca.PREFIXO, 10);
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Lancamento casamento = Lancamento.builder().id(3l).descricao("Casamento").usuario(usuario).build();
+		Lancamento novo = Lancamento.builder().id(5l).descricao("Casa de praia").usuario(usuario).build();
+
+		service.aoAlterarLancamento(new LancamentoAlteradoEvent(casamento, null));
+		service.aoAlterarLancamento(new LancamentoAlteradoEvent(null, novo));
+
+		List<Lancamento> resultado = service.buscar(1l, "cas", ModoBusca.PREFIXO, 10);
+		assertThat(resultado).extracting(Lancamento::getId).containsExactly(1l, 5l);
+		Mockito.verify(repository, Mockito.times(1)).listarDescricoes(1l);
+	}
+
+	private DescricaoLancamento descricao(Long id, String descricao) {
+		return new DescricaoLancamento() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getDescricao() {
+				return descricao;
+			}
+		};
+	}
+
+}
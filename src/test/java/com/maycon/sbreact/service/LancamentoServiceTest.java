@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -13,21 +14,29 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.maycon.sbreact.exceptions.RegraNegocioException;
+import com.maycon.sbreact.model.consulta.CampoLancamento;
+import com.maycon.sbreact.model.consulta.CursorLancamento;
+import com.maycon.sbreact.model.consulta.LancamentoProjecao;
+import com.maycon.sbreact.model.consulta.Pagina;
 import com.maycon.sbreact.model.entity.Lancamento;
 import com.maycon.sbreact.model.entity.Usuario;
 import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
 import com.maycon.sbreact.model.repository.LancamentoRepository;
 import com.maycon.sbreact.model.repository.LancamentoRepositoryTest;
 import com.maycon.sbreact.service.impl.LancamentoServiceImpl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import net.bytebuddy.description.type.TypeDefinition.Sort;
 
 @ExtendWith(SpringExtension.class)
@@ -40,6 +49,21 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+
+	@MockBean
+	ResumoMensalService resumoMensalService;
+
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+
+	@MockBean
+	ArquivoLancamentoService arquivoLancamentoService;
+
+	@SpyBean
+	SimpleMeterRegistry registry;
+
 	@Test
 	@DisplayName("Deve salvar um lancamento.")
 	public void salvarLancamento() {
@@ -59,6 +83,8 @@ public class LancamentoServiceTest {
 			// verificacao
 			assertThat(lancamento.getId()).isEqualTo(lancamentoSalvo.getId());
 			assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+			Mockito.verify(saldoUsuarioService).registrarAlteracao(null, lancamentoSalvo);
+			Mockito.verify(resumoMensalService).registrarAlteracao(null, lancamentoSalvo);
 
 		});
 	}
@@ -114,9 +140,26 @@ public class LancamentoServiceTest {
 		service.deletarLancamento(lancamento);
 
 		Mockito.verify(repository).delete(lancamento);
+		Mockito.verify(saldoUsuarioService).registrarAlteracao(lancamento, null);
 
 	}
 
+	@Test
+	@DisplayName("Não deve deletar um lançamento de ano fechado.")
+	public void naoDeletaLancamentoDeAnoFechado() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+		Mockito.when(arquivoLancamentoService.anoFechado(2019)).thenReturn(true);
+
+		Throwable erro = catchThrowable(() -> service.deletarLancamento(lancamento));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+				.hasMessage("O ano informado está fechado e não aceita lançamentos.");
+		Mockito.verify(repository, Mockito.never()).delete(lancamento);
+		Mockito.verifyNoInteractions(saldoUsuarioService);
+	}
+
 	@Test
 	@DisplayName("Deve lançar erro ao tentar deletar lancamento sem id.")
 	public void erroDeletaLancamento() {
@@ -132,13 +175,14 @@ public class LancamentoServiceTest {
 	public void filtrarLancamentos() {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1l);
+		LancamentoProjecao projecao = criarProjecao(1l);
 
-		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+		List<LancamentoProjecao> lista = Arrays.asList(projecao);
+		Mockito.when(repository.buscar(lancamento, CampoLancamento.TODOS)).thenReturn(lista);
 
-		List<Lancamento> resultado = service.buscar(lancamento);
+		List<LancamentoProjecao> resultado = service.buscar(lancamento, CampoLancamento.TODOS);
 
-		assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
+		assertThat(resultado).isNotEmpty().hasSize(1).contains(projecao);
 
 	}
 
@@ -150,15 +194,52 @@ public class LancamentoServiceTest {
 		lancamento.setStatus(StatusLancamento.PENDENTE);
 
 		StatusLancamento novoStatus = StatusLancamento.EFETIVADO;
-		Mockito.doReturn(lancamento).when(service).atualizar(lancamento);
+		Mockito.doReturn(lancamento).when(service).atualizar(Mockito.any(Lancamento.class));
 
 		service.atualizarStatus(lancamento, novoStatus);
 
-		assertThat(lancamento.getStatus()).isEqualTo(novoStatus);
-		Mockito.verify(service).atualizar(lancamento);
+		// o lançamento recebido continua sendo o estado anterior
+		assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Mockito.verify(service).atualizar(Mockito.argThat(atual -> atual.getId().equals(1l)
+				&& atual.getStatus() == novoStatus));
 
 	}
 	
+	@Test
+	@DisplayName("Deve totalizar e atualizar em lote apenas os lançamentos travados.")
+	public void atualizarStatusEmLoteTravaAntesDeTotalizar() {
+		List<Long> ids = Arrays.asList(1l, 2l);
+		List<Long> travados = Arrays.asList(1l);
+		StatusLancamento efetivado = StatusLancamento.EFETIVADO;
+		Mockito.when(arquivoLancamentoService.primeiroAnoAberto()).thenReturn(2019);
+		Mockito.when(repository.travarPorIds(ids, 2019, efetivado.origensPermitidas())).thenReturn(travados);
+		Mockito.when(repository.atualizarStatusPorIds(travados, efetivado, efetivado.origensPermitidas()))
+				.thenReturn(1);
+
+		int atualizados = service.atualizarStatusEmLote(ids, efetivado);
+
+		assertThat(atualizados).isEqualTo(1);
+		InOrder ordem = Mockito.inOrder(repository);
+		ordem.verify(repository).travarPorIds(ids, 2019, efetivado.origensPermitidas());
+		ordem.verify(repository).totalizarPorIds(travados, efetivado.origensPermitidas());
+		ordem.verify(repository).atualizarStatusPorIds(travados, efetivado, efetivado.origensPermitidas());
+	}
+
+	@Test
+	@DisplayName("Não deve atualizar em lote quando nenhum lançamento do período puder mudar de status.")
+	public void atualizarStatusPorPeriodoSemLancamentos() {
+		StatusLancamento efetivado = StatusLancamento.EFETIVADO;
+		Mockito.when(repository.travarPorPeriodo(1l, 2020, 1, efetivado.origensPermitidas()))
+				.thenReturn(new ArrayList<>());
+
+		int atualizados = service.atualizarStatusPorPeriodo(1l, 2020, 1, efetivado);
+
+		assertThat(atualizados).isZero();
+		Mockito.verify(repository, Mockito.never()).atualizarStatusPorIds(Mockito.any(), Mockito.any(),
+				Mockito.any());
+		Mockito.verifyNoInteractions(saldoUsuarioService, resumoMensalService);
+	}
+
 	@Test
 	@DisplayName("Deve obter um lancamento por id.")
 	public void obterLancamentoById() {
@@ -250,13 +331,215 @@ public class LancamentoServiceTest {
 		erro = catchThrowable(() -> service.validar(lancamento));
 		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um valor válido.");
 		
+		lancamento.setValor(new BigDecimal("10.555"));
+		
+		erro = catchThrowable(() -> service.validar(lancamento));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+				.hasMessage("Informe um valor com no máximo duas casas decimais.");
+		
+		lancamento.setValor(new BigDecimal("10.500"));
+		
+		erro = catchThrowable(() -> service.validar(lancamento));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um tipo de lançamento.");
+		
 		lancamento.setValor(BigDecimal.valueOf(1));
 		
 		erro = catchThrowable(() -> service.validar(lancamento));
 		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um tipo de lançamento.");
 		
+		lancamento.setTipo(TipoLancamento.RECEITA);
+		Mockito.when(arquivoLancamentoService.anoFechado(2020)).thenReturn(true);
+		
+		erro = catchThrowable(() -> service.validar(lancamento));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+				.hasMessage("O ano informado está fechado e não aceita lançamentos.");
 		
 	}
+	
+	@Test
+	@DisplayName("Deve registrar no saldo o estado anterior e o atual ao atualizar um lancamento.")
+	public void atualizarLancamentoRegistraSaldo() {
+		Lancamento anterior = LancamentoRepositoryTest.criarLancamento();
+		anterior.setId(1l);
+		anterior.setUsuario(Usuario.builder().id(1l).build());
+
+		Lancamento atualizado = anterior.toBuilder().status(StatusLancamento.EFETIVADO).build();
+		Mockito.doNothing().when(service).validar(atualizado);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(anterior));
+		Mockito.when(repository.save(atualizado)).thenReturn(atualizado);
+
+		service.atualizar(atualizado);
+
+		Mockito.verify(saldoUsuarioService).registrarAlteracao(anterior, atualizado);
+		Mockito.verify(resumoMensalService).registrarAlteracao(anterior, atualizado);
+	}
+
+	@Test
+	@DisplayName("Deve manter a versão carregada e incrementar a versão dos usuários ao atualizar um lancamento.")
+	public void atualizarLancamentoIncrementaVersoes() {
+		Lancamento anterior = LancamentoRepositoryTest.criarLancamento();
+		anterior.setId(1l);
+		anterior.setVersao(3l);
+		anterior.setUsuario(Usuario.builder().id(1l).build());
+
+		Lancamento atualizado = anterior.toBuilder().versao(null).usuario(Usuario.builder().id(2l).build()).build();
+		Mockito.doNothing().when(service).validar(atualizado);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(anterior));
+		Mockito.when(repository.save(atualizado)).thenReturn(atualizado);
+
+		service.atualizar(atualizado);
+
+		assertThat(atualizado.getVersao()).isEqualTo(3l);
+		Mockito.verify(versaoUsuarioService).incrementar(Arrays.asList(1l, 2l));
+	}
+
+	@Test
+	@DisplayName("Deve alterar apenas os campos informados na atualização parcial.")
+	public void atualizarParcial() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setVersao(2l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		Lancamento anterior = lancamento.toBuilder().build();
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+
+		Lancamento alteracoes = Lancamento.builder().valor(BigDecimal.valueOf(25)).status(StatusLancamento.EFETIVADO)
+				.build();
+		Optional<Lancamento> atualizado = service.atualizarParcial(1l, 2l, alteracoes);
+
+		assertThat(atualizado).containsSame(lancamento);
+		assertThat(lancamento.getValor()).isEqualTo(BigDecimal.valueOf(25));
+		assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(lancamento.getDescricao()).isEqualTo(anterior.getDescricao());
+		Mockito.verify(repository).flush();
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+		Mockito.verify(saldoUsuarioService).registrarAlteracao(anterior, lancamento);
+		Mockito.verify(versaoUsuarioService).incrementar(Arrays.asList(1l, 1l));
+	}
+
+	@Test
+	@DisplayName("Deve recusar a atualização parcial com versão desatualizada.")
+	public void atualizarParcialVersaoDesatualizada() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setVersao(3l);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+
+		Throwable erro = catchThrowable(() -> service.atualizarParcial(1l, 2l, new Lancamento()));
+
+		assertThat(erro).isInstanceOf(OptimisticLockingFailureException.class);
+		Mockito.verify(repository, Mockito.never()).flush();
+		Mockito.verifyNoInteractions(saldoUsuarioService);
+	}
+
+	@Test
+	@DisplayName("Não deve retirar um lançamento de um ano fechado ao atualizá-lo.")
+	public void naoAtualizaLancamentoDeAnoFechado() {
+		Lancamento anterior = LancamentoRepositoryTest.criarLancamento();
+		anterior.setId(1l);
+		anterior.setVersao(0l);
+		anterior.setUsuario(Usuario.builder().id(1l).build());
+		Lancamento atualizado = anterior.toBuilder().ano(2020).build();
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(anterior));
+		Mockito.when(arquivoLancamentoService.anoFechado(2019)).thenReturn(true);
+
+		Throwable erro = catchThrowable(() -> service.atualizar(atualizado));
+		Throwable erroParcial = catchThrowable(
+				() -> service.atualizarParcial(1l, 0l, Lancamento.builder().ano(2020).build()));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+				.hasMessage("O ano informado está fechado e não aceita lançamentos.");
+		assertThat(erroParcial).isInstanceOf(RegraNegocioException.class)
+				.hasMessage("O ano informado está fechado e não aceita lançamentos.");
+		assertThat(anterior.getAno()).isEqualTo(2019);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+		Mockito.verify(repository, Mockito.never()).flush();
+	}
+
+	@Test
+	@DisplayName("Deve retornar vazio na atualização parcial de lançamento inexistente.")
+	public void atualizarParcialInexistente() {
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.empty());
+
+		assertThat(service.atualizarParcial(1l, 0l, new Lancamento())).isEmpty();
+	}
 
+	@Test
+	@DisplayName("Deve obter o saldo pelo saldo consolidado do usuario.")
+	public void obterSaldoPorUsuario() {
+		Mockito.when(saldoUsuarioService.obterSaldo(1l)).thenReturn(BigDecimal.TEN);
+
+		BigDecimal saldo = service.obterSaldoPorUsuario(1l);
+
+		assertThat(saldo).isEqualTo(BigDecimal.TEN);
+		Mockito.verify(repository, Mockito.never()).obtserSaldoPorTipoLancamentoEusuarioEStatus(Mockito.any(),
+				Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	@DisplayName("Deve limitar o tamanho da página e informar o cursor da próxima.")
+	public void buscarPagina() {
+		Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+		List<LancamentoProjecao> lista = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			lista.add(criarProjecao(id));
+		}
+		Mockito.when(repository.buscarPagina(filtro, null, false, 3, CampoLancamento.TODOS)).thenReturn(lista);
+
+		Pagina<LancamentoProjecao> pagina = service.buscarPagina(filtro, null, false, 2, CampoLancamento.TODOS);
+
+		assertThat(pagina.getConteudo()).hasSize(2);
+		assertThat(CursorLancamento.decodificar(pagina.getProximoCursor()))
+				.isEqualTo(new CursorLancamento(2019, 1, 2l));
+	}
+	
+	@Test
+	@DisplayName("Não deve informar próximo cursor na última página.")
+	public void buscarUltimaPagina() {
+		Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+		Mockito.when(repository.buscarPagina(Mockito.eq(filtro), Mockito.any(), Mockito.eq(false), Mockito.anyInt(),
+				Mockito.any()))
+				.thenReturn(Arrays.asList(criarProjecao(1l)));
+
+		Pagina<LancamentoProjecao> pagina = service.buscarPagina(filtro, null, false, 100000, CampoLancamento.TODOS);
+
+		assertThat(pagina.getConteudo()).hasSize(1);
+		assertThat(pagina.getProximoCursor()).isNull();
+		Mockito.verify(repository).buscarPagina(filtro, null, false, 501, CampoLancamento.TODOS);
+	}
+	
+	@Test
+	@DisplayName("Deve salvar um lote de lançamentos como pendentes.")
+	public void salvarLote() {
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		segundo.setStatus(StatusLancamento.EFETIVADO);
+		List<Lancamento> lote = Arrays.asList(primeiro, segundo);
+		Mockito.doNothing().when(service).validar(Mockito.any(Lancamento.class));
+
+		service.salvarLote(lote);
+
+		assertThat(lote).extracting(Lancamento::getStatus).containsOnly(StatusLancamento.PENDENTE);
+		Mockito.verify(repository).salvarEmLote(lote);
+	}
+	
+	@Test
+	@DisplayName("Não deve salvar o lote quando algum lançamento for inválido.")
+	public void naoSalvarLoteInvalido() {
+		Lancamento valido = LancamentoRepositoryTest.criarLancamento();
+		Lancamento invalido = new Lancamento();
+		Mockito.doNothing().when(service).validar(valido);
+
+		Throwable erro = catchThrowable(() -> service.salvarLote(Arrays.asList(valido, invalido)));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+				.hasMessage("Lançamento 2: Informe uma descrição válida.");
+		Mockito.verify(repository, Mockito.never()).salvarEmLote(Mockito.any());
+	}
+
+	private static LancamentoProjecao criarProjecao(Long id) {
+		return new LancamentoProjecao(id, "lancamento qualquer", 1, 2019, BigDecimal.TEN, 1l, TipoLancamento.RECEITA,
+				StatusLancamento.PENDENTE);
+	}
 
 }
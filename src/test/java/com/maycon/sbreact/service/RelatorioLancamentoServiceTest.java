@@ -0,0 +1,89 @@
+package com.maycon.sbreact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.service.evento.LancamentoAlteradoEvent;
+import com.maycon.sbreact.service.evento.LancamentosAlteradosEmLoteEvent;
+import com.maycon.sbreact.service.impl.RelatorioLancamentoServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
+public class RelatorioLancamentoServiceTest {
+
+	static final FiltroRelatorio SEM_FILTRO = new FiltroRelatorio();
+
+	@SpyBean
+	RelatorioLancamentoServiceImpl service;
+
+	@MockBean
+	LancamentoRepository repository;
+
+	@SpyBean
+	SimpleMeterRegistry registry;
+
+	@BeforeEach
+	public void setUp() {
+		Mockito.when(repository.streamLinhasPorUsuario(1l)).then(invocacao -> Stream.of(
+				new LinhaLancamento(1l, "Mercado", 1, 2020, new BigDecimal("100"), TipoLancamento.DESPESA,
+						StatusLancamento.PENDENTE, 0l)));
+	}
+
+	@Test
+	@DisplayName("Deve carregar os lançamentos do usuário uma única vez e mantê-los pelos eventos de gravação.")
+	public void mantemCopiaPelosEventos() {
+		assertThat(service.agrupar(1l, SEM_FILTRO, Agrupamento.TIPO, 10))
+				.containsExactly(new LinhaRelatorio("DESPESA", new BigDecimal("100.00"), 1l));
+
+		Lancamento salario = Lancamento.builder().id(2l).descricao("Salário").mes(1).ano(2020)
+				.valor(new BigDecimal("3000")).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE)
+				.usuario(Usuario.builder().id(1l).build()).versao(0l).build();
+		service.aoAlterarLancamento(new LancamentoAlteradoEvent(null, salario));
+		List<LinhaRelatorio> linhas = service.agrupar(1l, SEM_FILTRO, Agrupamento.TIPO, 10);
+
+		assertThat(linhas).containsExactly(
+				new LinhaRelatorio("RECEITA", new BigDecimal("3000.00"), 1l),
+				new LinhaRelatorio("DESPESA", new BigDecimal("100.00"), 1l));
+		Mockito.verify(repository, Mockito.times(1)).streamLinhasPorUsuario(1l);
+	}
+
+	@Test
+	@DisplayName("Deve recarregar os lançamentos do usuário após uma gravação em lote.")
+	public void recarregaAposGravacaoEmLote() {
+		service.agrupar(1l, SEM_FILTRO, Agrupamento.STATUS, 10);
+
+		service.aoAlterarEmLote(new LancamentosAlteradosEmLoteEvent(Collections.singletonList(1l)));
+		service.agrupar(1l, SEM_FILTRO, Agrupamento.STATUS, 10);
+
+		Mockito.verify(repository, Mockito.times(2)).streamLinhasPorUsuario(1l);
+	}
+
+}
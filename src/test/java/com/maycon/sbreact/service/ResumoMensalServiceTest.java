@@ -0,0 +1,154 @@
+package com.maycon.sbreact.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepositoryTest;
+import com.maycon.sbreact.model.repository.ResumoMensalRepository;
+import com.maycon.sbreact.service.impl.ResumoMensalServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ResumoMensalServiceTest {
+
+	@SpyBean
+	ResumoMensalServiceImpl service;
+
+	@MockBean
+	ResumoMensalRepository repository;
+
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+
+	@Test
+	@DisplayName("Deve aplicar apenas a diferença de valor quando o lançamento continua no mesmo mês.")
+	public void alteraValorNoMesmoMes() {
+		Lancamento anterior = criarLancamento(1, StatusLancamento.PENDENTE, 100);
+		Lancamento atual = anterior.toBuilder().valor(BigDecimal.valueOf(130)).build();
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+
+		service.registrarAlteracao(anterior, atual);
+
+		Mockito.verify(repository).somar(1l, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				new BigDecimal("30.00"), 0);
+		Mockito.verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	@DisplayName("Deve mover o lançamento entre meses do resumo.")
+	public void moveEntreMeses() {
+		Lancamento anterior = criarLancamento(1, StatusLancamento.PENDENTE, 100);
+		Lancamento atual = anterior.toBuilder().mes(2).build();
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+
+		service.registrarAlteracao(anterior, atual);
+
+		Mockito.verify(repository).somar(1l, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				new BigDecimal("-100.00"), -1);
+		Mockito.verify(repository).somar(1l, 2019, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				new BigDecimal("100.00"), 1);
+	}
+
+	@Test
+	@DisplayName("Deve criar a linha do resumo no primeiro lançamento do mês.")
+	public void criaLinhaNoPrimeiroLancamento() {
+		Lancamento lancamento = criarLancamento(1, StatusLancamento.PENDENTE, 100);
+		Mockito.when(repository.inserirSeAusente(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+				Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+
+		service.registrarAlteracao(null, lancamento);
+
+		Mockito.verify(repository).inserirSeAusente(1l, 2019, 1, "RECEITA", "PENDENTE", new BigDecimal("100.00"), 1);
+		Mockito.verify(repository).somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve somar à linha do resumo criada por outra transação depois da primeira soma.")
+	public void somaQuandoOutraTransacaoCriaALinha() {
+		Lancamento lancamento = criarLancamento(1, StatusLancamento.PENDENTE, 100);
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(0, 1);
+
+		service.registrarAlteracao(null, lancamento);
+
+		Mockito.verify(repository, Mockito.times(2)).somar(1l, 2019, 1, TipoLancamento.RECEITA,
+				StatusLancamento.PENDENTE, new BigDecimal("100.00"), 1);
+	}
+
+	@Test
+	@DisplayName("Deve somar os lançamentos do lote uma vez por mês, tipo e status.")
+	public void agrupaLote() {
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+
+		service.registrarInclusao(Arrays.asList(criarLancamento(1, StatusLancamento.PENDENTE, 10),
+				criarLancamento(1, StatusLancamento.PENDENTE, 20), criarLancamento(2, StatusLancamento.PENDENTE, 5)));
+
+		Mockito.verify(repository).somar(1l, 2019, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				new BigDecimal("30.00"), 2);
+		Mockito.verify(repository).somar(1l, 2019, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+				new BigDecimal("5.00"), 1);
+		Mockito.verify(repository, Mockito.times(2)).somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+				Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve mover os totais de uma transição de status em lote.")
+	public void registraTransicao() {
+		TotalLancamentos total = new TotalLancamentos(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(70), 4l);
+		Mockito.when(repository.somar(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(),
+				Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+
+		service.registrarTransicao(Arrays.asList(total), StatusLancamento.EFETIVADO);
+
+		Mockito.verify(repository).somar(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				new BigDecimal("-70.00"), -4);
+		Mockito.verify(repository).somar(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO,
+				new BigDecimal("70.00"), 4);
+	}
+
+	@Test
+	@DisplayName("Deve recalcular o resumo do usuário a partir dos lançamentos.")
+	public void recalcula() {
+		TotalLancamentos total = new TotalLancamentos(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+				BigDecimal.valueOf(70), 4l);
+		Mockito.when(lancamentoRepository.totalizarPorUsuario(1l)).thenReturn(Arrays.asList(total));
+		Mockito.when(repository.inserirSeAusente(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+				Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong())).thenReturn(1);
+
+		service.recalcular(1l);
+
+		Mockito.verify(repository).excluirPorUsuario(1l);
+		Mockito.verify(repository).inserirSeAusente(1l, 2020, 3, "DESPESA", "PENDENTE", new BigDecimal("70.00"), 4);
+	}
+
+	private Lancamento criarLancamento(int mes, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setMes(mes);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		lancamento.setTipo(TipoLancamento.RECEITA);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+
+}
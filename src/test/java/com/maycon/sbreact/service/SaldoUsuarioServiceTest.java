@@ -0,0 +1,166 @@
+package com.maycon.sbreact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.maycon.sbreact.model.consulta.TotalLancamentos;
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoArquivadoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepositoryTest;
+import com.maycon.sbreact.model.repository.SaldoUsuarioRepository;
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+import com.maycon.sbreact.service.impl.SaldoUsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoUsuarioServiceTest {
+
+	@SpyBean
+	SaldoUsuarioServiceImpl service;
+
+	@MockBean
+	SaldoUsuarioRepository repository;
+
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+
+	@MockBean
+	LancamentoArquivadoRepository lancamentoArquivadoRepository;
+
+	@MockBean
+	UsuarioRepository usuarioRepository;
+
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+
+	@Test
+	@DisplayName("Deve somar ao saldo a receita efetivada.")
+	public void somaReceitaEfetivada() {
+		Lancamento pendente = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		Lancamento efetivado = pendente.toBuilder().status(StatusLancamento.EFETIVADO).build();
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+		service.registrarAlteracao(pendente, efetivado);
+
+		Mockito.verify(repository).somarAoSaldo(1l, new BigDecimal("100.00"));
+	}
+
+	@Test
+	@DisplayName("Deve subtrair do saldo a despesa efetivada removida.")
+	public void subtraiDespesaRemovida() {
+		Lancamento efetivado = criarLancamento(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 40);
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+		service.registrarAlteracao(efetivado, null);
+
+		Mockito.verify(repository).somarAoSaldo(1l, new BigDecimal("40.00"));
+	}
+
+	@Test
+	@DisplayName("Não deve alterar o saldo quando o lançamento não está efetivado.")
+	public void ignoraLancamentoPendente() {
+		Lancamento pendente = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+
+		service.registrarAlteracao(null, pendente);
+
+		Mockito.verify(repository, Mockito.never()).somarAoSaldo(Mockito.anyLong(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve recalcular o saldo pelos lançamentos quando o usuário ainda não possui saldo consolidado.")
+	public void recalculaQuandoNaoHaSaldo() {
+		Lancamento efetivado = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(0);
+		Mockito.when(repository.inserirSeAusente(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+		Mockito.when(lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(1l, TipoLancamento.RECEITA,
+				StatusLancamento.EFETIVADO)).thenReturn(BigDecimal.valueOf(300));
+
+		service.registrarAlteracao(null, efetivado);
+
+		Mockito.verify(repository).inserirSeAusente(1l, new BigDecimal("300.00"));
+		Mockito.verify(repository).somarAoSaldo(Mockito.anyLong(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve somar a alteração ao saldo criado por outra transação depois da primeira soma.")
+	public void somaQuandoOutraTransacaoCriaOSaldo() {
+		Lancamento efetivado = criarLancamento(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(0, 1);
+		Mockito.when(repository.inserirSeAusente(Mockito.anyLong(), Mockito.any())).thenReturn(0);
+
+		service.registrarAlteracao(null, efetivado);
+
+		Mockito.verify(repository, Mockito.times(2)).somarAoSaldo(1l, new BigDecimal("100.00"));
+	}
+
+	@Test
+	@DisplayName("Deve somar ao saldo dos lançamentos ativos o total dos anos arquivados.")
+	public void recalculaComAnosArquivados() {
+		Mockito.when(lancamentoArquivadoRepository.somarSaldo(1l)).thenReturn(BigDecimal.valueOf(1000));
+		Mockito.when(repository.inserirSeAusente(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+		Mockito.when(lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(1l, TipoLancamento.DESPESA,
+				StatusLancamento.EFETIVADO)).thenReturn(BigDecimal.valueOf(100));
+
+		assertThat(service.recalcular(1l)).isEqualTo(new BigDecimal("900.00"));
+		Mockito.verify(repository).definirSaldo(1l, new BigDecimal("900.00"));
+		Mockito.verify(repository).inserirSeAusente(1l, new BigDecimal("900.00"));
+	}
+
+	@Test
+	@DisplayName("Deve indicar divergência entre o saldo consolidado e os lançamentos.")
+	public void verificaSaldo() {
+		Mockito.when(lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(1l, TipoLancamento.RECEITA,
+				StatusLancamento.EFETIVADO)).thenReturn(BigDecimal.valueOf(300));
+		Mockito.when(lancamentoRepository.obtserSaldoPorTipoLancamentoEusuarioEStatus(1l, TipoLancamento.DESPESA,
+				StatusLancamento.EFETIVADO)).thenReturn(BigDecimal.valueOf(100));
+
+		Mockito.when(repository.obterSaldo(1l)).thenReturn(Optional.of(BigDecimal.valueOf(200)));
+		assertThat(service.verificar(1l)).isTrue();
+
+		Mockito.when(repository.obterSaldo(1l)).thenReturn(Optional.of(BigDecimal.valueOf(150)));
+		assertThat(service.verificar(1l)).isFalse();
+	}
+
+	@Test
+	@DisplayName("Deve aplicar ao saldo a transição de status em lote.")
+	public void registraTransicao() {
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+		List<TotalLancamentos> totais = Arrays.asList(
+				new TotalLancamentos(1l, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE,
+						BigDecimal.valueOf(500), 2l),
+				new TotalLancamentos(1l, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE,
+						BigDecimal.valueOf(120), 3l));
+
+		service.registrarTransicao(totais, StatusLancamento.EFETIVADO);
+
+		Mockito.verify(repository).somarAoSaldo(1l, new BigDecimal("380.00"));
+	}
+
+	private Lancamento criarLancamento(TipoLancamento tipo, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.maycon.sbreact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.maycon.sbreact.exceptions.AutenticacaoException;
+import com.maycon.sbreact.service.impl.TokenServiceImpl;
+
+public class TokenServiceTest {
+
+	static final String CHAVE = "c2VncmVkby1kZS10ZXN0ZS1jb20tdHJpbnRhLWUtZG9pcy1ieXRlcw==";
+
+	TokenService service = new TokenServiceImpl(CHAVE, Duration.ofHours(1));
+
+	@Test
+	@DisplayName("Deve devolver o id do usuário de um token gerado.")
+	public void validaTokenGerado() {
+		String token = service.gerar(42l);
+
+		assertThat(service.validar(token)).isEqualTo(42l);
+	}
+
+	@Test
+	@DisplayName("Deve recusar um token com o id alterado.")
+	public void recusaTokenAlterado() {
+		String token = service.gerar(42l);
+
+		Throwable erro = catchThrowable(() -> service.validar("43" + token.substring(2)));
+
+		assertThat(erro).isInstanceOf(AutenticacaoException.class).hasMessage("Token inválido.");
+	}
+
+	@Test
+	@DisplayName("Deve recusar um token com caractere fora do ASCII que tem o mesmo byte baixo do original.")
+	public void recusaTokenComCaractereNaoAscii() {
+		String token = service.gerar(1l);
+
+		// U+0131 tem 0x31, o '1', como byte baixo
+		Throwable erro = catchThrowable(() -> service.validar('\u0131' + token.substring(1)));
+
+		assertThat(erro).isInstanceOf(AutenticacaoException.class).hasMessage("Token inválido.");
+		assertThat(service.validar(token)).isEqualTo(1l);
+	}
+
+	@Test
+	@DisplayName("Deve recusar um token assinado com outra chave.")
+	public void recusaTokenDeOutraChave() {
+		String token = new TokenServiceImpl("", Duration.ofHours(1)).gerar(42l);
+
+		Throwable erro = catchThrowable(() -> service.validar(token));
+
+		assertThat(erro).isInstanceOf(AutenticacaoException.class).hasMessage("Token inválido.");
+	}
+
+	@Test
+	@DisplayName("Deve recusar um token expirado.")
+	public void recusaTokenExpirado() {
+		TokenService semValidade = new TokenServiceImpl(CHAVE, Duration.ZERO);
+		String token = semValidade.gerar(42l);
+
+		Throwable erro = catchThrowable(() -> semValidade.validar(token));
+
+		assertThat(erro).isInstanceOf(AutenticacaoException.class).hasMessage("Token expirado.");
+	}
+
+	@Test
+	@DisplayName("Deve separar o token de eventos do token da API.")
+	public void separaTokenDeEventos() {
+		String token = service.gerar(42l);
+		String tokenEventos = service.gerarParaEventos(42l);
+
+		assertThat(service.validarParaEventos(tokenEventos)).isEqualTo(42l);
+		assertThat(catchThrowable(() -> service.validar(tokenEventos))).isInstanceOf(AutenticacaoException.class)
+				.hasMessage("Token inválido.");
+		assertThat(catchThrowable(() -> service.validarParaEventos(token)))
+				.isInstanceOf(AutenticacaoException.class).hasMessage("Token inválido.");
+	}
+
+	@Test
+	@DisplayName("Deve recusar um token mal formado.")
+	public void recusaTokenMalFormado() {
+		assertThat(catchThrowable(() -> service.validar("abc"))).isInstanceOf(AutenticacaoException.class);
+		assertThat(catchThrowable(() -> service.validar("1.2."))).isInstanceOf(AutenticacaoException.class);
+		assertThat(catchThrowable(() -> service.validar("1.2.***"))).isInstanceOf(AutenticacaoException.class);
+	}
+
+}
@@ -9,11 +9,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.maycon.sbreact.config.SegurancaConfiguration;
 import com.maycon.sbreact.exceptions.AutenticacaoException;
 import com.maycon.sbreact.exceptions.RegraNegocioException;
 import com.maycon.sbreact.model.entity.Usuario;
@@ -22,6 +26,7 @@ import com.maycon.sbreact.service.impl.UsuarioServiceImpl;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
+@Import(SegurancaConfiguration.class)
 public class UsuarioServiceTest {
 
 	@SpyBean
@@ -30,6 +35,9 @@ public class UsuarioServiceTest {
 	@MockBean
 	UsuarioRepository repository;
 
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
 	@Test
 	@DisplayName("Deve salvar o usuário")
 	public void userSave() {
@@ -72,6 +80,43 @@ public class UsuarioServiceTest {
 		});
 	}
 	
+	@Test
+	@DisplayName("Deve gravar o hash da senha ao salvar o usuário.")
+	public void salvaHashDaSenha() {
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+
+		Usuario salvo = service.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build());
+
+		assertThat(salvo.getSenha()).isNotEqualTo("senha");
+		assertThat(passwordEncoder.matches("senha", salvo.getSenha())).isTrue();
+	}
+
+	@Test
+	@DisplayName("Deve autenticar pelo hash da senha.")
+	public void autenticaPeloHash() {
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha(passwordEncoder.encode("senha"))
+				.build();
+		Mockito.when(repository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+
+		assertThat(service.autenticar("email@email.com", "senha")).isSameAs(usuario);
+		Assertions.assertThrows(AutenticacaoException.class, () -> service.autenticar("email@email.com", "outra"));
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Usuario.class));
+	}
+
+	@Test
+	@DisplayName("Deve converter a senha legada em hash no primeiro login.")
+	public void converteSenhaLegada() {
+		Usuario usuario = Usuario.builder().id(1l).email("email@email.com").senha("senha").build();
+		Mockito.when(repository.findByEmail("email@email.com")).thenReturn(Optional.of(usuario));
+		Mockito.when(repository.save(usuario)).thenReturn(usuario);
+
+		service.autenticar("email@email.com", "senha");
+
+		Mockito.verify(repository).save(usuario);
+		assertThat(passwordEncoder.matches("senha", usuario.getSenha())).isTrue();
+	}
+
 	@Test
 	@DisplayName("Não deve salvar um usuário com email ja cadastrado")
 	public void dontSaveUserWithContainsEmail() {
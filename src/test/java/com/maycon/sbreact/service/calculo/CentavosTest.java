@@ -0,0 +1,46 @@
+package com.maycon.sbreact.service.calculo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+public class CentavosTest {
+
+	@Test
+	@DisplayName("Deve converter valores de até duas casas em centavos e de volta com escala 2.")
+	public void converteValores() {
+		assertThat(Centavos.de(new BigDecimal("1234.5"))).isEqualTo(123450);
+		assertThat(Centavos.de(new BigDecimal("-0.01"))).isEqualTo(-1);
+		assertThat(Centavos.de(BigDecimal.valueOf(10))).isEqualTo(1000);
+		assertThat(Centavos.de(null)).isZero();
+
+		assertThat(Centavos.paraBigDecimal(123450)).isEqualTo(new BigDecimal("1234.50"));
+	}
+
+	@Test
+	@DisplayName("Não deve arredondar valores com mais de duas casas decimais.")
+	public void recusaFracaoDeCentavo() {
+		Throwable erro = catchThrowable(() -> Centavos.de(new BigDecimal("0.005")));
+
+		assertThat(erro).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	@DisplayName("Deve contar no saldo apenas os lançamentos efetivados, com as despesas negativas.")
+	public void calculaContribuicao() {
+		BigDecimal valor = new BigDecimal("10.25");
+
+		assertThat(Centavos.contribuicao(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, valor)).isEqualTo(1025);
+		assertThat(Centavos.contribuicao(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, valor)).isEqualTo(-1025);
+		assertThat(Centavos.contribuicao(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, valor)).isZero();
+		assertThat(Centavos.contribuicao(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, null)).isZero();
+	}
+
+}
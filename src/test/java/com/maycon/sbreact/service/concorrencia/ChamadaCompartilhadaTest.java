@@ -0,0 +1,122 @@
+package com.maycon.sbreact.service.concorrencia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ChamadaCompartilhadaTest {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	ChamadaCompartilhada<Long, String> chamada = new ChamadaCompartilhada<>("teste", registry);
+
+	ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	public void encerrar() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Deve compartilhar a execução em andamento entre chamadas com a mesma chave.")
+	public void compartilhaExecucaoEmAndamento() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		AtomicInteger execucoes = new AtomicInteger();
+
+		Future<String> primeira = executor.submit(() -> chamada.executar(1l, () -> {
+			execucoes.incrementAndGet();
+			aguardar(liberar);
+			return "saldo";
+		}));
+		aguardarContador("executada", 1);
+		Future<String> segunda = executor.submit(() -> chamada.executar(1l, () -> {
+			execucoes.incrementAndGet();
+			return "outro saldo";
+		}));
+		aguardarContador("compartilhada", 1);
+		liberar.countDown();
+
+		assertThat(primeira.get(5, TimeUnit.SECONDS)).isEqualTo("saldo");
+		assertThat(segunda.get(5, TimeUnit.SECONDS)).isEqualTo("saldo");
+		assertThat(execucoes.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve executar novamente depois que a execução anterior terminou.")
+	public void naoGuardaResultado() {
+		assertThat(chamada.executar(1l, () -> "primeiro")).isEqualTo("primeiro");
+		assertThat(chamada.executar(1l, () -> "segundo")).isEqualTo("segundo");
+		assertThat(contador("executada")).isEqualTo(2);
+		assertThat(contador("compartilhada")).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve repassar o erro da execução a quem a compartilhou.")
+	public void repassaErro() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		executor.submit(() -> chamada.executar(1l, () -> {
+			aguardar(liberar);
+			throw new IllegalStateException("falhou");
+		}));
+		aguardarContador("executada", 1);
+		CompletableFuture<Throwable> erro = CompletableFuture.supplyAsync(
+				() -> catchThrowable(() -> chamada.executar(1l, () -> "não executa")), executor);
+		aguardarContador("compartilhada", 1);
+		liberar.countDown();
+
+		assertThat(erro.get(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class).hasMessage("falhou");
+	}
+
+	@Test
+	@DisplayName("Deve iniciar uma nova execução para a chave descartada.")
+	public void descartaExecucaoEmAndamento() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		Future<String> primeira = executor.submit(() -> chamada.executar(1l, () -> {
+			aguardar(liberar);
+			return "antigo";
+		}));
+		aguardarContador("executada", 1);
+
+		chamada.descartar(1l);
+
+		assertThat(chamada.executar(1l, () -> "novo")).isEqualTo("novo");
+		liberar.countDown();
+		assertThat(primeira.get(5, TimeUnit.SECONDS)).isEqualTo("antigo");
+		assertThat(contador("compartilhada")).isZero();
+	}
+
+	private double contador(String resultado) {
+		return registry.get(ChamadaCompartilhada.METRICA).tag("operacao", "teste").tag("resultado", resultado)
+				.counter().count();
+	}
+
+	private void aguardarContador(String resultado, double valor) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (contador(resultado) < valor && System.nanoTime() < limite) {
+			Thread.sleep(5);
+		}
+		assertThat(contador(resultado)).isEqualTo(valor);
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
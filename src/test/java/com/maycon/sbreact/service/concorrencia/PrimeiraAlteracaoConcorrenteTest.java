@@ -0,0 +1,134 @@
+package com.maycon.sbreact.service.concorrencia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.maycon.sbreact.model.entity.Lancamento;
+import com.maycon.sbreact.model.entity.ResumoMensal;
+import com.maycon.sbreact.model.entity.Usuario;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+import com.maycon.sbreact.model.repository.LancamentoRepository;
+import com.maycon.sbreact.model.repository.LancamentoRepositoryTest;
+import com.maycon.sbreact.model.repository.UsuarioRepository;
+import com.maycon.sbreact.service.LancamentoService;
+import com.maycon.sbreact.service.ResumoMensalService;
+import com.maycon.sbreact.service.SaldoUsuarioService;
+import com.maycon.sbreact.service.VersaoUsuarioService;
+
+/**
+ * Duas transações fazem a primeira alteração do mesmo usuário: a segunda chega
+ * aos INSERT do saldo, do resumo e da versão enquanto a primeira, que já criou
+ * as linhas, ainda não terminou.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class PrimeiraAlteracaoConcorrenteTest {
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+
+	@Autowired
+	ResumoMensalService resumoMensalService;
+
+	@Autowired
+	VersaoUsuarioService versaoUsuarioService;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	TransactionTemplate transacao;
+
+	ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	public void encerrar() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Deve somar as duas primeiras alterações concorrentes do usuário sem violar a chave.")
+	public void primeirasAlteracoesConcorrentes() throws Exception {
+		Usuario usuario = usuarioRepository.save(Usuario.builder().nome("concorrente")
+				.email("concorrente" + System.nanoTime() + "@email.com").senha("senha").build());
+		// gravados direto no repositório, sem saldo, resumo nem versão
+		List<Lancamento> lancamentos = lancamentoRepository.saveAll(Arrays.asList(
+				criarLancamento(usuario, 100), criarLancamento(usuario, 30)));
+
+		CountDownLatch primeiraAlterou = new CountDownLatch(1);
+		CountDownLatch liberarPrimeira = new CountDownLatch(1);
+		Future<?> primeira = executor.submit(() -> transacao.executeWithoutResult(status -> {
+			efetivar(lancamentos.get(0).getId());
+			primeiraAlterou.countDown();
+			aguardar(liberarPrimeira);
+		}));
+		assertThat(primeiraAlterou.await(5, TimeUnit.SECONDS)).isTrue();
+
+		Future<?> segunda = executor.submit(() -> transacao.executeWithoutResult(status -> {
+			efetivar(lancamentos.get(1).getId());
+		}));
+		// a segunda fica presa no INSERT até a primeira terminar
+		Thread.sleep(500);
+		liberarPrimeira.countDown();
+
+		primeira.get(10, TimeUnit.SECONDS);
+		segunda.get(10, TimeUnit.SECONDS);
+
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("130");
+		assertThat(saldoUsuarioService.verificar(usuario.getId())).isTrue();
+		assertThat(versaoUsuarioService.obterVersao(usuario.getId())).hasValue(2l);
+		List<ResumoMensal> resumo = resumoMensalService.listar(usuario.getId(), 2020);
+		assertThat(resumo).hasSize(1);
+		assertThat(resumo.get(0).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(resumo.get(0).getQuantidade()).isEqualTo(2l);
+		assertThat(resumo.get(0).getValor()).isEqualByComparingTo("130");
+	}
+
+	private void efetivar(Long id) {
+		lancamentoService.atualizarStatus(lancamentoService.obterPorId(id).get(), StatusLancamento.EFETIVADO);
+	}
+
+	private static Lancamento criarLancamento(Usuario usuario, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(2020);
+		lancamento.setTipo(TipoLancamento.RECEITA);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.maycon.sbreact.service.relatorio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.maycon.sbreact.model.consulta.Agrupamento;
+import com.maycon.sbreact.model.consulta.FiltroRelatorio;
+import com.maycon.sbreact.model.consulta.LinhaLancamento;
+import com.maycon.sbreact.model.consulta.LinhaRelatorio;
+import com.maycon.sbreact.model.entity.enums.StatusLancamento;
+import com.maycon.sbreact.model.entity.enums.TipoLancamento;
+
+public class ColunasLancamentosTest {
+
+	static final FiltroRelatorio SEM_FILTRO = new FiltroRelatorio();
+
+	ColunasLancamentos colunas;
+
+	@BeforeEach
+	public void setUp() {
+		colunas = new ColunasLancamentos();
+		colunas.carregarSeNecessario(() -> Stream.of(
+				linha(1l, "Salário", 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, "3000"),
+				linha(2l, "Mercado", 2020, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "400.50"),
+				linha(3l, "Mercado", 2020, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "350"),
+				linha(4l, "Aluguel", 2020, 2, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "1200")));
+	}
+
+	@Test
+	@DisplayName("Deve agrupar por mês do menor ao maior ano, omitindo os meses sem lançamentos.")
+	public void agrupaPorMes() {
+		List<LinhaRelatorio> linhas = colunas.agrupar(SEM_FILTRO, Agrupamento.MES, 100, 100);
+
+		assertThat(linhas).containsExactly(
+				new LinhaRelatorio("2019-12", new BigDecimal("3000.00"), 1l),
+				new LinhaRelatorio("2020-01", new BigDecimal("400.50"), 1l),
+				new LinhaRelatorio("2020-02", new BigDecimal("1550.00"), 2l));
+	}
+
+	@Test
+	@DisplayName("Deve listar as maiores descrições do filtro pelo valor somado.")
+	public void listaMaioresDescricoes() {
+		FiltroRelatorio despesas2020 = FiltroRelatorio.builder().ano(2020).tipo(TipoLancamento.DESPESA).build();
+
+		List<LinhaRelatorio> linhas = colunas.agrupar(despesas2020, Agrupamento.DESCRICAO, 1, 100);
+
+		assertThat(linhas).containsExactly(new LinhaRelatorio("Aluguel", new BigDecimal("1200.00"), 1l));
+		assertThat(colunas.agrupar(despesas2020, Agrupamento.DESCRICAO, 10, 100))
+				.extracting(LinhaRelatorio::getChave).containsExactly("Aluguel", "Mercado");
+	}
+
+	@Test
+	@DisplayName("Deve aplicar gravações e remoções sem voltar a um estado de versão anterior.")
+	public void aplicaGravacoesPelaVersao() {
+		colunas.gravar(linha(3l, "Mercado", 2020, 2, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "350", 1l));
+		colunas.gravar(linha(3l, "Mercado", 2020, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "350", 0l));
+		colunas.remover(1l);
+		colunas.gravar(linha(1l, "Salário", 2019, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, "3000"));
+		colunas.gravar(linha(5l, "Luz", 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "90"));
+
+		assertThat(colunas.tamanho()).isEqualTo(4);
+		assertThat(colunas.agrupar(SEM_FILTRO, Agrupamento.STATUS, 100, 100)).containsExactly(
+				new LinhaRelatorio("PENDENTE", new BigDecimal("90.00"), 1l),
+				new LinhaRelatorio("EFETIVADO", new BigDecimal("1950.50"), 3l));
+	}
+
+	@Test
+	@DisplayName("Deve aplicar ao final da carga as gravações recebidas durante ela.")
+	public void aplicaGravacoesRecebidasDuranteCarga() {
+		ColunasLancamentos novas = new ColunasLancamentos();
+		novas.gravar(linha(2l, "Mercado", 2020, 1, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, "400.50", 1l));
+		novas.remover(3l);
+
+		boolean carregou = novas.carregarSeNecessario(() -> Stream.of(
+				linha(2l, "Mercado", 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "400.50", 0l),
+				linha(3l, "Mercado", 2020, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "350", 0l)));
+
+		assertThat(carregou).isTrue();
+		assertThat(novas.carregarSeNecessario(Stream::empty)).isFalse();
+		assertThat(novas.agrupar(SEM_FILTRO, Agrupamento.STATUS, 100, 100))
+				.containsExactly(new LinhaRelatorio("CANCELADO", new BigDecimal("400.50"), 1l));
+	}
+
+	@Test
+	@DisplayName("Deve somar em paralelo com o mesmo resultado da soma sequencial.")
+	public void somaEmParalelo() {
+		List<LinhaLancamento> linhas = new ArrayList<>();
+		for (long id = 1; id <= 10_000; id++) {
+			linhas.add(linha(id, "Descrição " + id % 37, 2015 + (int) (id % 6), (int) (id % 12) + 1,
+					id % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA,
+					StatusLancamento.values()[(int) (id % 3)], BigDecimal.valueOf(id, 2).toPlainString()));
+		}
+		ColunasLancamentos grandes = new ColunasLancamentos();
+		grandes.carregarSeNecessario(linhas::stream);
+
+		for (Agrupamento agrupamento : Arrays.asList(Agrupamento.MES, Agrupamento.DESCRICAO)) {
+			assertThat(grandes.agrupar(SEM_FILTRO, agrupamento, 1000, 256))
+					.isEqualTo(grandes.agrupar(SEM_FILTRO, agrupamento, 1000, Integer.MAX_VALUE));
+		}
+	}
+
+	private static LinhaLancamento linha(Long id, String descricao, int ano, int mes, TipoLancamento tipo,
+			StatusLancamento status, String valor) {
+		return linha(id, descricao, ano, mes, tipo, status, valor, 0l);
+	}
+
+	private static LinhaLancamento linha(Long id, String descricao, int ano, int mes, TipoLancamento tipo,
+			StatusLancamento status, String valor, Long versao) {
+		return new LinhaLancamento(id, descricao, mes, ano, new BigDecimal(valor), tipo, status, versao);
+	}
+
+}